@@ -0,0 +1,52 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda.bench;
+
+import eda.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Par de puntos más cercanos de {@link ClosestPoints} sobre nubes de
+ * puntos de {@link PointGenerator}.
+ *
+ * Los puntos se generan una vez por combinación de parámetros con una
+ * semilla fija. Dividiendo el tiempo medio entre n·log2(n) se comprueba
+ * que el coste crece como O(n log n) con las tres distribuciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class ClosestPointsBenchmark
+{
+@Param({"uniform", "clustered", "collinear"})
+public String shape;
+
+@Param({"1000", "100000", "1000000", "10000000", "50000000"})
+public int points;
+
+private int[] xs, ys;
+
+@Setup public void setup()
+{
+    PointGenerator g = PointGenerator.create(shape, points, 1);
+    xs = g.getXs();
+    ys = g.getYs();
+}
+
+@Benchmark public ClosestPoints.Result compute()
+{
+    return ClosestPoints.compute(xs, ys);
+}
+
+@Benchmark public ClosestPoints.Result computeParallel()
+{
+    return ClosestPoints.computeParallel(xs, ys);
+}
+
+} // ClosestPointsBenchmark
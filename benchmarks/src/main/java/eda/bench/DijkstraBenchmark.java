@@ -0,0 +1,69 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda.bench;
+
+import eda.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Caminos más cortos de {@link Dijkstra} sobre grafos sintéticos.
+ *
+ * Los pares origen-destino se eligen al principio con una semilla
+ * fija, de modo que todas las ejecuciones hacen las mismas consultas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class DijkstraBenchmark
+{
+private static final int PARES = 1024;
+
+@Param({"rejilla", "libreEscala", "cadena"})
+public String forma;
+
+@Param({"10000", "100000", "1000000", "10000000"})
+public int aristas;
+
+private Dijkstra<Integer> grafo;
+private int[] origenes, destinos;
+private int consulta;
+
+@Setup public void setup()
+{
+    GeneradorGrafos g = GeneradorGrafos.crear(forma, aristas, 1);
+    grafo = g.dijkstra();
+    origenes = new int[PARES];
+    destinos = new int[PARES];
+    Random r = new Random(2);
+
+    for(int i = 0; i < PARES; i++)
+    {
+        int a = r.nextInt(g.vertices()),
+            b = r.nextInt(g.vertices());
+
+        // En el grafo en cadena sólo se puede avanzar.
+        origenes[i] = Math.min(a, b);
+        destinos[i] = Math.max(a, b);
+    }
+}
+
+@Benchmark public List<Integer> search()
+{
+    int i = consulta++ & (PARES - 1);
+    return grafo.search(origenes[i], destinos[i]);
+}
+
+@Benchmark public Map<Integer,Long> distances()
+{
+    int i = consulta++ & (PARES - 1);
+    return grafo.distances(origenes[i]);
+}
+
+} // DijkstraBenchmark
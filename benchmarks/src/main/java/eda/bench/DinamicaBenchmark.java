@@ -0,0 +1,84 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda.bench;
+
+import eda.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mochila 0/1 y cambio de monedas con la tabla completa de
+ * {@link Dinamica} y con las filas de {@link DinamicaParalela}, en uno y
+ * en varios hilos.
+ *
+ * Los objetos se generan una vez con una semilla fija. La aceleración
+ * en paralelo es el cociente entre los tiempos de las versiones "fila"
+ * y "paralelo"; el número de hilos se puede cambiar con la propiedad
+ * {@code java.util.concurrent.ForkJoinPool.common.parallelism}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class DinamicaBenchmark
+{
+private static final int[] MONEDAS = {
+        1, 7, 13, 17, 23, 29, 101, 257, 997, 1999, 4001, 9973 };
+
+@Param({"1000"})
+public int objetos;
+
+@Param({"10000", "100000", "1000000"})
+public int W;
+
+private int[] w, v;
+
+@Setup public void setup()
+{
+    Random r = new Random(1);
+    w = new int[objetos];
+    v = new int[objetos];
+
+    for(int i = 0; i < objetos; i++)
+    {
+        w[i] = 1 + r.nextInt(1000);
+        v[i] = 1 + r.nextInt(1000);
+    }
+}
+
+@Benchmark public int[][] mochilaTabla()
+{
+    return Dinamica.tablaMochila(w, v, W);
+}
+
+@Benchmark public int[] mochilaFila()
+{
+    return DinamicaParalela.mochila(w, v, W, false);
+}
+
+@Benchmark public int[] mochilaParalelo()
+{
+    return DinamicaParalela.mochila(w, v, W, true);
+}
+
+@Benchmark public int[][] cambioTabla()
+{
+    return Dinamica.tablaCambioMonedas(MONEDAS, W);
+}
+
+@Benchmark public int[] cambioFila()
+{
+    return DinamicaParalela.cambioMonedas(MONEDAS, W, false);
+}
+
+@Benchmark public int[] cambioParalelo()
+{
+    return DinamicaParalela.cambioMonedas(MONEDAS, W, true);
+}
+
+} // DinamicaBenchmark
@@ -0,0 +1,54 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda.bench;
+
+import eda.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Recorridos de {@link Grafo} sobre grafos sintéticos.
+ *
+ * Los recorridos en profundidad son recursivos, por lo que el grafo en
+ * cadena necesita una pila grande.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g", "-Xss2g"})
+public class GrafoBenchmark
+{
+@Param({"rejilla", "libreEscala", "cadena"})
+public String forma;
+
+@Param({"10000", "100000", "1000000", "10000000"})
+public int aristas;
+
+private Grafo<Integer> grafo;
+
+@Setup public void setup()
+{
+    grafo = GeneradorGrafos.crear(forma, aristas, 1).grafo();
+}
+
+@Benchmark public Set<Integer> anchura()
+{
+    return grafo.anchura(0);
+}
+
+@Benchmark public Set<Integer> profundidad()
+{
+    return grafo.profundidad(0);
+}
+
+@Benchmark public boolean hayCiclos()
+{
+    return grafo.hayCiclos(0);
+}
+
+} // GrafoBenchmark
@@ -0,0 +1,85 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda.bench;
+
+import eda.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Algoritmos voraces de {@link Voraces} sobre arrays de tipos
+ * primitivos: selección de actividades, partición de intervalos,
+ * código de Huffman y árboles de recubrimiento mínimo.
+ *
+ * Los datos se generan una vez con una semilla fija. Los intervalos
+ * tienen inicios uniformes y longitudes de hasta cien veces la
+ * separación media, y los grafos salen de {@link GeneradorGrafos}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class VoracesBenchmark
+{
+@Param({"rejilla", "libreEscala", "cadena"})
+public String forma;
+
+@Param({"10000", "100000", "1000000", "10000000"})
+public int n;
+
+private int[] inicios, finales, origenes, destinos, pesos;
+private long[] frecuencias;
+private int vertices;
+
+@Setup public void setup()
+{
+    Random r = new Random(1);
+    inicios = new int[n];
+    finales = new int[n];
+    frecuencias = new long[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        inicios[i] = r.nextInt(n * 10);
+        finales[i] = inicios[i] + 1 + r.nextInt(1000);
+        frecuencias[i] = 1 + r.nextInt(1 << 20);
+    }
+
+    GeneradorGrafos g = GeneradorGrafos.crear(forma, n, 1);
+    vertices = g.vertices();
+    origenes = g.origenes();
+    destinos = g.destinos();
+    pesos    = g.pesos();
+}
+
+@Benchmark public int[] seleccionActividades()
+{
+    return Voraces.seleccionActividades(inicios, finales);
+}
+
+@Benchmark public int[] particionIntervalos()
+{
+    return Voraces.particionIntervalos(inicios, finales);
+}
+
+@Benchmark public long[] huffman()
+{
+    return Voraces.codigosCanonicos(Voraces.longitudesHuffman(frecuencias));
+}
+
+@Benchmark public int[] kruskal()
+{
+    return Voraces.kruskal(vertices, origenes, destinos, pesos);
+}
+
+@Benchmark public int[] prim()
+{
+    return Voraces.prim(vertices, origenes, destinos, pesos);
+}
+
+} // VoracesBenchmark
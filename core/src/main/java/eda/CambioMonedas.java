@@ -0,0 +1,273 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Cambio de monedas óptimo: devuelve una cantidad con el menor número
+ * de monedas de un sistema monetario.
+ *
+ * El algoritmo voraz de {@code Voraces} sólo es óptimo con sistemas
+ * canónicos, como el del euro. Al crear el sistema se comprueba si es
+ * canónico con el test de Pearson, en tiempo O(k^3) para k monedas. Si
+ * lo es, cada cambio se calcula de forma voraz en O(k); si no, con
+ * programación dinámica en O(k W) de tiempo y O(W) de memoria, siendo
+ * W la cantidad.
+ *
+ * Los sistemas se guardan en una caché compartida, de modo que el test
+ * se hace una sola vez por sistema aunque se pida muchas veces. Los
+ * objetos son inmutables y se pueden usar desde varios hilos. Para
+ * responder muchas cantidades hasta un máximo conocido es mejor usar
+ * una {@link TablaCambios}.
+ */
+public class CambioMonedas
+{
+private static final ConcurrentMap<List<Integer>,CambioMonedas> CACHE =
+        new ConcurrentHashMap<>();
+
+private final int[] monedas; // Ordenadas de menor a mayor.
+private final boolean canonico;
+
+private CambioMonedas(int[] monedas)
+{
+    this.monedas = monedas;
+    canonico = canonico(monedas);
+}
+
+/**
+ * Obtiene un sistema monetario. No modifica el array de monedas, que
+ * puede estar desordenado y tener monedas repetidas.
+ * @param monedas Valores de las monedas.
+ * @return Sistema monetario.
+ */
+public static CambioMonedas crear(int... monedas)
+{
+    int[] m = Arrays.stream(monedas).sorted().distinct().toArray();
+
+    if(m.length == 0)
+        throw new IllegalArgumentException("No hay monedas.");
+
+    if(m[0] <= 0)
+        throw new IllegalArgumentException("Moneda no válida: "+ m[0]);
+
+    List<Integer> clave = new ArrayList<>(m.length);
+
+    for(int v : m)
+        clave.add(v);
+
+    return CACHE.computeIfAbsent(clave, k -> new CambioMonedas(m));
+}
+
+/**
+ * Valores de las monedas, ordenados de menor a mayor.
+ * @return Copia del array de monedas.
+ */
+public int[] getMonedas()
+{
+    return monedas.clone();
+}
+
+/**
+ * Indica si el sistema es canónico, es decir, si el algoritmo voraz
+ * devuelve siempre el menor número de monedas.
+ * @return {@code true} si es canónico.
+ */
+public boolean canonico()
+{
+    return canonico;
+}
+
+/**
+ * Construye una tabla con el cambio óptimo de todas las cantidades
+ * hasta un máximo, para responder muchas consultas sin recalcular.
+ * @param maximo Mayor cantidad de la tabla.
+ * @param paralelo Si se calcula en paralelo.
+ * @return Tabla de cambios.
+ */
+public TablaCambios tabla(int maximo, boolean paralelo)
+{
+    return new TablaCambios(this, maximo, paralelo);
+}
+
+/**
+ * Calcula el cambio de una cantidad con el menor número de monedas.
+ * @param valor Cantidad.
+ * @return Número de monedas de cada valor, en el orden de
+ *         {@link #getMonedas()}.
+ * @throws IllegalArgumentException Si la cantidad no se puede formar
+ *         con las monedas del sistema.
+ */
+public int[] cambio(int valor)
+{
+    if(valor < 0)
+        throw new IllegalArgumentException("Cantidad negativa: "+ valor);
+
+    return canonico ? voraz(valor) : dinamica(valor);
+}
+
+/**
+ * Menor número de monedas con el que se forma una cantidad.
+ * @param valor Cantidad.
+ * @return Número de monedas.
+ * @throws IllegalArgumentException Si la cantidad no se puede formar
+ *         con las monedas del sistema.
+ */
+public int numeroMonedas(int valor)
+{
+    int n = 0;
+
+    for(int c : cambio(valor))
+        n += c;
+
+    return n;
+}
+
+private int[] voraz(int valor)
+{
+    int[] x = new int[monedas.length];
+
+    for(int i = monedas.length - 1; i >= 0; i--)
+    {
+        x[i] = valor / monedas[i];
+        valor %= monedas[i];
+    }
+
+    // Un sistema canónico tiene la moneda unidad.
+    assert valor == 0;
+    return x;
+}
+
+private int[] dinamica(int valor)
+{
+    // C[j] es el menor número de monedas para la cantidad j, y U[j] la
+    // última moneda usada. Basta una fila porque cada moneda se puede
+    // usar cualquier número de veces.
+    int[] C = new int[valor + 1],
+          U = new int[valor + 1];
+
+    for(int j = 1; j <= valor; j++)
+    {
+        C[j] = Integer.MAX_VALUE;
+
+        for(int i = 0; i < monedas.length && monedas[i] <= j; i++)
+        {
+            int c = C[j - monedas[i]];
+
+            if(c != Integer.MAX_VALUE && c + 1 < C[j])
+            {
+                C[j] = c + 1;
+                U[j] = i;
+            }
+        }
+    }
+
+    if(C[valor] == Integer.MAX_VALUE)
+        throw new IllegalArgumentException("No hay solución");
+
+    int[] x = new int[monedas.length];
+
+    for(int j = valor; j > 0; j -= monedas[U[j]])
+        x[U[j]]++;
+
+    return x;
+}
+
+// Número de monedas del cambio voraz de una cantidad. Las monedas
+// están ordenadas de mayor a menor.
+private static long voraz(long[] c, long valor)
+{
+    long n = 0;
+
+    for(int i = 0; i < c.length; i++)
+    {
+        n += valor / c[i];
+        valor %= c[i];
+    }
+
+    return n;
+}
+
+/*
+ * Test de Pearson. Con las monedas ordenadas de mayor a menor, si el
+ * sistema no es canónico su menor contraejemplo tiene una solución
+ * óptima que coincide con el cambio voraz de c[i-1]-1 en las monedas
+ * i..j-1, tiene una moneda más que él en la moneda j y ninguna en las
+ * demás, para algún i <= j. Basta comprobar esas O(k^2) cantidades.
+ */
+private static boolean canonico(int[] monedas)
+{
+    int k = monedas.length;
+
+    if(monedas[0] != 1)
+        return false; //............................................RETURN
+
+    long[] c = new long[k];
+
+    for(int i = 0; i < k; i++)
+        c[i] = monedas[k - 1 - i];
+
+    long[] g = new long[k];
+
+    for(int i = 1; i < k; i++)
+    {
+        // Cambio voraz de c[i-1]-1.
+        long r = c[i-1] - 1;
+
+        for(int t = 0; t < k; t++)
+        {
+            g[t] = r / c[t];
+            r %= c[t];
+        }
+
+        long valor = 0, n = 0;
+
+        for(int j = i; j < k; j++)
+        {
+            // valor y n acumulan las monedas i..j-1 del cambio voraz.
+            long w = valor + (g[j] + 1) * c[j],
+                 m = n + g[j] + 1;
+
+            if(voraz(c, w) > m)
+                return false; //....................................RETURN
+
+            valor += g[j] * c[j];
+            n += g[j];
+        }
+    }
+
+    return true;
+}
+
+public static void main(String[] args)
+{
+    int[][] sistemas = { { 1, 2, 5, 10, 20, 50, 100, 200 },
+                         { 1, 5, 10, 25 }, { 1, 3, 4 },
+                         { 1, 7, 10, 11 }, { 4, 6 } };
+
+    for(int[] s : sistemas)
+    {
+        CambioMonedas sistema = crear(s);
+
+        System.out.println("\nMonedas: "+ Arrays.toString(s) +
+                           (sistema.canonico() ? " (canónico)" : ""));
+
+        for(int valor : new int[] { 6, 14, 31, 388 })
+        {
+            try
+            {
+                System.out.println(valor +": "+
+                                   Arrays.toString(sistema.cambio(valor)));
+            }
+            catch(IllegalArgumentException ex)
+            {
+                System.out.println(valor +": "+ ex.getMessage());
+            }
+        }
+    }
+}
+
+} // CambioMonedas
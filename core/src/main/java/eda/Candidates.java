@@ -0,0 +1,228 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+/**
+ * Montículo de máximos con los k puntos más cercanos a una posición
+ * encontrados durante una búsqueda en un {@link SpatialIndex}.
+ *
+ * Con coordenadas 'int' las distancias al cuadrado ocupan hasta 65 bits,
+ * así que se guardan y se comparan como valores de 128 bits (parte alta
+ * y parte baja sin signo), igual que en {@link Space}.
+ */
+class Candidates
+{
+long x, y;   // Posición buscada.
+int skip;    // Índice que no se tiene en cuenta, o -1.
+
+private final long[] his, los;
+private final int[] items;
+private int size;
+
+/**
+ * Crea el montículo.
+ * @param k Número de puntos que se buscan.
+ */
+Candidates(int k)
+{
+    his   = new long[k];
+    los   = new long[k];
+    items = new int[k];
+}
+
+/**
+ * Prepara una nueva búsqueda.
+ * @param x Coordenada 'x' de la posición buscada.
+ * @param y Coordenada 'y' de la posición buscada.
+ * @param skip Índice que no se tiene en cuenta, o -1.
+ */
+void reset(long x, long y, int skip)
+{
+    this.x    = x;
+    this.y    = y;
+    this.skip = skip;
+    size = 0;
+}
+
+/**
+ * Parte alta de {@code dx*dx + dy*dy} como valor de 128 bits. La parte
+ * baja es el resultado de la expresión en 'long'.
+ * @param dx Diferencia de las coordenadas 'x'.
+ * @param dy Diferencia de las coordenadas 'y'.
+ * @return Parte alta.
+ */
+static long squareHi(long dx, long dy)
+{
+    long x2 = dx * dx;
+
+    return Math.multiplyHigh(dx, dx) + Math.multiplyHigh(dy, dy) +
+           (Long.compareUnsigned(x2 + dy * dy, x2) < 0 ? 1 : 0);
+}
+
+/**
+ * Indica si un punto está a una distancia menor o igual que la cota.
+ * @param dx Diferencia de las coordenadas 'x'.
+ * @param dy Diferencia de las coordenadas 'y'.
+ * @param hi Parte alta de la cota de la distancia al cuadrado.
+ * @param lo Parte baja de la cota de la distancia al cuadrado.
+ * @return {@code true} si está dentro.
+ */
+static boolean within(long dx, long dy, long hi, long lo)
+{
+    return Space.compare(squareHi(dx, dy), dx * dx + dy * dy, hi, lo) <= 0;
+}
+
+/**
+ * Parte alta del cuadrado de una distancia redondeado hacia abajo.
+ * @param distance Distancia no negativa.
+ * @return Parte alta; {@code Long.MAX_VALUE} si la distancia es infinita.
+ */
+static long limitHi(double distance)
+{
+    return (long)Math.floor(Math.floor(distance * distance) / 0x1p64);
+}
+
+/**
+ * Parte baja sin signo del cuadrado de una distancia redondeado hacia
+ * abajo.
+ * @param distance Distancia no negativa.
+ * @return Parte baja.
+ */
+static long limitLo(double distance)
+{
+    double d2 = Math.floor(distance * distance);
+    d2 -= Math.floor(d2 / 0x1p64) * 0x1p64;
+
+    if(Double.isNaN(d2))
+        return 0; //................................................RETURN
+
+    return d2 < 0x1p63 ? (long)d2 : (long)(d2 - 0x1p63) ^ Long.MIN_VALUE;
+}
+
+/**
+ * Indica si los puntos a una distancia al cuadrado dada no pueden
+ * mejorar los candidatos.
+ * @param hi Parte alta de la distancia al cuadrado.
+ * @param lo Parte baja de la distancia al cuadrado.
+ * @return {@code true} si no interesan.
+ */
+boolean beyond(long hi, long lo)
+{
+    return size == items.length &&
+           (size == 0 || Space.compare(hi, lo, his[0], los[0]) >= 0);
+}
+
+/**
+ * Indica si los puntos separados de la posición buscada por una
+ * distancia dada en un eje no pueden mejorar los candidatos.
+ * @param d Distancia en el eje.
+ * @return {@code true} si no interesan.
+ */
+boolean beyond(long d)
+{
+    return beyond(Math.multiplyHigh(d, d), d * d);
+}
+
+/**
+ * Tiene en cuenta un punto.
+ * @param xi Coordenada 'x' del punto.
+ * @param yi Coordenada 'y' del punto.
+ * @param item Índice del punto.
+ */
+void add(long xi, long yi, int item)
+{
+    long dx = x - xi,
+         dy = y - yi,
+         hi = squareHi(dx, dy),
+         lo = dx * dx + dy * dy;
+
+    if(beyond(hi, lo) || item == skip)
+        return; //..................................................RETURN
+
+    if(size < items.length)
+    {
+        // Subimos el hueco desde la última posición.
+        int i = size++;
+
+        while(i > 0 && compare((i - 1) / 2, hi, lo) < 0)
+        {
+            move((i - 1) / 2, i);
+            i = (i - 1) / 2;
+        }
+
+        set(i, hi, lo, item);
+    }
+    else
+    {
+        down(hi, lo, item);
+    }
+}
+
+// Compara la distancia de una posición del montículo con otra.
+private int compare(int i, long hi, long lo)
+{
+    return Space.compare(his[i], los[i], hi, lo);
+}
+
+private void move(int from, int to)
+{
+    set(to, his[from], los[from], items[from]);
+}
+
+private void set(int i, long hi, long lo, int item)
+{
+    his[i]   = hi;
+    los[i]   = lo;
+    items[i] = item;
+}
+
+// Pone un elemento en la raíz y baja el hueco hasta su sitio.
+private void down(long hi, long lo, int item)
+{
+    int i = 0;
+
+    for(int c = 1; c < size; c = 2 * i + 1)
+    {
+        if(c + 1 < size && compare(c + 1, his[c], los[c]) > 0)
+            c++;
+
+        if(compare(c, hi, lo) <= 0)
+            break; //................................................BREAK
+
+        move(c, i);
+        i = c;
+    }
+
+    set(i, hi, lo, item);
+}
+
+/**
+ * Peor candidato encontrado, que con k=1 es el mejor.
+ * @return Índice del punto, o -1 si no se ha encontrado ninguno.
+ */
+int worst()
+{
+    return size > 0 ? items[0] : -1;
+}
+
+/**
+ * Vacía el montículo.
+ * @return Índices de los puntos, del más cercano al más lejano.
+ */
+int[] sorted()
+{
+    int[] r = new int[size];
+
+    while(size > 0)
+    {
+        r[size-1] = items[0];
+        size--;
+        down(his[size], los[size], items[size]);
+    }
+
+    return r;
+}
+
+} // Candidates
@@ -0,0 +1,1121 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Esta clase implementa un algoritmo para encontrar el par de puntos
+ * más cercanos en una nube de puntos usando la técnica de divide
+ * y vencerás.
+ * 
+ * El algoritmo calcula el resultado con complejidad O(n log n).
+ * 
+ * Bibliografía:
+ * 
+ * Thomas H. Cormen, Charles E. Leiserson,
+ * Ronald L. Rivest, Clifford Stein.
+ * INTRODUCTION TO ALGORITHMS (second edition)
+ * The MIT Press
+ */
+public class ClosestPoints
+{
+/**
+ * Busca el par de puntos más cercanos de un conjunto de puntos.
+ * @param P Conjunto de puntos.
+ * @return Par de puntos más cercanos.
+ */
+public static Result compute(Set<Point> P)
+{
+    List<Point> X = new ArrayList<>(P),
+                Y = new ArrayList<>(P);
+
+    Collections.sort(X, (a,b) -> Integer.compare(a.x, b.x));
+    Collections.sort(Y, (a,b) -> Integer.compare(a.y, b.y));
+    return compute(X, Y);
+}
+
+private static Result compute(List<Point> aX, List<Point> aY)
+{
+    int size = aX.size();
+
+    if(size <= 3)
+    {
+        // Con 3 o menos puntos buscamos por "fuerza bruta".
+        Result result = null;
+
+        for(int i = 0; i < size; i++)
+        {
+            Point pi = aX.get(i);
+
+            for(int j = i+1; j < size; j++)
+            {
+                Point pj = aX.get(j);
+                long  d2 = distance2(pi, pj);
+
+                if(result == null || result.d2 > d2)
+                    result = new Result(pi, pj, d2);
+            }
+        }
+
+        return result; //...........................................RETURN
+    }
+
+    int middle = size / 2;
+
+    Set<Point> sL = new HashSet<>(), // Puntos a la izquierda.
+               sR = new HashSet<>(); // Puntos a la derecha.
+
+    List<Point> xL = new ArrayList<>(), // Ptos. izq. ordenados por 'x'.
+                xR = new ArrayList<>(), // Ptos. der. ordenados por 'x'.
+                yL = new ArrayList<>(), // Ptos. izq. ordenados por 'y'.
+                yR = new ArrayList<>(); // Ptos. der. ordenados por 'y'.
+
+    for(int i = 0; i < middle; i++)
+    {
+        Point p = aX.get(i);
+        sL.add(p);
+        xL.add(p);
+    }
+
+    for(int i = middle; i < size; i++)
+    {
+        Point p = aX.get(i);
+        sR.add(p);
+        xR.add(p);
+    }
+
+    for(Point p : aY)
+    {
+        if(sL.contains(p))
+            yL.add(p);
+        else if(sR.contains(p))
+            yR.add(p);
+        else
+            throw new AssertionError();
+    }
+
+    Result rL = compute(xL, yL),
+           rR = compute(xR, yR);
+
+    // Nos quedamos con la mejor solución de las llamadas recursivas.
+    Result result = rL.d2 < rR.d2 ? rL : rR;
+
+    // Puede que los dos puntos más cercanos sean uno de los
+    // izquierdos y otro de los derechos. Vamos a comprobarlo.
+
+    // Calculamos la coordenada 'x' de la línea vertical
+    // que está entre los puntos izquierdos y derechos.
+    int m = (int)(((long)xL.get(xL.size()-1).x + xR.get(0).x) / 2);
+
+    // Creamos un array ordenado por coordenada 'y' con los
+    // puntos que están a ambos lados de la línea vertical a
+    // una distancia de la línea menor al resultado.
+    List<Point> yM = new ArrayList<>();
+
+    for(Point p : aY)
+    {
+        if(distance2(p.x, m) < result.d2)
+            yM.add(p);
+    }
+
+    int yMSize = yM.size();
+
+    for(int i = 0; i < yMSize; i++)
+    {
+        Point pi = yM.get(i);
+        
+        // Buscamos el punto más cercano a 'pi' en un rectángulo de
+        // '2*d x d', donde 'd' es la raíz cuadrada de 'result.d2'.
+        // En este rectángulo sólo puede haber 8 puntos, por tanto,
+        // el siguiente bucle hará 7 iteraciones como mucho.
+
+        for(int j = i + 1; j < yMSize; j++)
+        {
+            Point pj = yM.get(j);
+
+            if(distance2(pi.y, pj.y) > result.d2)
+                break; //............................................BREAK
+
+            long d2 = distance2(pi, pj);
+
+            if(result.d2 > d2)
+                result = new Result(pi, pj, d2);
+        }
+    }
+
+    return result;
+}
+
+/**
+ * Busca el par de puntos más cercanos en una nube de puntos dada por
+ * sus coordenadas.
+ * 
+ * A diferencia de {@code compute(Set)}, trabaja con arrays de tipos
+ * primitivos y permutaciones de índices: los puntos ordenados por 'y'
+ * se reparten entre las dos mitades con una partición estable según
+ * su posición en el orden por 'x', y al volver de la recursión se
+ * mezclan de nuevo. Toda la memoria auxiliar se reserva al principio.
+ * Las distancias se calculan sin desbordamientos para cualquier valor
+ * de las coordenadas.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @return Par de puntos más cercanos.
+ */
+public static Result compute(int[] xs, int[] ys)
+{
+    Engine e = new Engine(new Space.Ints(xs, ys), false);
+    Best best = new Best();
+    e.compute(0, xs.length, best);
+    return result(xs, ys, best.a, best.b);
+}
+
+/**
+ * Versión paralela de {@code compute(int[],int[])}.
+ * 
+ * Las dos mitades se resuelven en paralelo con el marco fork/join
+ * mientras el subproblema tenga más de {@code SEQUENTIAL} puntos; por
+ * debajo se usa el algoritmo secuencial. En los subproblemas grandes
+ * también se reparten entre varias tareas la partición, la mezcla y
+ * la búsqueda en la franja central, para que los recorridos lineales
+ * de los niveles superiores no limiten la aceleración.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @return Par de puntos más cercanos.
+ */
+public static Result computeParallel(int[] xs, int[] ys)
+{
+    Engine e = new Engine(new Space.Ints(xs, ys), true);
+    Best best = e.new Task(0, xs.length).invoke();
+    return result(xs, ys, best.a, best.b);
+}
+
+/**
+ * Busca el par de puntos más cercanos con coordenadas enteras de 64
+ * bits. Las distancias se calculan con 128 bits, así que no se
+ * desbordan.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @return Par de puntos más cercanos.
+ * @throws IllegalArgumentException Si alguna coordenada no es menor
+ *         que 2^62 en valor absoluto.
+ */
+public static Pair compute(long[] xs, long[] ys)
+{
+    return compute(new Space.Longs(xs, ys, null));
+}
+
+/**
+ * Busca el par de puntos más cercanos del espacio con coordenadas
+ * enteras de 64 bits.
+ * 
+ * Se usa el mismo algoritmo que en el plano: las mitades se separan
+ * por 'x' y la franja central se recorre por 'y', pero la distancia
+ * entre dos puntos también tiene en cuenta 'z'. En el espacio la franja
+ * no tiene un número acotado de puntos por rectángulo, así que el coste
+ * empeora si muchos puntos tienen las mismas 'x' e 'y' y sólo se
+ * diferencian en 'z'.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @param zs Coordenadas 'z' de los puntos.
+ * @return Par de puntos más cercanos.
+ * @throws IllegalArgumentException Si alguna coordenada no es menor
+ *         que 2^61 en valor absoluto.
+ */
+public static Pair compute(long[] xs, long[] ys, long[] zs)
+{
+    return compute(new Space.Longs(xs, ys, zs));
+}
+
+/**
+ * Busca el par de puntos más cercanos con coordenadas reales.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @return Par de puntos más cercanos.
+ * @throws IllegalArgumentException Si alguna coordenada no es finita.
+ */
+public static Pair compute(double[] xs, double[] ys)
+{
+    return compute(new Space.Doubles(xs, ys, null));
+}
+
+/**
+ * Busca el par de puntos más cercanos del espacio con coordenadas
+ * reales. Ver {@code compute(long[],long[],long[])}.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @param zs Coordenadas 'z' de los puntos.
+ * @return Par de puntos más cercanos.
+ * @throws IllegalArgumentException Si alguna coordenada no es finita.
+ */
+public static Pair compute(double[] xs, double[] ys, double[] zs)
+{
+    return compute(new Space.Doubles(xs, ys, zs));
+}
+
+private static Pair compute(Space space)
+{
+    Engine e = new Engine(space, false);
+    Best best = new Best();
+    e.compute(0, space.n, best);
+    return new Pair(best.a, best.b, space.distance(best.a, best.b));
+}
+
+/**
+ * Busca el par de puntos más cercanos de un índice espacial.
+ * 
+ * No ordena los puntos: busca el vecino más cercano de cada punto con
+ * el índice y se queda con el par más cercano. Con un índice ya
+ * construido el coste es el de n búsquedas, O(n log n) con un
+ * {@link KdTree}.
+ * @param index Índice espacial.
+ * @return Par de puntos más cercanos.
+ */
+public static Result compute(SpatialIndex index)
+{
+    int n = index.size(), a = -1, b = -1;
+    long bestHi = 0, bestLo = 0;
+
+    for(int i = 0; i < n; i++)
+    {
+        int j = index.neighbour(i);
+
+        if(j < 0)
+            continue; //..........................................CONTINUE
+
+        // Las distancias al cuadrado ocupan hasta 65 bits.
+        long dx = (long)index.getX(i) - index.getX(j),
+             dy = (long)index.getY(i) - index.getY(j),
+             hi = Candidates.squareHi(dx, dy),
+             lo = dx * dx + dy * dy;
+
+        if(a < 0 || Space.compare(hi, lo, bestHi, bestLo) < 0)
+        {
+            a = i;
+            b = j;
+            bestHi = hi;
+            bestLo = lo;
+        }
+    }
+
+    if(a < 0)
+        throw new IllegalArgumentException("Se necesitan al menos 2 puntos.");
+
+    return new Result(new Point(index.getX(a), index.getY(a)),
+                      new Point(index.getX(b), index.getY(b)), a, b);
+}
+
+/**
+ * Par de puntos de unos arrays de coordenadas.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @param a Índice del primer punto.
+ * @param b Índice del segundo punto.
+ * @return Par de puntos.
+ */
+static Result result(int[] xs, int[] ys, int a, int b)
+{
+    return new Result(new Point(xs[a], ys[a]), new Point(xs[b], ys[b]),
+                      a, b);
+}
+
+// Tamaño mínimo de un subproblema para resolverlo en paralelo.
+private static final int SEQUENTIAL = 1 << 13;
+
+// Tamaño de los bloques en los que se reparten los recorridos lineales.
+private static final int CHUNK = 1 << 15;
+
+/**
+ * Destino de los pares de puntos que encuentra el algoritmo.
+ * 
+ * Las distancias al cuadrado son valores de 128 bits, como se explica
+ * en {@link Space}. La cota se guarda en campos en lugar de devolverla
+ * un método porque se consulta en los bucles internos.
+ */
+abstract static class Pairs
+{
+    /**
+     * Cota de las distancias que interesan: sólo interesan los pares
+     * con distancia al cuadrado menor. Parte alta y parte baja.
+     */
+    long limitHi = Long.MAX_VALUE, limitLo = -1;
+
+    /**
+     * Recibe un par con distancia al cuadrado menor que la cota.
+     * @param i Índice del primer punto.
+     * @param j Índice del segundo punto.
+     * @param hi Parte alta de la distancia al cuadrado.
+     * @param lo Parte baja de la distancia al cuadrado.
+     */
+    abstract void add(int i, int j, long hi, long lo);
+} // Pairs
+
+/**
+ * Mejor par encontrado por una tarea.
+ */
+private static class Best extends Pairs
+{
+    private int a = -1, b = -1;
+
+    @Override void add(int i, int j, long hi, long lo)
+    {
+        a = i;
+        b = j;
+        limitHi = hi;
+        limitLo = lo;
+    }
+
+    private Best min(Best o)
+    {
+        return Space.less(o.limitHi, o.limitLo, this) ? o : this;
+    }
+} // Best
+
+/**
+ * Algoritmo de divide y vencerás sobre arrays de índices.
+ * 
+ * Los pares encontrados se entregan a un {@link Pairs}, que fija la
+ * anchura de la franja central: el par más cercano, los k pares más
+ * cercanos o los pares a menos de una distancia dada. Al terminar cada
+ * búsqueda los arrays quedan como al principio, así que se puede usar
+ * el mismo objeto para varias búsquedas.
+ * 
+ * El algoritmo no depende del tipo de las coordenadas: los puntos se
+ * ordenan por las claves de un {@link Space} y las distancias sólo se
+ * comparan con la cota del {@link Pairs}.
+ */
+static class Engine
+{
+    private final Space space;
+    private final int[] pX,      // Índices ordenados por 'x'.
+                        pY,      // Índices ordenados por 'y'.
+                        rank,    // Posición de cada índice en 'pX'.
+                        rankY,   // Posición de cada índice en el orden
+                                 // por 'y' del principio.
+                        scratch; // Memoria auxiliar.
+
+    Engine(Space space, boolean parallel)
+    {
+        int n = space.n;
+
+        if(n < 2)
+        {
+            throw new IllegalArgumentException(
+                    "Se necesitan al menos 2 puntos.");
+        }
+
+        this.space = space;
+        rank    = new int[n];
+        rankY   = new int[n];
+        scratch = new int[n];
+        pX      = sort(n, space::keyX, null, null, parallel);
+        ranks(rank, pX, parallel);
+
+        // Con los empates en 'y' ordenados por 'x', al mezclar las dos
+        // mitades los puntos izquierdos de un empate van antes que los
+        // derechos, y la comparación de la mezcla es fácil de predecir.
+        pY = sort(n, space::keyY, rank, pX, parallel);
+        ranks(rankY, pY, parallel);
+    }
+
+    // Copias de los órdenes por 'x' y por 'y'. Entre dos búsquedas
+    // 'pY' vuelve a estar ordenado por 'y'.
+    int[] orderX()
+    {
+        return pX.clone();
+    }
+
+    int[] orderY()
+    {
+        return pY.clone();
+    }
+
+    static int[] sort(int[] c, boolean parallel)
+    {
+        return sort(c.length, i -> c[i], null, null, parallel);
+    }
+
+    // Ordena los índices por una clave. Los empates se deshacen por
+    // 'tie[i]', una permutación cuya inversa es 'order', o por el índice
+    // si no se indica.
+    private static int[] sort(int n, IntToLongFunction key,
+                              int[] tie, int[] order, boolean parallel)
+    {
+        // Ordenamos la clave junto con el desempate en un 'long' para no
+        // tener que usar un comparador con objetos. Si la clave no cabe
+        // en 32 bits la sustituimos por su posición entre las claves
+        // distintas.
+        long[] k = new long[n];
+        int[] p = new int[n];
+        long min = 0, max = 0;
+
+        if(parallel)
+            Arrays.parallelSetAll(k, key::applyAsLong);
+        else
+            Arrays.setAll(k, key::applyAsLong);
+
+        for(long v : k)
+        {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+
+        if(min < Integer.MIN_VALUE || max > Integer.MAX_VALUE)
+        {
+            long[] v = k.clone();
+            int m = 0;
+
+            if(parallel)
+                Arrays.parallelSort(v);
+            else
+                Arrays.sort(v);
+
+            for(int i = 0; i < n; i++)
+            {
+                if(i == 0 || v[i] != v[m-1])
+                    v[m++] = v[i];
+            }
+
+            int distinct = m;
+            IntToLongFunction r =
+                    i -> Arrays.binarySearch(v, 0, distinct, k[i]);
+
+            if(parallel)
+                Arrays.parallelSetAll(k, r);
+            else
+                Arrays.setAll(k, r);
+        }
+
+        IntToLongFunction pack = tie == null ? i -> k[i] << 32 | i
+                                             : i -> k[i] << 32 | tie[i];
+        IntUnaryOperator unpack = order == null ? i -> (int)k[i]
+                                                : i -> order[(int)k[i]];
+        if(parallel)
+        {
+            Arrays.parallelSetAll(k, pack);
+            Arrays.parallelSort(k);
+            Arrays.parallelSetAll(p, unpack);
+        }
+        else
+        {
+            Arrays.setAll(k, pack);
+            Arrays.sort(k);
+            Arrays.setAll(p, unpack);
+        }
+
+        return p;
+    }
+
+    // Posición de cada índice en una permutación.
+    private static void ranks(int[] rank, int[] p, boolean parallel)
+    {
+        Block b = (from, to) ->
+        {
+            for(int i = from; i < to; i++)
+                rank[p[i]] = i;
+        };
+
+        if(parallel)
+            invoke(0, p.length, b);
+        else
+            b.run(0, p.length);
+    }
+
+    void compute(int lo, int hi, Pairs pairs)
+    {
+        // Al entrar y al salir, pY[lo,hi) contiene los mismos puntos
+        // que pX[lo,hi), pero ordenados por 'y'.
+
+        if(hi - lo <= 3)
+        {
+            // Con 3 o menos puntos buscamos por "fuerza bruta".
+            for(int i = lo; i < hi; i++)
+            {
+                for(int j = i + 1; j < hi; j++)
+                    space.update(pX[i], pX[j], pairs);
+            }
+
+            return; //..............................................RETURN
+        }
+
+        int middle = (lo + hi) >>> 1;
+
+        halves(lo, hi, middle);
+        System.arraycopy(scratch, lo, pY, lo, hi - lo);
+
+        compute(lo, middle, pairs);
+        compute(middle, hi, pairs);
+
+        merge(lo, middle, middle, hi, lo);
+        System.arraycopy(scratch, lo, pY, lo, hi - lo);
+
+        int l = pX[middle-1], r = pX[middle];
+        int size = split(lo, hi, i -> space.nearSplit(i, l, r, pairs));
+        strip(lo, lo + size, lo + size, middle, pairs);
+    }
+
+    // Partición estable de pY[lo,hi) en 'scratch': los puntos izquierdos
+    // son los que están antes de 'middle' en el orden por 'x'. Es la
+    // partición más frecuente, así que no usamos 'split' para que el
+    // predicado no dependa de una llamada virtual.
+    private void halves(int lo, int hi, int middle)
+    {
+        for(int k = lo, l = lo, r = middle; k < hi; k++)
+        {
+            int i = pY[k];
+
+            if(rank[i] < middle)
+                scratch[l++] = i;
+            else
+                scratch[r++] = i;
+        }
+    }
+
+    // Copia pY[lo,hi) en 'scratch' poniendo primero, en el mismo orden,
+    // los índices que cumplen la condición. Devuelve cuántos son.
+    private int split(int lo, int hi, IntPredicate p)
+    {
+        int n = 0;
+
+        for(int k = lo; k < hi; k++)
+        {
+            if(p.test(pY[k]))
+                n++;
+        }
+
+        for(int k = lo, l = lo, r = lo + n; k < hi; k++)
+        {
+            int i = pY[k];
+
+            if(p.test(i))
+                scratch[l++] = i;
+            else
+                scratch[r++] = i;
+        }
+
+        return n;
+    }
+
+    // Mezcla los rangos ordenados por 'y' pY[l0,l1) y pY[r0,r1)
+    // en 'scratch' a partir de la posición 'k'.
+    private void merge(int l0, int l1, int r0, int r1, int k)
+    {
+        while(l0 < l1 && r0 < r1)
+        {
+            scratch[k++] = rankY[pY[l0]] < rankY[pY[r0]] ? pY[l0++]
+                                                         : pY[r0++];
+        }
+
+        while(l0 < l1)
+            scratch[k++] = pY[l0++];
+
+        while(r0 < r1)
+            scratch[k++] = pY[r0++];
+    }
+
+    // Recorrido lineal de un bloque [from,to).
+    private interface Block
+    {
+        void run(int from, int to);
+    }
+
+    // Ejecuta en paralelo un recorrido lineal de [lo,hi) por bloques.
+    private static void invoke(int lo, int hi, Block block)
+    {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        for(int b = lo; b < hi; b += CHUNK)
+        {
+            int from = b, to = Math.min(hi, b + CHUNK);
+            tasks.add(ForkJoinTask.adapt(() -> block.run(from, to)));
+        }
+
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    // Versión paralela de 'split'.
+    private int parallelSplit(int lo, int hi, IntPredicate p)
+    {
+        int chunks = (hi - lo + CHUNK - 1) / CHUNK;
+        int[] counts = new int[chunks + 1];
+
+        invoke(lo, hi, (from, to) ->
+        {
+            int n = 0;
+
+            for(int k = from; k < to; k++)
+            {
+                if(p.test(pY[k]))
+                    n++;
+            }
+
+            counts[(from - lo) / CHUNK + 1] = n;
+        });
+
+        for(int c = 1; c <= chunks; c++)
+            counts[c] += counts[c-1];
+
+        int n = counts[chunks];
+
+        invoke(lo, hi, (from, to) ->
+        {
+            int c = (from - lo) / CHUNK,
+                l = lo + counts[c],
+                r = lo + n + (from - lo) - counts[c];
+
+            for(int k = from; k < to; k++)
+            {
+                int i = pY[k];
+
+                if(p.test(i))
+                    scratch[l++] = i;
+                else
+                    scratch[r++] = i;
+            }
+        });
+
+        return n;
+    }
+
+    private void parallelCopy(int lo, int hi)
+    {
+        invoke(lo, hi, (from, to) ->
+        {
+            System.arraycopy(scratch, from, pY, from, to - from);
+        });
+    }
+
+    // Versión paralela de 'merge': el elemento central del rango mayor
+    // divide ambos rangos en dos mezclas independientes.
+    private class Merge extends RecursiveAction
+    {
+        private final int l0, l1, r0, r1, k;
+
+        private Merge(int l0, int l1, int r0, int r1, int k)
+        {
+            this.l0 = l0;
+            this.l1 = l1;
+            this.r0 = r0;
+            this.r1 = r1;
+            this.k  = k;
+        }
+
+        @Override protected void compute()
+        {
+            if(l1 - l0 + r1 - r0 <= CHUNK)
+            {
+                merge(l0, l1, r0, r1, k);
+                return; //..........................................RETURN
+            }
+
+            int lm, rm;
+
+            if(l1 - l0 >= r1 - r0)
+            {
+                lm = (l0 + l1) >>> 1;
+                rm = lowerBound(r0, r1, rankY[pY[lm]]);
+            }
+            else
+            {
+                rm = (r0 + r1) >>> 1;
+                lm = lowerBound(l0, l1, rankY[pY[rm]]);
+            }
+
+            invokeAll(new Merge(l0, lm, r0, rm, k),
+                      new Merge(lm, l1, rm, r1, k + lm - l0 + rm - r0));
+        }
+
+        private int lowerBound(int lo, int hi, int r)
+        {
+            while(lo < hi)
+            {
+                int m = (lo + hi) >>> 1;
+
+                if(rankY[pY[m]] < r)
+                    lo = m + 1;
+                else
+                    hi = m;
+            }
+
+            return lo;
+        }
+    } // Merge
+
+    // Versión paralela de 'strip': cada tarea empieza en un bloque de
+    // la franja, aunque sus comparaciones pueden salir del bloque.
+    private Best parallelStrip(int lo, int size, int middle, Best best)
+    {
+        List<Best> results = new ArrayList<>();
+
+        invoke(lo, lo + size, (from, to) ->
+        {
+            Best b = new Best();
+            b.limitHi = best.limitHi;
+            b.limitLo = best.limitLo;
+            strip(from, to, lo + size, middle, b);
+
+            synchronized(results)
+            {
+                results.add(b);
+            }
+        });
+
+        Best min = best;
+
+        for(Best b : results)
+            min = min.min(b);
+
+        return min;
+    }
+
+    // Busca pares con un punto a cada lado de 'middle' y distancia
+    // menor que la cota de 'pairs' en la franja ordenada por 'y'
+    // scratch[from,end), empezando por los puntos de scratch[from,to).
+    // Los pares de un mismo lado ya se vieron en la recursión.
+    private void strip(int from, int to, int end, int middle, Pairs pairs)
+    {
+        for(int a = from; a < to; a++)
+        {
+            int i = scratch[a];
+            boolean left = rank[i] < middle;
+
+            // Buscamos los puntos cercanos a 'i' en un rectángulo de
+            // '2*d x d', donde 'd' es la raíz cuadrada de la cota.
+
+            for(int b = a + 1; b < end; b++)
+            {
+                int j = scratch[b];
+
+                if(!space.nearY(i, j, pairs))
+                    break; //........................................BREAK
+
+                if(left != rank[j] < middle)
+                    space.update(i, j, pairs);
+            }
+        }
+    }
+
+    private class Task extends RecursiveTask<Best>
+    {
+        private final int lo, hi;
+
+        private Task(int lo, int hi)
+        {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected Best compute()
+        {
+            if(hi - lo <= SEQUENTIAL)
+            {
+                Best best = new Best();
+                Engine.this.compute(lo, hi, best);
+                return best; //.....................................RETURN
+            }
+
+            int middle = (lo + hi) >>> 1;
+            parallelSplit(lo, hi, i -> rank[i] < middle);
+            parallelCopy(lo, hi);
+
+            Task left = new Task(lo, middle);
+            left.fork();
+            Best best = new Task(middle, hi).compute().min(left.join());
+
+            new Merge(lo, middle, middle, hi, lo).invoke();
+            parallelCopy(lo, hi);
+
+            int l = pX[middle-1], r = pX[middle];
+            int size = parallelSplit(lo, hi,
+                                     i -> space.nearSplit(i, l, r, best));
+            return parallelStrip(lo, size, middle, best);
+        }
+    } // Task
+} // Engine
+
+// Distancia euclídea al cuadrado. Si no cabe en un 'long' se devuelve
+// Long.MAX_VALUE, lo que sólo ocurre con coordenadas muy separadas.
+private static long distance2(int x1, int y1, int x2, int y2)
+{
+    long d2 = distance2(x1, x2) + distance2(y1, y2);
+    return d2 < 0 ? Long.MAX_VALUE : d2;
+}
+
+private static long distance2(Point a, Point b)
+{
+    return distance2(a.x, a.y, b.x, b.y);
+}
+
+private static long distance2(int a, int b)
+{
+    // D. al cuadrado entre dos coordenadas del mismo eje. Cabe en 64
+    // bits sin signo; si no cabe en un 'long' se devuelve el máximo.
+    long d = (long)a - b, d2 = d * d;
+    return d2 < 0 ? Long.MAX_VALUE : d2;
+}
+
+/**
+ * Punto del plano con coordenadas enteras.
+ */
+public static class Point
+{
+    private final int x, y;
+
+    /**
+     * Crea un punto.
+     * @param x Coordenada 'x'.
+     * @param y Coordenada 'y'.
+     */
+    public Point(int x, int y)
+    {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Coordenada 'x'.
+     * @return Coordenada 'x'.
+     */
+    public int getX()
+    {
+        return x;
+    }
+
+    /**
+     * Coordenada 'y'.
+     * @return Coordenada 'y'.
+     */
+    public int getY()
+    {
+        return y;
+    }
+
+    @Override public int hashCode()
+    {
+        int hash = 5;
+        hash = 89 * hash + x;
+        hash = 89 * hash + y;
+        return hash;
+    }
+
+    @Override public boolean equals(Object obj)
+    {
+        return obj instanceof Point
+               && x == ((Point)obj).x
+               && y == ((Point)obj).y;
+    }
+
+    @Override public String toString()
+    {
+        return "("+ x +","+ y +")";
+    }
+}
+
+/**
+ * Par de puntos más cercanos.
+ */
+public static class Result
+{
+    private final Point a, b;
+    private final long d2;
+    private final double distance;
+    private final int indexA, indexB;
+
+    private Result(Point a, Point b, long d2)
+    {
+        this(a, b, d2, -1, -1);
+    }
+
+    Result(Point a, Point b, int indexA, int indexB)
+    {
+        this(a, b, distance2(a, b), indexA, indexB);
+    }
+
+    private Result(Point a, Point b, long d2, int indexA, int indexB)
+    {
+        this.a  = a;
+        this.b  = b;
+        this.d2 = d2;
+        this.indexA = indexA;
+        this.indexB = indexB;
+        distance = Math.hypot((double)a.x - b.x, (double)a.y - b.y);
+    }
+
+    /**
+     * Primer punto del par.
+     * @return Punto.
+     */
+    public Point getA()
+    {
+        return a;
+    }
+
+    /**
+     * Segundo punto del par.
+     * @return Punto.
+     */
+    public Point getB()
+    {
+        return b;
+    }
+
+    /**
+     * Posición del primer punto en los arrays de coordenadas.
+     * @return Índice, o -1 si los puntos no se dieron con arrays.
+     */
+    public int getIndexA()
+    {
+        return indexA;
+    }
+
+    /**
+     * Posición del segundo punto en los arrays de coordenadas.
+     * @return Índice, o -1 si los puntos no se dieron con arrays.
+     */
+    public int getIndexB()
+    {
+        return indexB;
+    }
+
+    /**
+     * Distancia euclídea al cuadrado entre los dos puntos.
+     * @return Distancia al cuadrado, o {@code Long.MAX_VALUE} si no cabe
+     *         en un 'long'.
+     */
+    public long getDistance2()
+    {
+        return d2;
+    }
+
+    /**
+     * Distancia euclídea entre los dos puntos.
+     * @return Distancia.
+     */
+    public double getDistance()
+    {
+        return distance;
+    }
+
+    @Override public String toString()
+    {
+        return a +"-"+ b +": "+ distance;
+    }
+}
+
+/**
+ * Par de puntos más cercanos de una nube con coordenadas 'long' o
+ * 'double', identificados por su posición en los arrays de coordenadas.
+ */
+public static class Pair
+{
+    private final int indexA, indexB;
+    private final double distance;
+
+    private Pair(int indexA, int indexB, double distance)
+    {
+        this.indexA   = indexA;
+        this.indexB   = indexB;
+        this.distance = distance;
+    }
+
+    /**
+     * Posición del primer punto en los arrays de coordenadas.
+     * @return Índice.
+     */
+    public int getIndexA()
+    {
+        return indexA;
+    }
+
+    /**
+     * Posición del segundo punto en los arrays de coordenadas.
+     * @return Índice.
+     */
+    public int getIndexB()
+    {
+        return indexB;
+    }
+
+    /**
+     * Distancia euclídea entre los dos puntos.
+     * @return Distancia.
+     */
+    public double getDistance()
+    {
+        return distance;
+    }
+
+    @Override public String toString()
+    {
+        return indexA +"-"+ indexB +": "+ distance;
+    }
+}
+
+/**
+ * Busca el par de puntos más cercanos de un fichero de puntos sin
+ * entorno gráfico. El formato de los ficheros se explica en
+ * {@link PointFile}, y el visor gráfico está en
+ * {@code ClosestPointsViewer}.
+ * 
+ * El resultado se escribe como CSV, con una línea de cabecera y otra
+ * con los índices y las coordenadas de los dos puntos y su distancia.
+ * @param args Opciones y fichero de puntos.
+ * @throws IOException Si falla la lectura o la escritura.
+ */
+public static void main(String[] args) throws IOException
+{
+    boolean parallel = false;
+    Path input = null, output = null;
+
+    for(int i = 0; i < args.length; i++)
+    {
+        if(args[i].equals("-p"))
+            parallel = true;
+        else if(args[i].equals("-o") && i + 1 < args.length)
+            output = Paths.get(args[++i]);
+        else if(input == null && !args[i].startsWith("-"))
+            input = Paths.get(args[i]);
+        else
+            usage();
+    }
+
+    if(input == null)
+        usage();
+
+    long t0 = System.nanoTime();
+    PointFile points = PointFile.read(input);
+    int[] xs = points.getXs(), ys = points.getYs();
+    long t1 = System.nanoTime();
+    Result r = parallel ? computeParallel(xs, ys) : compute(xs, ys);
+    long t2 = System.nanoTime();
+
+    System.err.printf("%d puntos. Lectura: %d ms. Cálculo: %d ms.\n",
+                      xs.length, (t1 - t0) / 1000000, (t2 - t1) / 1000000);
+
+    try(PrintStream out = output == null ? new PrintStream(System.out)
+                        : new PrintStream(Files.newOutputStream(output)))
+    {
+        out.println("indexA,indexB,xA,yA,xB,yB,distance");
+
+        out.println(r.indexA +","+ r.indexB +","+ r.a.x +","+ r.a.y +","+
+                    r.b.x +","+ r.b.y +","+ r.distance);
+    }
+}
+
+private static void usage()
+{
+    System.err.println("Uso: java eda.ClosestPoints [-p] [-o salida] fichero");
+    System.err.println("  -p         Cálculo en paralelo.");
+    System.err.println("  -o salida  Fichero CSV con el resultado.");
+    System.err.println("El fichero de puntos es CSV (.csv, .txt) o binario.");
+    System.err.println("Visor gráfico: eda.ClosestPointsViewer, en demos");
+    System.exit(2);
+}
+
+} // ClosestPoints
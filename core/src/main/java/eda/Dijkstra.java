@@ -0,0 +1,567 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+
+/**
+ * Algoritmo de Dijkstra.
+ *
+ * Todas las búsquedas reutilizan el mismo estado, así que después de la
+ * primera no se reserva memoria por vértice. Por eso un mismo objeto no
+ * admite varias búsquedas a la vez desde distintos hilos.
+ * @param <E> Tipo de los nodos
+ */
+public class Dijkstra<E>
+{
+private Map<E,Map<E,Integer>> map = new HashMap<>();
+private Metricas.Listener listener;
+private Search search; // Estado reutilizado por todas las búsquedas.
+
+/**
+ * Añade un vértice al grafo.
+ * @param vertex Vértice.
+ */
+public void add(E vertex)
+{
+    if(map.put(vertex, new HashMap<>()) != null)
+        throw new RuntimeException("Vértice repetido: "+ vertex);
+}
+
+/**
+ * Añade una arista ponderada desde un vértice origen a otro destino.
+ * @param origin Vértice origen.
+ * @param destination Vértice destino.
+ * @param weight Peso de la arista.
+ */
+public void add(E origin, E destination, int weight)
+{
+    Map<E,Integer> m = map.get(origin);
+
+    if(m == null)
+        throw new RuntimeException("No existe el vértice: "+ origin);
+
+    if(!map.containsKey(destination))
+        throw new RuntimeException("No existe el vértice: "+ destination);
+
+    if(m.put(destination, weight) != null)
+    {
+        throw new RuntimeException(
+            "Ya existe la arista: "+ origin +" -> "+ destination);
+    }
+}
+
+/**
+ * Añade una arista bidireccional entre dos vértices.
+ * @param vertex1 Vértice 1
+ * @param vertex2 Vértice 2
+ * @param weight Peso de la arista.
+ */
+public void add2(E vertex1, E vertex2, int weight)
+{
+    add(vertex1, vertex2, weight);
+    add(vertex2, vertex1, weight);
+}
+
+/**
+ * Indica el destinatario de las métricas de cada búsqueda.
+ * @param listener Destinatario, o {@code null} para no recoger métricas.
+ */
+public void setListener(Metricas.Listener listener)
+{
+    this.listener = listener;
+}
+
+/**
+ * Devuelve los vértices del grafo.
+ * @return Conjunto no modificable de vértices.
+ */
+Set<E> vertices()
+{
+    return Collections.unmodifiableSet(map.keySet());
+}
+
+/**
+ * Devuelve las aristas que salen de un vértice.
+ * @param vertex Vértice origen.
+ * @return Mapa no modificable de vértices destino y pesos.
+ */
+Map<E,Integer> edges(E vertex)
+{
+    Map<E,Integer> m = map.get(vertex);
+
+    if(m == null)
+        throw new RuntimeException("No existe el vértice: "+ vertex);
+
+    return Collections.unmodifiableMap(m);
+}
+
+/**
+ * Busca el camino más corto entre dos vértices.
+ * @param origin Vértice origen.
+ * @param destination Vértice destino.
+ * @return Secuencia de vértices del camino más corto.
+ */
+public List<E> search(E origin, E destination)
+{
+    Search s = search("search");
+    long d = s.dijkstra(origin, destination);
+    List<E> path = d == Long.MAX_VALUE ? null : s.path(destination);
+    s.fin();
+
+    if(path == null)
+    {
+        throw new RuntimeException(
+            "No existe camino: "+ origin +" -> "+ destination);
+    }
+
+    return path;
+}
+
+/**
+ * Calcula las distancias mínimas desde un vértice a todos los demás.
+ * @param origin Vértice origen.
+ * @return Distancia a cada vértice alcanzable desde el origen.
+ */
+public Map<E,Long> distances(E origin)
+{
+    Search s = search("distances");
+    s.dijkstra(origin, null);
+
+    Map<E,Long> distances = new HashMap<>();
+
+    for(Distance<E> d : s.distances.values())
+    {
+        if(d.run == s.run && d.distance != Long.MAX_VALUE)
+            distances.put(d.vertex, d.distance);
+    }
+
+    s.fin();
+    return distances;
+}
+
+/**
+ * Busca los 'k' caminos sin ciclos más cortos entre dos vértices
+ * usando el algoritmo de Yen.
+ * 
+ * Cada camino alternativo se obtiene desviándose de un camino ya
+ * encontrado en uno de sus vértices (vértice de desvío), sin pasar
+ * por los vértices anteriores ni repetir las aristas de desvío de los
+ * caminos que comparten la misma raíz. Todas las búsquedas reutilizan
+ * el mismo estado, por lo que no se reserva memoria por vértice en
+ * cada búsqueda.
+ * @param origin Vértice origen.
+ * @param destination Vértice destino.
+ * @param k Número de caminos.
+ * @return Como mucho 'k' caminos ordenados de menor a mayor distancia.
+ */
+public List<List<E>> search(E origin, E destination, int k)
+{
+    List<List<E>> paths = new ArrayList<>();
+    Search s = search(listener == null ? null : "search k="+ k);
+
+    if(k <= 0 || s.dijkstra(origin, destination) == Long.MAX_VALUE)
+    {
+        s.fin();
+        return paths; //............................................RETURN
+    }
+
+    paths.add(s.path(destination));
+    PriorityQueue<Candidate<E>> candidates = new PriorityQueue<>();
+    Set<List<E>> found = new HashSet<>(paths);
+
+    while(paths.size() < k)
+    {
+        List<E> last = paths.get(paths.size() - 1);
+        long rootDistance = 0;
+
+        for(int i = 0; i < last.size() - 1; i++)
+        {
+            E spur = last.get(i);
+            List<E> root = last.subList(0, i + 1);
+            int mark = ++s.mark;
+            s.get(spur).spur = mark;
+
+            // Aristas de desvío ya usadas por caminos con la misma raíz.
+            for(List<E> p : paths)
+            {
+                if(p.size() > i + 1 && p.subList(0, i + 1).equals(root))
+                    s.get(p.get(i + 1)).blocked = mark;
+            }
+
+            // Los vértices de la raíz no pueden repetirse.
+            for(int j = 0; j < i; j++)
+                s.get(last.get(j)).removed = mark;
+
+            long d = s.dijkstra(spur, destination);
+
+            if(d != Long.MAX_VALUE)
+            {
+                List<E> path = new ArrayList<>(root.subList(0, i));
+                path.addAll(s.path(destination));
+
+                if(found.add(path))
+                    candidates.add(new Candidate<>(path, rootDistance + d));
+            }
+
+            rootDistance += getWeight(spur, last.get(i + 1));
+        }
+
+        Candidate<E> c = candidates.poll();
+
+        if(c == null)
+            break; //................................................BREAK
+
+        paths.add(c.path);
+    }
+
+    s.fin();
+    return paths;
+}
+
+/**
+ * Calcula la distancia de un camino.
+ * @param path Secuencia de aristas.
+ * @return Distancia del camino.
+ * @throws ArithmeticException Si la distancia no cabe en un {@code int}.
+ */
+public int distance(List<E> path)
+{
+    return Math.toIntExact(longDistance(path));
+}
+
+/**
+ * Calcula la distancia de un camino sin riesgo de desbordamiento.
+ * @param path Secuencia de aristas.
+ * @return Distancia del camino.
+ */
+public long longDistance(List<E> path)
+{
+    Iterator<E> it = path.iterator();
+    E u = it.next();
+    long w = 0;
+
+    while(it.hasNext())
+    {
+        E v = it.next();
+        w += getWeight(u, v);
+        u = v;
+    }
+
+    return w;
+}
+
+// Prepara el estado de búsqueda para una nueva operación.
+private Search search(String operacion)
+{
+    if(search == null)
+        search = new Search();
+
+    search.inicio(operacion);
+    return search;
+}
+
+private int getWeight(E origin, E destination)
+{
+    Map<E,Integer> m = map.get(origin);
+
+    if(m == null)
+        throw new RuntimeException("No existe el vértice: "+ origin);
+
+    Integer w = m.get(destination);
+
+    if(w == null)
+    {
+        throw new RuntimeException(
+            "No existe la arista: "+ origin +" -> "+ destination);
+    }
+
+    return w;
+}
+
+/**
+ * Estado de búsqueda reutilizable entre varias ejecuciones del
+ * algoritmo de Dijkstra sobre el mismo grafo.
+ * 
+ * Las distancias se acumulan en {@code long} para evitar
+ * desbordamientos. Cada ejecución incrementa 'run', de modo que las
+ * distancias calculadas en ejecuciones anteriores quedan invalidadas
+ * sin tener que recorrerlas. De la misma forma, 'mark' identifica los
+ * vértices y aristas excluidos de la búsqueda actual, y cada operación
+ * empieza con una marca nueva.
+ */
+private class Search
+{
+    private final HashMap<E,Distance<E>> distances = new HashMap<>();
+    private long[] keys = new long[16];
+    private Object[] items = new Object[16];
+    private int size, run, mark = 1;
+    private Metricas.Listener listener;
+    private Metricas metricas;
+
+    private void inicio(String operacion)
+    {
+        mark++;
+        listener = Dijkstra.this.listener;
+        metricas = listener == null ? null : new Metricas(operacion);
+    }
+
+    private void fin()
+    {
+        if(metricas != null)
+            metricas.fin(listener);
+
+        metricas = null;
+    }
+
+    private Distance<E> get(E vertex)
+    {
+        Distance<E> d = distances.get(vertex);
+
+        if(d == null)
+            distances.put(vertex, d = new Distance<>(vertex));
+
+        return d;
+    }
+
+    private long dijkstra(E origin, E destination)
+    {
+        // Algoritmo implementado a partir del pseudocódigo de:
+        // https://es.wikipedia.org/wiki/Algoritmo_de_Dijkstra
+        // Si no se indica destino se calculan todas las distancias.
+
+        if(!map.containsKey(origin))
+            throw new RuntimeException("No existe el vértice: "+ origin);
+
+        if(destination != null && !map.containsKey(destination))
+            throw new RuntimeException("No existe el vértice: "+ destination);
+
+        run++;
+        size = 0;
+        Distance<E> d = get(origin);
+        d.reset(run);
+        d.distance = 0;
+        push(0, d);
+
+        while(size > 0)
+        {
+            long du = keys[0];
+            Distance<E> u = pop();
+
+            // La cola puede contener entradas obsoletas de un vértice
+            // cuya distancia se mejoró después de añadirlo.
+            if(u.settled == run || du > u.distance)
+            {
+                if(metricas != null)
+                    metricas.obsoletos++;
+
+                continue; //......................................CONTINUE
+            }
+
+            u.settled = run;
+
+            if(metricas != null)
+                metricas.nodos++;
+
+            if(u.vertex.equals(destination))
+                return du; //.......................................RETURN
+
+            boolean spur = u.spur == mark;
+
+            for(Map.Entry<E,Integer> n : map.get(u.vertex).entrySet())
+            {
+                Distance<E> v = get(n.getKey());
+
+                if(metricas != null)
+                    metricas.relajaciones++;
+
+                if(v.removed == mark || spur && v.blocked == mark)
+                    continue; //..................................CONTINUE
+
+                if(v.run != run)
+                    v.reset(run);
+                else if(v.settled == run)
+                    continue; //..................................CONTINUE
+
+                long duv = du + n.getValue();
+
+                if(duv < v.distance)
+                {
+                    v.distance = duv;
+                    v.parent = u;
+                    push(duv, v);
+
+                    if(metricas != null)
+                        metricas.cola(size);
+                }
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    private List<E> path(E destination)
+    {
+        ArrayList<E> path = new ArrayList<>();
+
+        for(Distance<E> v = distances.get(destination); v != null;
+            v = v.parent)
+        {
+            path.add(v.vertex);
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Montículo binario con las distancias como claves primitivas.
+    private void push(long key, Distance<E> item)
+    {
+        if(size == keys.length)
+        {
+            keys  = Arrays.copyOf(keys, size * 2);
+            items = Arrays.copyOf(items, size * 2);
+        }
+
+        int i = size++;
+
+        while(i > 0)
+        {
+            int p = (i - 1) / 2;
+
+            if(keys[p] <= key)
+                break; //............................................BREAK
+
+            keys[i]  = keys[p];
+            items[i] = items[p];
+            i = p;
+        }
+
+        keys[i]  = key;
+        items[i] = item;
+    }
+
+    private Distance<E> pop()
+    {
+        @SuppressWarnings("unchecked")
+        Distance<E> r = (Distance<E>)items[0];
+
+        long   key  = keys[--size];
+        Object item = items[size];
+        items[size] = null;
+        int i = 0;
+
+        for(;;)
+        {
+            int c = 2 * i + 1;
+
+            if(c >= size)
+                break; //............................................BREAK
+
+            if(c + 1 < size && keys[c+1] < keys[c])
+                c++;
+
+            if(keys[c] >= key)
+                break; //............................................BREAK
+
+            keys[i]  = keys[c];
+            items[i] = items[c];
+            i = c;
+        }
+
+        keys[i]  = key;
+        items[i] = item;
+        return r;
+    }
+} // Search
+
+private static class Distance<E>
+{
+    private final E vertex;
+    private Distance<E> parent;
+    private long distance;
+    private int run, settled, removed, blocked, spur;
+
+    private Distance(E vertex)
+    {
+        this.vertex = vertex;
+    }
+
+    private void reset(int run)
+    {
+        this.run = run;
+        distance = Long.MAX_VALUE;
+        parent   = null;
+    }
+} // Distance
+
+private static class Candidate<E> implements Comparable<Candidate<E>>
+{
+    private final List<E> path;
+    private final long distance;
+
+    private Candidate(List<E> path, long distance)
+    {
+        this.path     = path;
+        this.distance = distance;
+    }
+
+    @Override public int compareTo(Candidate<E> c)
+    {
+        return Long.compare(distance, c.distance);
+    }
+} // Candidate
+
+public static void main(String[] args)
+{
+    // Grafo del ejemplo de wikipedia:
+    // https://es.wikipedia.org/wiki/Anexo:Ejemplo_de_Algoritmo_de_Dijkstra
+
+    Dijkstra<Character> g = new Dijkstra<>();
+
+    // Vértices
+    g.add('A');
+    g.add('B');
+    g.add('C');
+    g.add('D');
+    g.add('E');
+    g.add('F');
+    g.add('G');
+    g.add('Z');
+
+    // Aristas
+    g.add2('A', 'B', 16);
+    g.add2('A', 'C', 10);
+    g.add2('A', 'D', 5);
+    g.add2('B', 'C', 2);
+    g.add2('B', 'F', 4);
+    g.add2('B', 'G', 6);
+    g.add2('C', 'D', 4);
+    g.add2('C', 'E', 10);
+    g.add2('C', 'F', 12);
+    g.add2('D', 'E', 15);
+    g.add2('E', 'F', 3);
+    g.add2('E', 'Z', 5);
+    g.add2('F', 'G', 8);
+    g.add2('F', 'Z', 16);
+    g.add2('G', 'Z', 7);
+
+    Metricas.Acumulador acumulador = new Metricas.Acumulador();
+    g.setListener(m -> { System.out.println(m); acumulador.metricas(m); });
+
+    List<Character> path = g.search('A', 'Z');
+    System.out.println("Camino: "+ path);
+    System.out.println(" Coste: "+ g.distance(path));
+
+    System.out.println("\nCaminos alternativos:");
+
+    for(List<Character> p : g.search('A', 'Z', 4))
+        System.out.println(g.longDistance(p) +" : "+ p);
+
+    System.out.println("\nBúsquedas: "+ acumulador.getConsultas() +
+                       ", nodos: "+ acumulador.getNodos());
+}
+
+} // Dijkstra
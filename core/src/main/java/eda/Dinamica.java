@@ -0,0 +1,778 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+import java.math.*;
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ * Ejemplos de algoritmos de programación dinámica.
+ */
+public class Dinamica
+{
+// Complejidad O(2^n)
+private static long fibR(int n)
+{
+    return n < 2 ? 1 : fibR(n-1) + fibR(n-2);
+}
+
+// Complejidad O(n)
+// Enfoque de abajo hacia arriba (Bottom-Up).
+// Basta guardar los dos últimos valores.
+private static long fibBU(int n)
+{
+    long a = 1, b = 1;
+    
+    for(int i = 2; i <= n; i++)
+    {
+        long c = a + b;
+        a = b;
+        b = c;
+    }
+    
+    return b;
+}
+
+// Complejidad O(n)
+// Enfoque de arriba hacia abajo (Top-Down).
+private static long fibTD(int n)
+{
+    return fibTD(new long[n+1], n);
+}
+
+private static long fibTD(long[] table, int n)
+{
+    if(n <= 1)
+        return 1;
+
+    if(table[n] == 0)
+        table[n] = fibTD(table, n-1) + fibTD(table, n-2);
+
+    return table[n];
+}
+
+// Complejidad O(n)
+// Enfoque de arriba hacia abajo con la memorización genérica de Memo.
+private static final Memo<Long> FIB = Memo.crear(
+        (m, n) -> n <= 1 ? 1L : m.get(n-1) + m.get(n-2));
+
+private static long fibMemo(int n)
+{
+    return FIB.get(n);
+}
+
+/*
+ * Complejidad O(log n) multiplicaciones, por duplicación (Fast Doubling).
+ * Con la numeración habitual, F(0) = 0 y F(1) = 1, y fib(n) = F(n+1):
+ *
+ *   F(2k)   = F(k) (2 F(k+1) - F(k))
+ *   F(2k+1) = F(k)^2 + F(k+1)^2
+ *
+ * Se recorren los bits de n de mayor a menor manteniendo F(k) y F(k+1),
+ * donde k es el prefijo de n ya recorrido.
+ */
+
+/**
+ * Número de Fibonacci por duplicación, con fib(0) = fib(1) = 1.
+ * Las multiplicaciones de {@code BigInteger} usan los algoritmos de
+ * Karatsuba y Toom-Cook cuando los números son grandes.
+ * @param n Índice.
+ * @return fib(n).
+ */
+public static BigInteger fibDuplicacion(int n)
+{
+    return fibDuplicacion(n, false);
+}
+
+/**
+ * Número de Fibonacci por duplicación, con fib(0) = fib(1) = 1.
+ * @param n Índice.
+ * @param paralelo Si se calculan en paralelo los productos de cada paso
+ *                 cuando los números son grandes.
+ * @return fib(n).
+ */
+public static BigInteger fibDuplicacion(int n, boolean paralelo)
+{
+    if(n < 0)
+        throw new IllegalArgumentException("Índice negativo: "+ n);
+
+    BigInteger a = BigInteger.ZERO, // F(k)
+               b = BigInteger.ONE;  // F(k+1)
+
+    for(int i = 31 - Integer.numberOfLeadingZeros(n); i >= 0; i--)
+    {
+        BigInteger c, d, e;
+
+        if(paralelo && a.bitLength() > FIB_PARALELO)
+        {
+            BigInteger x = a, y = b;
+            ForkJoinTask<BigInteger>
+                tc = ForkJoinTask.adapt(() -> x.multiply(y.shiftLeft(1)
+                                                          .subtract(x))),
+                td = ForkJoinTask.adapt(() -> x.multiply(x));
+            tc.fork();
+            td.fork();
+            e = b.multiply(b);
+            c = tc.join();
+            d = td.join().add(e);
+        }
+        else
+        {
+            c = a.multiply(b.shiftLeft(1).subtract(a)); // F(2k)
+            d = a.multiply(a).add(b.multiply(b));       // F(2k+1)
+        }
+
+        if((n >>> i & 1) == 0)
+        {
+            a = c;
+            b = d;
+        }
+        else
+        {
+            a = d;
+            b = c.add(d);
+        }
+    }
+
+    return b;
+}
+
+// Bits a partir de los cuales los productos se calculan en paralelo.
+private static final int FIB_PARALELO = 1 << 16;
+
+/**
+ * Número de Fibonacci módulo m por duplicación, con fib(0) = fib(1) = 1.
+ * Los productos se calculan sin desbordamiento para cualquier módulo.
+ * @param n Índice.
+ * @param m Módulo.
+ * @return fib(n) mod m.
+ */
+public static long fibModulo(long n, long m)
+{
+    if(n < 0)
+        throw new IllegalArgumentException("Índice negativo: "+ n);
+
+    if(m <= 0)
+        throw new IllegalArgumentException("Módulo no válido: "+ m);
+
+    long a = 0,     // F(k)
+         b = 1 % m; // F(k+1)
+
+    for(int i = 63 - Long.numberOfLeadingZeros(n); i >= 0; i--)
+    {
+        long t = a == 0 ? b : sumaModulo(b, m - a, m), // 2 F(k+1) - F(k)
+             c = productoModulo(a, sumaModulo(b, t, m), m),
+             d = sumaModulo(productoModulo(a, a, m),
+                            productoModulo(b, b, m), m);
+
+        if((n >>> i & 1) == 0)
+        {
+            a = c;
+            b = d;
+        }
+        else
+        {
+            a = d;
+            b = sumaModulo(c, d, m);
+        }
+    }
+
+    return b;
+}
+
+// (a + b) mod m, con a, b < m. La suma puede pasar de 2^63 sin signo.
+private static long sumaModulo(long a, long b, long m)
+{
+    long s = a + b;
+    return Long.compareUnsigned(s, m) >= 0 ? s - m : s;
+}
+
+// (a b) mod m, con a, b < m, usando el producto de 128 bits.
+private static long productoModulo(long a, long b, long m)
+{
+    long alto = Math.multiplyHigh(a, b),
+         bajo = a * b;
+
+    if(alto == 0 && bajo >= 0)
+        return bajo % m; //.........................................RETURN
+
+    // Reducimos alto·2^64 + bajo bit a bit. Como a, b < m, alto < m.
+    long r = alto;
+
+    for(int i = 63; i >= 0; i--)
+    {
+        // 2r+1 < 2m <= 2^64, así que cabe en 64 bits sin signo.
+        r = r << 1 | bajo >>> i & 1;
+
+        if(Long.compareUnsigned(r, m) >= 0)
+            r -= m;
+    }
+
+    return r;
+}
+
+// Complejidad O(1) si los valores ya han sido calculados.
+private static class Fibonacci
+{
+    // Usamos BigInteger porque fib(92) > Long.MAX_VALUE
+    ArrayList<BigInteger> table = new ArrayList<>();
+    
+    private Fibonacci()
+    {
+        table.add(BigInteger.ONE);
+        table.add(BigInteger.ONE);
+    }
+
+    // Enfoque de abajo hacia arriba (Bottom-Up).
+    private BigInteger get(int n)
+    {
+        for(int i = table.size(); i <= n; i++)
+            table.add(table.get(i-1).add(table.get(i-2)));
+
+        return table.get(n);
+    }
+} // Fibonacci
+
+private static void mainFibonacci()
+{
+    for(int i = 0; i < 90; i++)
+        System.out.println(i +" : "+ fibR(i));
+
+    long t = System.currentTimeMillis();
+    BigInteger f = fibDuplicacion(10000000, true);
+    t = System.currentTimeMillis() - t;
+
+    System.out.println("fib(10^7) tiene "+ f.bitLength() +" bits, "+
+                       t +" ms");
+
+    System.out.println("fib(10^18) mod (2^61-1) = "+
+                       fibModulo(1000000000000000000L, (1L << 61) - 1));
+
+    /*
+    Fibonacci fib = new Fibonacci();
+
+    for(int i = 0; i < 1000; i++)
+        System.out.println(i +" : "+ fib.get(i));
+    */
+}
+
+private static int[] cambioMonedas(int[] d, int W)
+{
+    Arrays.sort(d); // Las monedas deben estar ordenadas.
+    System.out.println("\nMonedas: "+ Arrays.toString(d));
+    int[][] C = tablaCambioMonedas(d, W);
+
+    // Algoritmo voraz para calcular las monedas del cambio.
+    int[] x = new int[d.length];
+    
+    for(int i = d.length - 1, j = W; i >= 0 && j > 0; i--)
+    {
+        if(i == 0 && C[i][j] != 0 ||
+            i > 0 && C[i][j] != C[i-1][j])
+        {
+            if(j - d[i] < 0)
+                throw new RuntimeException("No hay moneda unidad.");
+
+            if(C[i][j] == 1 + C[i][j - d[i]])
+            {
+                if(C[i][j] == Integer.MAX_VALUE)
+                    throw new RuntimeException("No hay moneda unidad.");
+
+                while(j - d[i] >= 0)
+                {
+                    x[i]++;
+                    j -= d[i];
+                }
+            }
+        }
+    }
+    
+    return x;
+}
+
+/**
+ * Tabla del problema del cambio de monedas: C[i][j] es el menor número
+ * de monedas 0..i con el que se forma la cantidad j, o
+ * {@code Integer.MAX_VALUE} si no se puede formar.
+ * {@link DinamicaParalela} calcula la última fila con memoria O(W).
+ * @param d Valores de las monedas, ordenados de menor a mayor.
+ * @param W Cantidad máxima.
+ * @return Tabla de n filas y W+1 columnas.
+ */
+public static int[][] tablaCambioMonedas(int[] d, int W)
+{
+    int[][] C = new int[d.length][W + 1];
+
+    for(int i = 0; i < d.length; i++)
+    {
+        for(int j = 1; j <= W; j++)
+        {
+            // Una moneda más, sin pasar de infinito.
+            int c = j < d[i] || C[i][j - d[i]] == Integer.MAX_VALUE
+                  ? Integer.MAX_VALUE : 1 + C[i][j - d[i]];
+
+            C[i][j] = i == 0 ? c : Math.min(C[i-1][j], c);
+        }
+    }
+
+    return C;
+}
+
+/**
+ * Cambio de monedas sobre una tabla, que puede estar en un fichero si
+ * no cabe en memoria. La tabla se rellena fila a fila y después se
+ * reconstruye la solución leyendo sus filas.
+ * @param d Valores de las monedas.
+ * @param W Cantidad.
+ * @param C Tabla de d.length filas y W+1 columnas.
+ * @return Número de monedas de cada valor.
+ * @throws IllegalArgumentException Si la cantidad no se puede formar.
+ */
+public static int[] cambioMonedas(int[] d, int W, Tabla C)
+{
+    if(W < 0)
+        throw new IllegalArgumentException("Cantidad negativa: "+ W);
+
+    for(int di : d)
+    {
+        if(di <= 0)
+            throw new IllegalArgumentException("Moneda no válida: "+ di);
+    }
+
+    comprobarTabla(C, d.length, W);
+    rellenarCambioMonedas(d, W, C);
+
+    if(d.length == 0 && W > 0 ||
+       d.length > 0 && C.get(d.length - 1, W) == Integer.MAX_VALUE)
+    {
+        throw new IllegalArgumentException("No hay solución");
+    }
+
+    // Si el valor no cambia sin la moneda i, no hace falta; si cambia,
+    // se usa al menos una vez.
+    int[] x = new int[d.length];
+
+    for(int i = d.length - 1, j = W; j > 0; )
+    {
+        if(i > 0 && C.get(i, j) == C.get(i-1, j))
+        {
+            i--;
+        }
+        else
+        {
+            x[i]++;
+            j -= d[i];
+        }
+    }
+
+    return x;
+}
+
+private static void rellenarCambioMonedas(int[] d, int W, Tabla C)
+{
+    final long INFINITO = Integer.MAX_VALUE;
+
+    for(int i = 0; i < d.length; i++)
+    {
+        C.set(i, 0, 0);
+
+        for(int j = 1; j <= W; j++)
+        {
+            // Una moneda más, sin pasar de infinito.
+            long c = j < d[i] ? INFINITO : C.get(i, j - d[i]);
+            c = Math.min(INFINITO, c + 1);
+
+            if(i == 0)
+                C.set(i, j, c);
+            else
+                C.set(i, j, Math.min(C.get(i-1, j), c));
+        }
+    }
+}
+
+private static void comprobarTabla(Tabla T, int filas, int W)
+{
+    if(T.filas() != filas || T.columnas() != W + 1)
+    {
+        throw new IllegalArgumentException(
+                "La tabla debe tener "+ filas +"x"+ (W + 1) +" casillas.");
+    }
+}
+
+private static void printCambioMonedas(int[] d, int[] x)
+{
+    assert d.length == x.length;
+    StringBuilder sb = new StringBuilder();
+    sb.append(" Cambio: ");
+    int W = 0;
+    
+    for(int i = 0; i < x.length; i++)
+    {
+        if(x[i] != 0)
+        {
+            sb.append(d[i] +"*"+ x[i] +" + ");
+            W += d[i] * x[i];
+        }
+    }
+    
+    sb.setLength(sb.length() - 3);
+    sb.append(" = "+ W);
+    System.out.println(sb);
+}
+
+private static void cambioMonedas()
+{
+    int[]d = { 1, 3, 4 };
+    int[]x = cambioMonedas(new int[]{ 1, 3, 4 }, 6);
+    printCambioMonedas(d, x);
+
+    d = new int[]{ 1, 4, 6 };
+    x = cambioMonedas(d, 8);
+    printCambioMonedas(d, x);
+
+    d = new int[]{ 1, 7, 10, 11 };
+    x = cambioMonedas(d, 14);
+    printCambioMonedas(d, x);
+}
+
+private static boolean[] mochila(int[] w, int[] v, int W)
+{
+    System.out.println("\nPeso máximo: "+ W);
+    assert w.length == v.length;
+    int[][] V = tablaMochila(w, v, W);
+
+    // Algoritmo voraz para calcular los elementos.
+    boolean[] x = new boolean[v.length];
+    int j = W;
+    
+    for(int i = v.length - 1; i >= 0; i--)
+    {
+        if(i == 0 && V[i][j] != 0 && V[i][j] == v[i] ||
+            i > 0 && V[i][j] != V[i-1][j] &&
+                V[i][j] == V[i-1][j - w[i]] + v[i])
+        {
+            assert !x[i];
+            x[i] = true;
+            j -= w[i];
+        }
+    }
+
+    return x;
+}
+
+/**
+ * Tabla del problema de la mochila 0/1: V[i][j] es el valor máximo con
+ * los objetos 0..i y peso menor o igual que j.
+ * {@link DinamicaParalela} calcula la última fila con memoria O(W).
+ * @param w Pesos de los objetos.
+ * @param v Valores de los objetos.
+ * @param W Peso máximo.
+ * @return Tabla de n filas y W+1 columnas.
+ */
+public static int[][] tablaMochila(int[] w, int[] v, int W)
+{
+    int[][] V = new int[v.length][W + 1];
+    
+    for(int i = 0; i < v.length; i++)
+    {
+        for(int j = 0; j <= W; j++)
+        {
+            if(i == 0)
+                V[i][j] = w[0] <= j ? v[0] : 0;
+            else if(w[i] > j)
+                V[i][j] = V[i-1][j];
+            else
+                V[i][j] = Math.max(V[i-1][j], V[i-1][j - w[i]] + v[i]);
+        }
+    }
+
+    return V;
+}
+
+/**
+ * Problema de la mochila 0/1 sobre una tabla, que puede estar en un
+ * fichero si no cabe en memoria. La tabla se rellena fila a fila y
+ * después se reconstruye la solución leyendo sus filas.
+ * @param w Pesos de los objetos.
+ * @param v Valores de los objetos.
+ * @param W Peso máximo.
+ * @param V Tabla de v.length filas y W+1 columnas.
+ * @return Objetos elegidos.
+ */
+public static boolean[] mochila(int[] w, int[] v, int W, Tabla V)
+{
+    comprobarMochila(w, v, W);
+    comprobarTabla(V, v.length, W);
+    rellenarMochila(w, v, W, V);
+
+    // Si el valor cambia sin el objeto i, el objeto está en la mochila.
+    boolean[] x = new boolean[v.length];
+    int j = W;
+
+    for(int i = v.length - 1; i >= 0; i--)
+    {
+        if(V.get(i, j) != (i == 0 ? 0 : V.get(i-1, j)))
+        {
+            x[i] = true;
+            j -= w[i];
+        }
+    }
+
+    return x;
+}
+
+private static void rellenarMochila(int[] w, int[] v, int W, Tabla V)
+{
+    // La columna 0 también sigue la recurrencia: los objetos de peso 0
+    // caben siempre.
+    for(int i = 0; i < v.length; i++)
+    {
+        for(int j = 0; j <= W; j++)
+        {
+            if(i == 0)
+                V.set(i, j, w[0] <= j ? v[0] : 0);
+            else if(w[i] > j)
+                V.set(i, j, V.get(i-1, j));
+            else
+                V.set(i, j, Math.max(V.get(i-1, j),
+                                     V.get(i-1, j - w[i]) + v[i]));
+        }
+    }
+}
+
+/**
+ * Valor máximo del problema de la mochila 0/1 con una sola fila de la
+ * tabla de programación dinámica. La fila se actualiza de derecha a
+ * izquierda para que cada objeto se use como mucho una vez, así que
+ * la memoria es O(W) en lugar de O(n W).
+ * @param w Pesos de los objetos.
+ * @param v Valores de los objetos.
+ * @param W Peso máximo.
+ * @return Valor máximo.
+ */
+public static int mochilaValor(int[] w, int[] v, int W)
+{
+    comprobarMochila(w, v, W);
+    int[] fila = new int[W + 1];
+    filaMochila(w, v, 0, w.length, W, fila);
+    return fila[W];
+}
+
+/**
+ * Problema de la mochila 0/1 con memoria O(W), reconstruyendo la
+ * solución con divide y vencerás como en el algoritmo de Hirschberg.
+ *
+ * Se calcula la fila final de la primera mitad de los objetos y la de
+ * la segunda mitad, y se busca el reparto del peso máximo entre ambas
+ * mitades que da más valor. Cada mitad se resuelve después con su parte
+ * del peso. Las dos filas se reutilizan en toda la recursión, y el
+ * tiempo es O(n W) como con la tabla completa, unas dos veces mayor.
+ * @param w Pesos de los objetos.
+ * @param v Valores de los objetos.
+ * @param W Peso máximo.
+ * @return Objetos elegidos.
+ */
+public static boolean[] mochilaLineal(int[] w, int[] v, int W)
+{
+    comprobarMochila(w, v, W);
+    boolean[] x = new boolean[v.length];
+
+    if(v.length > 0)
+        mochilaLineal(w, v, 0, v.length, W, new int[W+1], new int[W+1], x);
+
+    return x;
+}
+
+private static void mochilaLineal(int[] w, int[] v, int desde, int hasta,
+                                  int W, int[] f, int[] g, boolean[] x)
+{
+    if(hasta - desde == 1)
+    {
+        x[desde] = w[desde] <= W && v[desde] > 0;
+        return; //..................................................RETURN
+    }
+
+    int mitad = (desde + hasta) >>> 1;
+    filaMochila(w, v, desde, mitad, W, f);
+    filaMochila(w, v, mitad, hasta, W, g);
+
+    // Peso de la primera mitad con el que se consigue más valor.
+    int c = 0;
+
+    for(int j = 1; j <= W; j++)
+    {
+        if(f[j] + g[W - j] > f[c] + g[W - c])
+            c = j;
+    }
+
+    mochilaLineal(w, v, desde, mitad, c, f, g, x);
+    mochilaLineal(w, v, mitad, hasta, W - c, f, g, x);
+}
+
+// Fila final de la tabla de la mochila con los objetos [desde,hasta):
+// fila[j] es el valor máximo con peso menor o igual que j.
+private static void filaMochila(int[] w, int[] v, int desde, int hasta,
+                                int W, int[] fila)
+{
+    Arrays.fill(fila, 0, W + 1, 0);
+
+    for(int i = desde; i < hasta; i++)
+    {
+        int wi = w[i], vi = v[i];
+
+        for(int j = W; j >= wi; j--)
+        {
+            int c = fila[j - wi] + vi;
+
+            if(c > fila[j])
+                fila[j] = c;
+        }
+    }
+}
+
+private static void comprobarMochila(int[] w, int[] v, int W)
+{
+    if(w.length != v.length)
+        throw new IllegalArgumentException("Distinto número de valores.");
+
+    if(W < 0)
+        throw new IllegalArgumentException("Peso máximo negativo: "+ W);
+
+    for(int i = 0; i < w.length; i++)
+    {
+        if(w[i] < 0)
+            throw new IllegalArgumentException("Peso negativo: "+ i);
+    }
+}
+
+private static void printMochila(int[] w, int[] v, boolean[] x)
+{
+    assert w.length == v.length && v.length == x.length;
+    int W = 0, V = 0;
+    System.out.println("Objeto : Peso : Valor");
+    
+    for(int i = 0; i < x.length; i++)
+    {
+        System.out.printf("%6d : %4d : %2d", i, w[i], v[i]);
+
+        if(x[i])
+        {
+            System.out.print(" x 1");
+            V += v[i];
+            W += w[i];
+        }
+
+        System.out.println();
+    }
+    
+    System.out.printf("  Total: %4d : %2d\n", W, V);
+}
+
+private static void mochila()
+{
+    int[] w, v;
+    boolean[] x;
+
+    w = new int[]{ 6, 5, 5 };
+    v = new int[]{ 8, 6, 5 };
+    x = mochila(w, v, 10);
+    printMochila(w, v, x);
+
+    w = new int[]{ 5, 6, 5 };
+    v = new int[]{ 5, 8, 6 };
+    x = mochila(w, v, 10);
+    printMochila(w, v, x);
+    
+    w = new int[]{ 1, 2, 5, 6, 7 };
+    v = new int[]{ 1, 6, 18, 22, 28 };
+    x = mochila(w, v, 11);
+    printMochila(w, v, x);
+
+    w = new int[]{ 4, 3, 5, 2 };
+    v = new int[]{ 10, 40, 30, 20 };
+    x = mochila(w, v, 9);
+    printMochila(w, v, x);
+
+    System.out.println("\nPeso máximo: 9 (memoria lineal)");
+    x = mochilaLineal(w, v, 9);
+    printMochila(w, v, x);
+
+    // Con la tabla completa harían falta 2 GB.
+    Random r = new Random(1);
+    int n = 5000, W = 100000;
+    w = new int[n];
+    v = new int[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        w[i] = 1 + r.nextInt(1000);
+        v[i] = 1 + r.nextInt(1000);
+    }
+
+    long t = System.currentTimeMillis();
+    x = mochilaLineal(w, v, W);
+    t = System.currentTimeMillis() - t;
+    int peso = 0, valor = 0, objetos = 0;
+
+    for(int i = 0; i < n; i++)
+    {
+        if(x[i])
+        {
+            peso += w[i];
+            valor += v[i];
+            objetos++;
+        }
+    }
+
+    System.out.printf("\n%d objetos, peso máximo %d: %d objetos elegidos,"+
+                      " peso %d, valor %d, %d ms\n",
+                      n, W, objetos, peso, valor, t);
+}
+
+// Mochila con la tabla en un fichero temporal.
+private static void mochilaFichero() throws IOException
+{
+    Random r = new Random(1);
+    int n = 500, W = 50000;
+    int[] w = new int[n], v = new int[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        w[i] = 1 + r.nextInt(1000);
+        v[i] = 1 + r.nextInt(1000);
+    }
+
+    Path fichero = Files.createTempFile("mochila", ".bin");
+
+    try(Tabla V = Tabla.crear(fichero, n, W + 1, false))
+    {
+        boolean[] x = mochila(w, v, W, V);
+        int valor = 0;
+
+        for(int i = 0; i < n; i++)
+            valor += x[i] ? v[i] : 0;
+
+        System.out.println("\nMochila en fichero: "+ Files.size(fichero) +
+                           " bytes, valor "+ valor +" = "+
+                           mochilaValor(w, v, W));
+    }
+    finally
+    {
+        Files.delete(fichero);
+    }
+}
+
+public static void main(String[] args) throws IOException
+{
+    //mainFibonacci();
+    cambioMonedas();
+    mochila();
+    mochilaFichero();
+}
+
+} // Dinamica
@@ -0,0 +1,267 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Núcleo de programación dinámica por filas para los problemas de la
+ * mochila 0/1 y del cambio de monedas.
+ *
+ * Las tablas de {@link Dinamica} se calculan fila a fila, pero cada fila
+ * sólo depende de la anterior, así que basta guardar dos filas de W+1
+ * enteros. Los bucles internos no tienen condiciones: las columnas en
+ * las que el objeto o la moneda no caben se copian aparte, y la primera
+ * fila es la de cero objetos o monedas. Así el JIT puede vectorizar la
+ * mochila, cuya fila sólo lee la anterior.
+ *
+ * En paralelo, las columnas de cada fila se reparten en bloques entre
+ * los hilos del {@link ForkJoinPool} común. En el cambio de monedas cada
+ * fila también depende de sí misma, W-d columnas atrás, así que cada
+ * bloque se calcula primero por separado, luego se corrigen en orden
+ * las d últimas columnas de cada bloque, y por último el resto de
+ * columnas de cada bloque a partir de las del bloque anterior.
+ */
+public class DinamicaParalela
+{
+/**
+ * Valor de las cantidades que no se pueden formar.
+ */
+public static final int IMPOSIBLE = Integer.MAX_VALUE;
+
+// Menor número de columnas de un bloque.
+private static final int BLOQUE = 1 << 14;
+
+// Infinito del cambio de monedas: se le puede sumar 1 sin desbordar.
+private static final int INFINITO = Integer.MAX_VALUE / 2;
+
+// Cálculo de las columnas [desde,hasta) de una fila.
+private interface Bloque
+{
+    void run(int desde, int hasta);
+}
+
+/**
+ * Última fila de la tabla de la mochila 0/1.
+ * @param w Pesos de los objetos.
+ * @param v Valores de los objetos.
+ * @param W Peso máximo.
+ * @param paralelo Si se calcula en paralelo.
+ * @return Fila de W+1 columnas: el elemento j es el valor máximo con
+ *         peso menor o igual que j.
+ */
+public static int[] mochila(int[] w, int[] v, int W, boolean paralelo)
+{
+    if(w.length != v.length)
+        throw new IllegalArgumentException("Distinto número de valores.");
+
+    comprobar(w, W);
+    int[] fila = new int[W + 1], nueva = new int[W + 1];
+    int[] bloques = bloques(W + 1, 0, paralelo);
+
+    for(int i = 0; i < w.length; i++)
+    {
+        int wi = w[i], vi = v[i];
+
+        if(wi > W)
+            continue; //..........................................CONTINUE
+
+        int[] a = fila, b = nueva;
+        invocar(bloques, (desde, hasta) -> mochila(a, b, wi, vi, desde, hasta));
+        fila = b;
+        nueva = a;
+    }
+
+    return fila;
+}
+
+private static void mochila(int[] a, int[] b, int w, int v,
+                            int desde, int hasta)
+{
+    // Columnas en las que no cabe el objeto.
+    int m = Math.max(desde, Math.min(hasta, w));
+    System.arraycopy(a, desde, b, desde, m - desde);
+
+    for(int j = m; j < hasta; j++)
+        b[j] = Math.max(a[j], a[j - w] + v);
+}
+
+/**
+ * Última fila de la tabla del cambio de monedas.
+ * @param d Valores de las monedas, en cualquier orden.
+ * @param W Cantidad máxima.
+ * @param paralelo Si se calcula en paralelo.
+ * @return Fila de W+1 columnas: el elemento j es el menor número de
+ *         monedas con el que se forma la cantidad j, o {@link #IMPOSIBLE}
+ *         si no se puede formar.
+ */
+public static int[] cambioMonedas(int[] d, int W, boolean paralelo)
+{
+    comprobar(d, W);
+    int[] fila = new int[W + 1], nueva = new int[W + 1];
+    Arrays.fill(fila, 1, W + 1, INFINITO);
+
+    for(int di : d)
+    {
+        if(di == 0)
+            throw new IllegalArgumentException("Moneda no válida: 0");
+
+        if(di > W)
+            continue; //..........................................CONTINUE
+
+        int[] a = fila, b = nueva;
+        int[] bloques = bloques(W + 1, di, paralelo);
+        invocar(bloques, (desde, hasta) -> cambio(a, b, di, desde, hasta));
+
+        // Las d últimas columnas de cada bloque siguen a las del anterior.
+        for(int k = 1; k < bloques.length - 1; k++)
+            corregir(b, di, bloques[k], bloques[k+1], bloques[k+1] - di);
+
+        invocar(bloques, (desde, hasta) ->
+                corregir(b, di, desde, Math.max(desde, hasta - di), desde));
+
+        fila = b;
+        nueva = a;
+    }
+
+    for(int j = 0; j <= W; j++)
+    {
+        if(fila[j] >= INFINITO)
+            fila[j] = IMPOSIBLE;
+    }
+
+    return fila;
+}
+
+// Cambio de [desde,hasta) sin tener en cuenta las columnas anteriores.
+private static void cambio(int[] a, int[] b, int d, int desde, int hasta)
+{
+    int m = Math.min(hasta, desde + d);
+    System.arraycopy(a, desde, b, desde, m - desde);
+
+    for(int j = m; j < hasta; j++)
+        b[j] = Math.min(a[j], b[j - d] + 1);
+}
+
+// Corrige las columnas [inicio,fin) del bloque [desde,hasta) con las d
+// columnas anteriores al bloque, que ya son definitivas.
+private static void corregir(int[] b, int d, int desde, int fin, int inicio)
+{
+    if(desde == 0)
+        return; //..................................................RETURN
+
+    // La columna j sigue a la columna desde-d+r, con r = (j-desde) % d,
+    // tras (j-desde)/d+1 monedas más.
+    int[] previas = Arrays.copyOfRange(b, desde - d, desde);
+    int t = (inicio - desde) / d + 1,
+        j = desde + (t - 1) * d;
+
+    for(; j < fin; j += d, t++)
+    {
+        int n = Math.min(d, fin - j);
+
+        for(int r = Math.max(0, inicio - j); r < n; r++)
+            b[j + r] = Math.min(b[j + r], previas[r] + t);
+    }
+}
+
+private static void comprobar(int[] w, int W)
+{
+    if(W < 0)
+        throw new IllegalArgumentException("Máximo negativo: "+ W);
+
+    for(int i = 0; i < w.length; i++)
+    {
+        if(w[i] < 0)
+            throw new IllegalArgumentException("Valor negativo: "+ i);
+    }
+}
+
+// Límites de los bloques en que se reparte una fila de n columnas. Los
+// bloques tienen al menos 'minimo' columnas.
+private static int[] bloques(int n, int minimo, boolean paralelo)
+{
+    int hilos = paralelo ? ForkJoinPool.getCommonPoolParallelism() : 1,
+        tam = Math.max(Math.max(BLOQUE, minimo), (n + hilos - 1) / hilos),
+        k = paralelo ? Math.max(1, n / tam) : 1;
+
+    int[] bloques = new int[k + 1];
+
+    for(int i = 1; i <= k; i++)
+        bloques[i] = (int)((long)n * i / k);
+
+    return bloques;
+}
+
+private static void invocar(int[] bloques, Bloque bloque)
+{
+    if(bloques.length == 2)
+    {
+        bloque.run(bloques[0], bloques[1]);
+        return; //..................................................RETURN
+    }
+
+    List<ForkJoinTask<?>> tareas = new ArrayList<>();
+
+    for(int k = 0; k < bloques.length - 1; k++)
+    {
+        int desde = bloques[k], hasta = bloques[k+1];
+        tareas.add(ForkJoinTask.adapt(() -> bloque.run(desde, hasta)));
+    }
+
+    ForkJoinTask.invokeAll(tareas);
+}
+
+public static void main(String[] args)
+{
+    int n = 1000, W = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+    Random r = new Random(1);
+    int[] w = new int[n], v = new int[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        w[i] = 1 + r.nextInt(1000);
+        v[i] = 1 + r.nextInt(1000);
+    }
+
+    int[] d = { 1, 7, 13, 17, 23, 29, 101, 257, 997 };
+
+    for(int k = 0; k < 3; k++)
+    {
+        long t0 = System.nanoTime();
+        int[][] V = Dinamica.tablaMochila(w, v, W);
+        long t1 = System.nanoTime();
+        int[] f = mochila(w, v, W, false);
+        long t2 = System.nanoTime();
+        int[] p = mochila(w, v, W, true);
+        long t3 = System.nanoTime();
+
+        System.out.printf("Mochila: %d, tabla %d ms, fila %d ms,"+
+                          " paralelo %d ms\n", V[n-1][W],
+                          (t1 - t0) / 1000000, (t2 - t1) / 1000000,
+                          (t3 - t2) / 1000000);
+
+        assert f[W] == V[n-1][W] && p[W] == f[W];
+        V = null;
+
+        t0 = System.nanoTime();
+        int[][] C = Dinamica.tablaCambioMonedas(d, W);
+        t1 = System.nanoTime();
+        f = cambioMonedas(d, W, false);
+        t2 = System.nanoTime();
+        p = cambioMonedas(d, W, true);
+        t3 = System.nanoTime();
+
+        System.out.printf("Cambio: %d, tabla %d ms, fila %d ms,"+
+                          " paralelo %d ms\n", C[d.length-1][W],
+                          (t1 - t0) / 1000000, (t2 - t1) / 1000000,
+                          (t3 - t2) / 1000000);
+
+        assert Arrays.equals(f, C[d.length-1]) && Arrays.equals(p, f);
+    }
+}
+
+} // DinamicaParalela
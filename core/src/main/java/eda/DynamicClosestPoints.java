@@ -0,0 +1,579 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import eda.ClosestPoints.Point;
+import eda.ClosestPoints.Result;
+
+/**
+ * Par de puntos más cercanos de un conjunto al que se añaden y del que
+ * se quitan puntos, por ejemplo una ventana deslizante de un flujo.
+ *
+ * Los puntos se guardan en una rejilla de celdas cuadradas de lado 'R'
+ * mayor que la distancia mínima, y todos los pares a distancia menor
+ * que 'R' están en un montículo. Cada par con un punto a distancia
+ * menor que 'R' está en la misma celda o en una de las 8 vecinas, así
+ * que insertar o borrar un punto sólo recorre 9 celdas y cuesta
+ * O(log n) más el número de puntos de esas celdas. 'R' se elige para
+ * que haya un punto por celda de media, y las celdas no vacías están
+ * en una tabla hash con claves 'long', sin objetos por celda.
+ *
+ * La rejilla se reconstruye en O(n log n) cuando no queda ningún par
+ * a distancia menor que 'R' (la distancia mínima ha crecido mucho) o
+ * cuando las celdas están muy llenas y la distancia mínima es mucho
+ * menor que 'R'. En este caso 'R' se reduce al menos a la mitad y, como
+ * las coordenadas son enteras, no puede ocurrir más de unas 30 veces
+ * seguidas. Mientras la escala de las distancias sea estable el coste
+ * amortizado de cada cambio es O(log n). Con puntos repetidos la
+ * distancia mínima es 0 y 'R' no se reduce: una rejilla más fina no
+ * separaría los puntos iguales.
+ *
+ * Los borrados de pares del montículo son perezosos: cada entrada lleva
+ * la generación de sus dos puntos y se descarta al llegar a la cima si
+ * alguno de ellos se ha borrado.
+ *
+ * Las coordenadas deben ser menores que 2^30 en valor absoluto para
+ * que las distancias al cuadrado no desborden un 'long'.
+ */
+public class DynamicClosestPoints
+{
+private static final int LIMIT = 1 << 30;
+
+// Mayor lado cuyo cuadrado cabe en un 'long'.
+private static final long MAX_SIDE = 3037000499L;
+
+// Número de puntos recorridos en una inserción a partir del cual
+// conviene reducir el tamaño de las celdas.
+private static final int CROWDED = 64;
+
+// Puntos identificados por su posición en los arrays. Las posiciones de
+// los puntos borrados se reutilizan.
+private int[] xs = new int[16], ys = new int[16], gen = new int[16];
+private boolean[] alive = new boolean[16];
+private int[] free = new int[16];
+private int used, freeSize, size;
+
+// Rejilla. Si side == 0 todavía no se ha construido.
+private long side, side2;
+private long pairs; // Pares a distancia menor que 'side'.
+
+// Tabla hash de celdas con direccionamiento abierto. Cada celda no
+// vacía guarda su clave y el primer punto de una lista doblemente
+// enlazada con 'next' y 'prev'. Las posiciones libres tienen head=-1.
+private long[] cellKey = new long[16];
+private int[] cellHead = filled(16);
+private int cells, shift = 64 - 4;
+private int[] next = new int[16], prev = new int[16];
+
+// Montículo de pares: distancia, puntos y generaciones.
+private long[] heapD2 = new long[16], heapAB = new long[16],
+               heapGen = new long[16];
+private int heapSize;
+
+/**
+ * Número de puntos.
+ * @return Número de puntos.
+ */
+public int size()
+{
+    return size;
+}
+
+/**
+ * Añade un punto.
+ * @param x Coordenada 'x'.
+ * @param y Coordenada 'y'.
+ * @return Identificador del punto, que se usa para borrarlo.
+ */
+public int insert(int x, int y)
+{
+    if(x <= -LIMIT || x >= LIMIT || y <= -LIMIT || y >= LIMIT)
+        throw new IllegalArgumentException("Coordenadas fuera de rango.");
+
+    int id;
+
+    if(freeSize > 0)
+    {
+        id = free[--freeSize];
+    }
+    else
+    {
+        if(used == xs.length)
+        {
+            int c = 2 * used;
+            xs    = Arrays.copyOf(xs, c);
+            ys    = Arrays.copyOf(ys, c);
+            gen   = Arrays.copyOf(gen, c);
+            alive = Arrays.copyOf(alive, c);
+            free  = Arrays.copyOf(free, c);
+            next  = Arrays.copyOf(next, c);
+            prev  = Arrays.copyOf(prev, c);
+        }
+
+        id = used++;
+    }
+
+    xs[id] = x;
+    ys[id] = y;
+    alive[id] = true;
+    size++;
+
+    if(side == 0)
+    {
+        if(size >= 2)
+            rebuild(false);
+    }
+    else
+    {
+        int scanned = link(id);
+        long best = best();
+
+        // Si la distancia mínima es menor que R/4 y las celdas están
+        // llenas, reducimos R. Sólo si R puede bajar de verdad: con
+        // puntos repetidos (distancia 0) o con R ya igual a 2d+1 la
+        // reconstrucción se repetiría en cada inserción sin mejorar.
+        if(scanned > CROWDED && best > 0 && best < side2 / 16 &&
+           2 * ceilSqrt(best) + 1 < side)
+        {
+            rebuild(true);
+        }
+    }
+
+    return id;
+}
+
+/**
+ * Borra un punto.
+ * @param id Identificador devuelto por {@link #insert}.
+ * @return {@code false} si el punto no existía.
+ */
+public boolean delete(int id)
+{
+    if(id < 0 || id >= used || !alive[id])
+        return false; //............................................RETURN
+
+    if(side != 0)
+        unlink(id);
+
+    alive[id] = false;
+    gen[id]++;
+    free[freeSize++] = id;
+    size--;
+
+    if(size < 2)
+    {
+        side = side2 = 0;
+        clearCells();
+        heapSize = 0;
+        pairs = 0;
+    }
+    else if(pairs == 0)
+    {
+        rebuild(false);
+    }
+    else if(heapSize > 2 * pairs + 64)
+    {
+        compact();
+    }
+
+    return true;
+}
+
+/**
+ * Par de puntos más cercanos actual.
+ * @return Par de puntos más cercanos, con los identificadores de los
+ *         puntos como índices, o {@code null} si hay menos de 2 puntos.
+ */
+public Result closest()
+{
+    if(best() == Long.MAX_VALUE)
+        return null; //.............................................RETURN
+
+    int a = (int)(heapAB[0] >>> 32),
+        b = (int)heapAB[0];
+
+    return new Result(new Point(xs[a], ys[a]), new Point(xs[b], ys[b]),
+                      a, b);
+}
+
+// Distancia al cuadrado del par más cercano, quitando de la cima del
+// montículo los pares con puntos borrados.
+private long best()
+{
+    while(heapSize > 0 && !valid(0))
+        pop();
+
+    return heapSize > 0 ? heapD2[0] : Long.MAX_VALUE;
+}
+
+private boolean valid(int k)
+{
+    int a = (int)(heapAB[k] >>> 32),
+        b = (int)heapAB[k];
+
+    return alive[a] && alive[b] &&
+           heapGen[k] == ((long)gen[a] << 32 | gen[b] & 0xFFFFFFFFL);
+}
+
+// Reconstruye la rejilla con un lado mayor que la distancia mínima.
+// Si es posible, el lado se elige para que haya un punto por celda de
+// media, de modo que haya muchos pares a distancia menor que el lado y
+// los borrados rara vez los agoten. Al reducir el lado, el nuevo es
+// como mucho la mitad del anterior.
+private void rebuild(boolean shrink)
+{
+    int[] ids = new int[size], px = new int[size], py = new int[size];
+    long x0 = LIMIT, x1 = -LIMIT, y0 = LIMIT, y1 = -LIMIT;
+
+    for(int i = 0, k = 0; i < used; i++)
+    {
+        if(alive[i])
+        {
+            ids[k] = i;
+            px[k] = xs[i];
+            py[k] = ys[i];
+            x0 = Math.min(x0, xs[i]);
+            x1 = Math.max(x1, xs[i]);
+            y0 = Math.min(y0, ys[i]);
+            y1 = Math.max(y1, ys[i]);
+            k++;
+        }
+    }
+
+    long best = Long.MAX_VALUE;
+    int[] nn = new KdTree(px, py).neighbours();
+
+    for(int k = 0; k < size; k++)
+        best = Math.min(best, distance2(ids[k], ids[nn[k]]));
+
+    // Lado 2d+1, siendo 'd' la distancia mínima redondeada hacia arriba.
+    long d = ceilSqrt(best);
+    double area = (double)(x1 - x0 + 1) * (y1 - y0 + 1);
+    long density = (long)Math.sqrt(area / size);
+
+    if(shrink)
+        density = Math.min(density, side / 2);
+
+    side = Math.max(2 * d + 1, density);
+
+    side2 = side <= MAX_SIDE ? side * side : Long.MAX_VALUE;
+    clearCells();
+    heapSize = 0;
+    pairs = 0;
+
+    for(int id : ids)
+        link(id);
+}
+
+// Raíz cuadrada redondeada hacia arriba.
+private static long ceilSqrt(long v)
+{
+    long d = (long)Math.ceil(Math.sqrt(v));
+
+    while(d * d < v)
+        d++;
+
+    return d;
+}
+
+// Añade un punto a la rejilla y sus pares al montículo.
+// Devuelve el número de puntos recorridos.
+private int link(int id)
+{
+    long cx = Math.floorDiv(xs[id], side),
+         cy = Math.floorDiv(ys[id], side);
+
+    int scanned = 0;
+
+    for(long i = cx - 1; i <= cx + 1; i++)
+    {
+        for(long j = cy - 1; j <= cy + 1; j++)
+        {
+            int c = find(key(i, j));
+
+            if(c < 0)
+                continue; //......................................CONTINUE
+
+            for(int o = cellHead[c]; o >= 0; o = next[o])
+            {
+                long d2 = distance2(id, o);
+                scanned++;
+
+                if(d2 < side2)
+                {
+                    push(d2, o, id);
+                    pairs++;
+                }
+            }
+        }
+    }
+
+    add(key(cx, cy), id);
+    return scanned;
+}
+
+// Quita un punto de la rejilla y descuenta sus pares. Los pares siguen
+// en el montículo hasta que se descartan.
+private void unlink(int id)
+{
+    long cx = Math.floorDiv(xs[id], side),
+         cy = Math.floorDiv(ys[id], side);
+
+    int home = find(key(cx, cy));
+
+    if(prev[id] >= 0)
+        next[prev[id]] = next[id];
+    else
+        cellHead[home] = next[id];
+
+    if(next[id] >= 0)
+        prev[next[id]] = prev[id];
+
+    if(cellHead[home] < 0)
+        remove(home);
+
+    for(long i = cx - 1; i <= cx + 1; i++)
+    {
+        for(long j = cy - 1; j <= cy + 1; j++)
+        {
+            int c = find(key(i, j));
+
+            if(c < 0)
+                continue; //......................................CONTINUE
+
+            for(int o = cellHead[c]; o >= 0; o = next[o])
+            {
+                if(distance2(id, o) < side2)
+                    pairs--;
+            }
+        }
+    }
+}
+
+private static long key(long cx, long cy)
+{
+    return cx << 32 | cy & 0xFFFFFFFFL;
+}
+
+// Posición inicial de una clave en la tabla (hash de Fibonacci).
+private int slot(long key)
+{
+    return (int)(key * 0x9E3779B97F4A7C15L >>> shift);
+}
+
+// Posición de una celda, o -1 si está vacía.
+private int find(long key)
+{
+    int mask = cellHead.length - 1;
+
+    for(int i = slot(key); cellHead[i] >= 0; i = (i + 1) & mask)
+    {
+        if(cellKey[i] == key)
+            return i; //............................................RETURN
+    }
+
+    return -1;
+}
+
+// Pone un punto al principio de la lista de una celda, que se crea si
+// no existe.
+private void add(long key, int id)
+{
+    int i = find(key);
+    prev[id] = -1;
+
+    if(i >= 0)
+    {
+        next[id] = cellHead[i];
+        prev[cellHead[i]] = id;
+        cellHead[i] = id;
+        return; //..................................................RETURN
+    }
+
+    if(2 * (cells + 1) > cellHead.length)
+        resize(2 * cellHead.length);
+
+    int mask = cellHead.length - 1;
+
+    i = slot(key);
+
+    while(cellHead[i] >= 0)
+        i = (i + 1) & mask;
+
+    next[id]    = -1;
+    cellKey[i]  = key;
+    cellHead[i] = id;
+    cells++;
+}
+
+// Libera una posición moviendo hacia atrás las claves que la saltaron.
+private void remove(int i)
+{
+    int mask = cellHead.length - 1;
+    cells--;
+
+    for(int j = (i + 1) & mask; cellHead[j] >= 0; j = (j + 1) & mask)
+    {
+        int k = slot(cellKey[j]);
+
+        // La clave de 'j' puede ocupar 'i' si su posición inicial no
+        // está en el tramo circular (i,j].
+        if(i <= j ? (k <= i || k > j) : (k <= i && k > j))
+        {
+            cellKey[i]  = cellKey[j];
+            cellHead[i] = cellHead[j];
+            i = j;
+        }
+    }
+
+    cellHead[i] = -1;
+}
+
+private void resize(int capacity)
+{
+    long[] keys = cellKey;
+    int[] heads = cellHead;
+
+    cellKey  = new long[capacity];
+    cellHead = filled(capacity);
+    shift    = 64 - Integer.numberOfTrailingZeros(capacity);
+
+    int mask = capacity - 1;
+
+    for(int k = 0; k < heads.length; k++)
+    {
+        if(heads[k] >= 0)
+        {
+            int i = slot(keys[k]);
+
+            while(cellHead[i] >= 0)
+                i = (i + 1) & mask;
+
+            cellKey[i]  = keys[k];
+            cellHead[i] = heads[k];
+        }
+    }
+}
+
+private void clearCells()
+{
+    Arrays.fill(cellHead, -1);
+    cells = 0;
+}
+
+private static int[] filled(int n)
+{
+    int[] a = new int[n];
+    Arrays.fill(a, -1);
+    return a;
+}
+
+private long distance2(int a, int b)
+{
+    long x = (long)xs[a] - xs[b],
+         y = (long)ys[a] - ys[b];
+
+    return x * x + y * y;
+}
+
+private void push(long d2, int a, int b)
+{
+    if(heapSize == heapD2.length)
+    {
+        int c = 2 * heapSize;
+        heapD2  = Arrays.copyOf(heapD2, c);
+        heapAB  = Arrays.copyOf(heapAB, c);
+        heapGen = Arrays.copyOf(heapGen, c);
+    }
+
+    int k = heapSize++;
+
+    while(k > 0 && heapD2[(k - 1) / 2] > d2)
+    {
+        move((k - 1) / 2, k);
+        k = (k - 1) / 2;
+    }
+
+    heapD2[k]  = d2;
+    heapAB[k]  = (long)a << 32 | b & 0xFFFFFFFFL;
+    heapGen[k] = (long)gen[a] << 32 | gen[b] & 0xFFFFFFFFL;
+}
+
+private void pop()
+{
+    heapSize--;
+    down(0, heapD2[heapSize], heapAB[heapSize], heapGen[heapSize]);
+}
+
+// Coloca un par bajando el hueco desde la posición 'k'.
+private void down(int k, long d2, long ab, long g)
+{
+    for(int c = 2 * k + 1; c < heapSize; c = 2 * k + 1)
+    {
+        if(c + 1 < heapSize && heapD2[c+1] < heapD2[c])
+            c++;
+
+        if(heapD2[c] >= d2)
+            break; //................................................BREAK
+
+        move(c, k);
+        k = c;
+    }
+
+    heapD2[k]  = d2;
+    heapAB[k]  = ab;
+    heapGen[k] = g;
+}
+
+private void move(int from, int to)
+{
+    heapD2[to]  = heapD2[from];
+    heapAB[to]  = heapAB[from];
+    heapGen[to] = heapGen[from];
+}
+
+// Quita del montículo todos los pares con puntos borrados.
+private void compact()
+{
+    int n = 0;
+
+    for(int k = 0; k < heapSize; k++)
+    {
+        if(valid(k))
+            move(k, n++);
+    }
+
+    heapSize = n;
+
+    for(int k = n / 2 - 1; k >= 0; k--)
+        down(k, heapD2[k], heapAB[k], heapGen[k]);
+}
+
+public static void main(String[] args)
+{
+    // Ventana deslizante con los últimos 100000 puntos de un flujo.
+    int window = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    DynamicClosestPoints d = new DynamicClosestPoints();
+    Random random = new Random(1);
+    int[] ids = new int[window];
+    long t = System.nanoTime();
+
+    for(int i = 0; i < 10 * window; i++)
+    {
+        if(i >= window)
+            d.delete(ids[i % window]);
+
+        ids[i % window] = d.insert(random.nextInt(1000000),
+                                   random.nextInt(1000000));
+    }
+
+    System.out.printf("%d eventos: %d ms\n", 10 * window,
+                      (System.nanoTime() - t) / 1000000);
+
+    System.out.println("Par más cercano: "+ d.closest());
+}
+
+} // DynamicClosestPoints
@@ -0,0 +1,302 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+
+/**
+ * Generadores reproducibles de grafos sintéticos grandes.
+ *
+ * Las aristas se generan en arrays de tipos primitivos a partir de una
+ * semilla, de modo que la misma semilla produce siempre el mismo grafo,
+ * y después se pueden volcar en un {@link Grafo} o un {@link Dijkstra}.
+ * Los vértices se numeran desde 0.
+ */
+public class GeneradorGrafos
+{
+private final int vertices;
+private int aristas;
+private int[] origen, destino, peso;
+
+private GeneradorGrafos(int vertices, int capacidad)
+{
+    this.vertices = vertices;
+    origen  = new int[capacidad];
+    destino = new int[capacidad];
+    peso    = new int[capacidad];
+}
+
+private void add(int a, int b, int w)
+{
+    if(aristas == origen.length)
+    {
+        int c = Math.max(16, aristas * 2);
+        origen  = Arrays.copyOf(origen, c);
+        destino = Arrays.copyOf(destino, c);
+        peso    = Arrays.copyOf(peso, c);
+    }
+
+    origen[aristas]  = a;
+    destino[aristas] = b;
+    peso[aristas]    = w;
+    aristas++;
+}
+
+private void add2(int a, int b, int w)
+{
+    add(a, b, w);
+    add(b, a, w);
+}
+
+/**
+ * Rejilla cuadrada con aristas bidireccionales entre vecinos
+ * horizontales y verticales, parecida a una red de carreteras.
+ * @param aristas Número aproximado de aristas.
+ * @param semilla Semilla de los pesos.
+ * @return Generador con las aristas de la rejilla.
+ */
+public static GeneradorGrafos rejilla(int aristas, long semilla)
+{
+    // Cada vértice interior tiene 4 aristas de salida.
+    int lado = Math.max(2, (int)Math.ceil(Math.sqrt(aristas / 4.0)));
+    GeneradorGrafos g = new GeneradorGrafos(lado * lado, 4 * lado * lado);
+    Random r = new Random(semilla);
+
+    for(int i = 0; i < lado; i++)
+    {
+        for(int j = 0; j < lado; j++)
+        {
+            int v = i * lado + j;
+
+            if(j + 1 < lado)
+                g.add2(v, v + 1, 1 + r.nextInt(100));
+
+            if(i + 1 < lado)
+                g.add2(v, v + lado, 1 + r.nextInt(100));
+        }
+    }
+
+    return g;
+}
+
+/**
+ * Grafo libre de escala (ley de potencias) generado por conexión
+ * preferencial (modelo de Barabási-Albert) con aristas bidireccionales.
+ * @param aristas Número aproximado de aristas.
+ * @param semilla Semilla del generador.
+ * @return Generador con las aristas del grafo.
+ */
+public static GeneradorGrafos libreEscala(int aristas, long semilla)
+{
+    // Cada vértice nuevo se une a 'k' vértices anteriores elegidos con
+    // probabilidad proporcional a su grado: basta con elegir al azar un
+    // extremo de las aristas ya creadas.
+    final int k = 4;
+    int n = Math.max(k + 1, aristas / (2 * k));
+    GeneradorGrafos g = new GeneradorGrafos(n, 2 * k * n);
+    int[] extremos = new int[2 * k * n + k * k];
+    int[] elegidos = new int[k];
+    int e = 0;
+    Random r = new Random(semilla);
+
+    // Los primeros vértices forman un ciclo.
+    for(int v = 0; v <= k; v++)
+    {
+        int w = (v + 1) % (k + 1);
+        g.add2(v, w, 1 + r.nextInt(100));
+        extremos[e++] = v;
+        extremos[e++] = w;
+    }
+
+    for(int v = k + 1; v < n; v++)
+    {
+        int c = 0;
+
+        while(c < k)
+        {
+            int w = extremos[r.nextInt(e)];
+            boolean repetido = false;
+
+            for(int i = 0; i < c && !repetido; i++)
+                repetido = elegidos[i] == w;
+
+            if(!repetido)
+                elegidos[c++] = w;
+        }
+
+        for(int i = 0; i < k; i++)
+        {
+            g.add2(v, elegidos[i], 1 + r.nextInt(100));
+            extremos[e++] = v;
+            extremos[e++] = elegidos[i];
+        }
+    }
+
+    return g;
+}
+
+/**
+ * Grafo dirigido acíclico muy profundo: una cadena que recorre todos
+ * los vértices más aristas hacia delante que saltan a vértices
+ * cercanos.
+ * @param aristas Número aproximado de aristas.
+ * @param semilla Semilla del generador.
+ * @return Generador con las aristas del grafo.
+ */
+public static GeneradorGrafos cadena(int aristas, long semilla)
+{
+    final int k = 4, salto = 64;
+    int n = Math.max(2, aristas / k);
+    GeneradorGrafos g = new GeneradorGrafos(n, k * n);
+    Random r = new Random(semilla);
+    int[] elegidos = new int[k];
+
+    for(int v = 0; v < n - 1; v++)
+    {
+        elegidos[0] = v + 1;
+        int c = 1;
+
+        // Los saltos van siempre hacia delante, así que no hay ciclos.
+        for(int i = 1; i < k && v + 2 < n; i++)
+        {
+            int w = v + 2 + r.nextInt(Math.min(salto, n - v - 2));
+            boolean repetido = false;
+
+            for(int j = 0; j < c && !repetido; j++)
+                repetido = elegidos[j] == w;
+
+            if(!repetido)
+                elegidos[c++] = w;
+        }
+
+        for(int i = 0; i < c; i++)
+            g.add(v, elegidos[i], 1 + r.nextInt(100));
+    }
+
+    return g;
+}
+
+/**
+ * Crea un grafo a partir del nombre de su forma.
+ * @param forma "rejilla", "libreEscala" o "cadena".
+ * @param aristas Número aproximado de aristas.
+ * @param semilla Semilla del generador.
+ * @return Generador con las aristas del grafo.
+ */
+public static GeneradorGrafos crear(String forma, int aristas, long semilla)
+{
+    switch(forma)
+    {
+        case "rejilla":     return rejilla(aristas, semilla);
+        case "libreEscala": return libreEscala(aristas, semilla);
+        case "cadena":      return cadena(aristas, semilla);
+        default: throw new IllegalArgumentException("Forma: "+ forma);
+    }
+}
+
+/**
+ * Número de vértices.
+ * @return Número de vértices.
+ */
+public int vertices()
+{
+    return vertices;
+}
+
+/**
+ * Número de aristas.
+ * @return Número de aristas.
+ */
+public int aristas()
+{
+    return aristas;
+}
+
+/**
+ * Vértice de origen de cada arista.
+ * @return Array con un vértice por arista.
+ */
+public int[] origenes()
+{
+    return Arrays.copyOf(origen, aristas);
+}
+
+/**
+ * Vértice de destino de cada arista.
+ * @return Array con un vértice por arista.
+ */
+public int[] destinos()
+{
+    return Arrays.copyOf(destino, aristas);
+}
+
+/**
+ * Peso de cada arista.
+ * @return Array con un peso por arista.
+ */
+public int[] pesos()
+{
+    return Arrays.copyOf(peso, aristas);
+}
+
+/**
+ * Crea un grafo no ponderado con las aristas generadas.
+ * @return Grafo.
+ */
+public Grafo<Integer> grafo()
+{
+    Grafo<Integer> g = new Grafo<>();
+
+    for(int v = 0; v < vertices; v++)
+        g.add(v);
+
+    for(int i = 0; i < aristas; i++)
+        g.add(origen[i], destino[i]);
+
+    return g;
+}
+
+/**
+ * Crea un grafo ponderado con las aristas generadas.
+ * @return Grafo.
+ */
+public Dijkstra<Integer> dijkstra()
+{
+    Dijkstra<Integer> g = new Dijkstra<>();
+
+    for(int v = 0; v < vertices; v++)
+        g.add(v);
+
+    for(int i = 0; i < aristas; i++)
+        g.add(origen[i], destino[i], peso[i]);
+
+    return g;
+}
+
+public static void main(String[] args)
+{
+    int aristas = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+    GeneradorGrafos[] grafos = {
+            rejilla(aristas, 1), libreEscala(aristas, 1), cadena(aristas, 1) };
+
+    String[] nombres = { "Rejilla", "Libre de escala", "Cadena" };
+
+    for(int i = 0; i < grafos.length; i++)
+    {
+        GeneradorGrafos g = grafos[i];
+        long t = System.nanoTime();
+        Dijkstra<Integer> d = g.dijkstra();
+        Map<Integer,Long> distancias = d.distances(0);
+        t = System.nanoTime() - t;
+
+        System.out.printf("%15s: %8d vértices, %9d aristas, "+
+                          "%8d alcanzables, %6d ms\n", nombres[i],
+                          g.vertices(), g.aristas(), distancias.size(),
+                          t / 1000000);
+    }
+}
+
+} // GeneradorGrafos
@@ -13,6 +13,7 @@ import java.util.*;
 public class Grafo<E>
 {
 private Map<E,Set<E>> map = new HashMap<>();
+private Metricas.Listener listener;
 
 /**
  * Añade un nodo al grafo.
@@ -46,34 +47,105 @@ public void add(E a, E b)
     }
 }
 
+/**
+ * Indica el destinatario de las métricas de cada recorrido.
+ * @param listener Destinatario, o {@code null} para no recoger métricas.
+ */
+public void setListener(Metricas.Listener listener)
+{
+    this.listener = listener;
+}
+
+private Metricas metricas(String operacion)
+{
+    return listener == null ? null : new Metricas(operacion);
+}
+
+private void fin(Metricas m)
+{
+    if(m != null)
+        m.fin(listener);
+}
+
+/**
+ * Devuelve los nodos del grafo.
+ * @return Conjunto no modificable de nodos.
+ */
+Set<E> nodos()
+{
+    return Collections.unmodifiableSet(map.keySet());
+}
+
+/**
+ * Devuelve los sucesores de un nodo.
+ * @param e Nodo.
+ * @return Conjunto no modificable de nodos destino de las aristas
+ *         que salen de 'e'.
+ */
+Set<E> sucesores(E e)
+{
+    Set<E> s = map.get(e);
+
+    if(s == null)
+        throw new IllegalArgumentException("No existe el nodo: "+ e);
+
+    return Collections.unmodifiableSet(s);
+}
+
 /**
  * Recorre en profundidad el grafo.
  * @param e Nodo origen del recorrido.
  */
 public void recorridoProfundidad(E e)
 {
+    System.out.print("Profundidad: ");
+    
+    for(E v : profundidad(e))
+        System.out.print(" "+ v); 
+    
+    System.out.println();
+}
+
+/**
+ * Recorre en profundidad el grafo sin mostrar el resultado.
+ * @param e Nodo origen del recorrido.
+ * @return Nodos en el orden en que se han visitado.
+ */
+public Set<E> profundidad(E e)
+{
+    Metricas m = metricas("recorridoProfundidad");
     Set<E> visitados = new LinkedHashSet<>();
-    recorridoProfundidad(e, visitados);
+    recorridoProfundidad(e, visitados, m);
 
     // El siguiente bucle hace falta si se quiere
     // recorrer completamente un grafo no conexo.
     for(E x: map.keySet())
-        recorridoProfundidad(x, visitados);
+        recorridoProfundidad(x, visitados, m);
 
-    System.out.print("Profundidad: ");
-    
-    for(E v : visitados)
-        System.out.print(" "+ v); 
-    
-    System.out.println();
+    fin(m);
+    return visitados;
 }
 
-private void recorridoProfundidad(E e, Set<E> visitados)
+private void recorridoProfundidad(E e, Set<E> visitados, Metricas m)
 {
     if(visitados.add(e))
     {
+        if(m != null)
+        {
+            m.nodos++;
+            m.relajaciones += map.get(e).size();
+            m.entrar();
+        }
+
         for(E b : map.get(e))
-            recorridoProfundidad(b, visitados);
+            recorridoProfundidad(b, visitados, m);
+
+        if(m != null)
+            m.salir();
+    }
+    else if(m != null)
+    {
+        m.obsoletos++;
     }
 }
 
@@ -83,28 +155,40 @@ private void recorridoProfundidad(E e, Set<E> visitados)
  */
 public void recorridoAnchura(E a)
 {
+    System.out.print("    Anchura: ");
+
+    for(E e : anchura(a))
+        System.out.print(" "+ e); 
+
+    System.out.println();
+}
+
+/**
+ * Recorre en anchura el grafo sin mostrar el resultado.
+ * @param a Nodo origen del recorrido.
+ * @return Nodos en el orden en que se han visitado.
+ */
+public Set<E> anchura(E a)
+{
+    Metricas m = metricas("recorridoAnchura");
     Set<E> visitados = new LinkedHashSet<>();
     Deque<E> cola = new ArrayDeque<>();
     cola.add(a);
-    recorridoAnchura(visitados, cola);
+    recorridoAnchura(visitados, cola, m);
     
     // El siguiente bucle hace falta si se quiere
     // recorrer completamente un grafo no conexo.
     for(E x: map.keySet())
     {
         cola.add(x);
-        recorridoAnchura(visitados, cola);
+        recorridoAnchura(visitados, cola, m);
     }
 
-    System.out.print("    Anchura: ");
-
-    for(E e : visitados)
-        System.out.print(" "+ e); 
-
-    System.out.println();
+    fin(m);
+    return visitados;
 }
 
-private void recorridoAnchura(Set<E> visitados, Deque<E> cola)
+private void recorridoAnchura(Set<E> visitados, Deque<E> cola, Metricas m)
 {
     while(!cola.isEmpty())
     {
@@ -114,6 +198,17 @@ private void recorridoAnchura(Set<E> visitados, Deque<E> cola)
         {        
             for(E b : map.get(e))
                 cola.add(b);
+
+            if(m != null)
+            {
+                m.nodos++;
+                m.relajaciones += map.get(e).size();
+                m.cola(cola.size());
+            }
+        }
+        else if(m != null)
+        {
+            m.obsoletos++;
         }
     }
 }
@@ -131,25 +226,42 @@ public boolean hayCiclos(E e)
     if(s == null)
         throw new IllegalArgumentException("No existe el nodo: "+ e);
 
-    return hayCiclos(e, new HashSet<>());
+    Metricas m = metricas("hayCiclos");
+    boolean ciclos = hayCiclos(e, new HashSet<>(), new HashSet<>(), m);
+    fin(m);
+    return ciclos;
 }
 
-private boolean hayCiclos(E e, Set<E> set)
+private boolean hayCiclos(E e, Set<E> set, Set<E> terminados, Metricas m)
 {
     // 'set' contiene los nodos visitados hasta llegar a 'e'.
+    // 'terminados' contiene los nodos ya explorados completamente sin
+    // encontrar ciclos. No hace falta volver a explorarlos; si no, el
+    // número de caminos a recorrer podría ser exponencial.
+
+    if(terminados.contains(e))
+        return false; //............................................RETURN
 
     if(!set.add(e))
         return true; //.............................................RETURN
 
+    if(m != null)
+    {
+        m.nodos++;
+        m.relajaciones += map.get(e).size();
+        m.cola(set.size());
+    }
+
     for(E x : map.get(e))
     {
-        if(hayCiclos(x, set))
+        if(hayCiclos(x, set, terminados, m))
             return true; //.........................................RETURN
     }
 
     // En el "ascenso" de la recursión estamos retrocediento,
     // por tanto, acortamos el camino quitando el nodo 'e'.
     set.remove(e);
+    terminados.add(e);
 
     return false;
 }
@@ -176,6 +288,9 @@ public static void main(String[] args)
     // Esta arista provocaría un ciclo:
     //g.add(7, 4);
 
+    // Descomentar para ver las métricas de cada recorrido:
+    //g.setListener(System.out::println);
+
     g.recorridoProfundidad(1);
     g.recorridoAnchura(1);
     System.out.println(" Hay ciclos:  "+ g.hayCiclos(1));
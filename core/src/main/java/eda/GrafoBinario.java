@@ -0,0 +1,576 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Grafo dirigido de sólo lectura almacenado en un fichero binario
+ * y abierto mediante proyección en memoria ({@code FileChannel.map}).
+ *
+ * Las consultas trabajan directamente sobre los buffers proyectados,
+ * sin deserializar el grafo, por lo que abrirlo es inmediato y varios
+ * procesos que abran el mismo fichero comparten la caché de páginas
+ * del sistema operativo.
+ *
+ * Formato del fichero (enteros de 32 bits en little-endian):
+ *
+ *   Cabecera (32 bytes):
+ *     magia, versión, vértices 'n', aristas 'm', indicadores y relleno.
+ *   Identificadores:   int[n] ordenados de forma ascendente.
+ *   Desplazamientos:   int[n+1] (representación CSR).
+ *   Destinos:          int[m] (índices de la tabla de identificadores).
+ *   Pesos:             int[m] (sólo si el grafo es ponderado).
+ *
+ * Las aristas que salen del vértice de índice 'v' son las que están
+ * entre los desplazamientos 'v' y 'v+1'. Cada sección se proyecta por
+ * separado, por lo que ninguna puede superar los 2 GB.
+ */
+public class GrafoBinario
+{
+private static final int MAGIA     = 0x47414445; // "EDAG"
+private static final int VERSION   = 1;
+private static final int CABECERA  = 32;
+private static final int PONDERADO = 1;
+
+private final int n, m;
+private final IntBuffer ids, desplazamientos, destinos, pesos;
+
+private GrafoBinario(int n, int m, IntBuffer ids, IntBuffer desplazamientos,
+                     IntBuffer destinos, IntBuffer pesos)
+{
+    this.n = n;
+    this.m = m;
+    this.ids = ids;
+    this.desplazamientos = desplazamientos;
+    this.destinos = destinos;
+    this.pesos = pesos;
+}
+
+/**
+ * Escribe un grafo ponderado en un fichero binario.
+ * @param g Grafo.
+ * @param fichero Fichero destino.
+ * @throws IOException Si falla la escritura.
+ */
+public static void escribir(Dijkstra<Integer> g, Path fichero)
+        throws IOException
+{
+    escribir(fichero, g.vertices(), v -> g.edges(v).keySet(),
+             (u,v) -> g.edges(u).get(v));
+}
+
+/**
+ * Escribe un grafo no ponderado en un fichero binario.
+ * @param g Grafo.
+ * @param fichero Fichero destino.
+ * @throws IOException Si falla la escritura.
+ */
+public static void escribir(Grafo<Integer> g, Path fichero)
+        throws IOException
+{
+    escribir(fichero, g.nodos(), g::sucesores, null);
+}
+
+private static void escribir(
+        Path fichero, Set<Integer> vertices,
+        Function<Integer,Collection<Integer>> sucesores,
+        BinaryOperator<Integer> peso)
+        throws IOException
+{
+    int n = vertices.size();
+    int[] ids = new int[n];
+    int i = 0;
+
+    for(int v : vertices)
+        ids[i++] = v;
+
+    Arrays.sort(ids);
+    long m = 0;
+
+    for(int v : ids)
+        m += sucesores.apply(v).size();
+
+    if(m > Integer.MAX_VALUE / 4)
+        throw new IllegalArgumentException("Demasiadas aristas: "+ m);
+
+    try(Escritor e = new Escritor(fichero))
+    {
+        e.putInt(MAGIA);
+        e.putInt(VERSION);
+        e.putInt(n);
+        e.putInt((int)m);
+        e.putInt(peso == null ? 0 : PONDERADO);
+
+        for(i = 5 * 4; i < CABECERA; i += 4)
+            e.putInt(0);
+
+        for(int v : ids)
+            e.putInt(v);
+
+        int d = 0;
+        e.putInt(d);
+
+        for(int v : ids)
+        {
+            d += sucesores.apply(v).size();
+            e.putInt(d);
+        }
+
+        for(int v : ids)
+        {
+            for(int w : sucesores.apply(v))
+                e.putInt(Arrays.binarySearch(ids, w));
+        }
+
+        if(peso != null)
+        {
+            for(int v : ids)
+            {
+                for(int w : sucesores.apply(v))
+                    e.putInt(peso.apply(v, w));
+            }
+        }
+    }
+}
+
+/**
+ * Abre un grafo almacenado en un fichero binario.
+ * @param fichero Fichero escrito con {@code escribir}.
+ * @return Grafo proyectado en memoria.
+ * @throws IOException Si falla la lectura o el formato no es válido.
+ */
+public static GrafoBinario abrir(Path fichero) throws IOException
+{
+    try(FileChannel fc = FileChannel.open(fichero, StandardOpenOption.READ))
+    {
+        if(fc.size() < CABECERA)
+            throw new IOException("Fichero demasiado corto: "+ fichero);
+
+        IntBuffer c = proyectar(fc, 0, CABECERA);
+
+        if(c.get(0) != MAGIA)
+            throw new IOException("No es un grafo binario: "+ fichero);
+
+        if(c.get(1) != VERSION)
+            throw new IOException("Versión no soportada: "+ c.get(1));
+
+        int  n = c.get(2),
+             m = c.get(3);
+        boolean ponderado = (c.get(4) & PONDERADO) != 0;
+        long p = CABECERA,
+             t = p + 4L * n + 4L * (n + 1) + 4L * m * (ponderado ? 2 : 1);
+
+        if(fc.size() != t)
+            throw new IOException("Tamaño de fichero incorrecto: "+ fichero);
+
+        IntBuffer ids = proyectar(fc, p, 4L * n);
+        p += 4L * n;
+        IntBuffer desplazamientos = proyectar(fc, p, 4L * (n + 1));
+        p += 4L * (n + 1);
+        IntBuffer destinos = proyectar(fc, p, 4L * m);
+        p += 4L * m;
+        IntBuffer pesos = ponderado ? proyectar(fc, p, 4L * m) : null;
+
+        // Las proyecciones siguen siendo válidas tras cerrar el canal.
+        return new GrafoBinario(n, m, ids, desplazamientos, destinos, pesos);
+    }
+}
+
+private static IntBuffer proyectar(FileChannel fc, long posicion, long bytes)
+        throws IOException
+{
+    return fc.map(FileChannel.MapMode.READ_ONLY, posicion, bytes)
+             .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+}
+
+/**
+ * Número de vértices.
+ * @return Número de vértices.
+ */
+public int vertices()
+{
+    return n;
+}
+
+/**
+ * Número de aristas.
+ * @return Número de aristas.
+ */
+public int aristas()
+{
+    return m;
+}
+
+/**
+ * Indica si el grafo tiene pesos en las aristas.
+ * @return {@code true} si el grafo es ponderado.
+ */
+public boolean ponderado()
+{
+    return pesos != null;
+}
+
+/**
+ * Busca el índice interno de un vértice.
+ * @param id Identificador del vértice.
+ * @return Índice del vértice, o -1 si no existe.
+ */
+public int indice(int id)
+{
+    int a = 0, b = n - 1;
+
+    while(a <= b)
+    {
+        int c = (a + b) >>> 1,
+            v = ids.get(c);
+
+        if(v < id)
+            a = c + 1;
+        else if(v > id)
+            b = c - 1;
+        else
+            return c; //............................................RETURN
+    }
+
+    return -1;
+}
+
+/**
+ * Identificador de un vértice.
+ * @param indice Índice interno del vértice.
+ * @return Identificador del vértice.
+ */
+public int id(int indice)
+{
+    return ids.get(indice);
+}
+
+/**
+ * Número de aristas que salen de un vértice.
+ * @param id Identificador del vértice.
+ * @return Grado de salida.
+ */
+public int grado(int id)
+{
+    int v = existe(id);
+    return desplazamientos.get(v+1) - desplazamientos.get(v);
+}
+
+/**
+ * Peso de una arista.
+ * @param origen Identificador del vértice origen.
+ * @param destino Identificador del vértice destino.
+ * @return Peso de la arista, o 1 si el grafo no es ponderado.
+ */
+public int peso(int origen, int destino)
+{
+    int u = existe(origen),
+        v = existe(destino);
+
+    for(int a = desplazamientos.get(u), f = desplazamientos.get(u+1);
+        a < f; a++)
+    {
+        if(destinos.get(a) == v)
+            return pesos == null ? 1 : pesos.get(a); //.............RETURN
+    }
+
+    throw new IllegalArgumentException(
+            "No existe la arista: "+ origen +" -> "+ destino);
+}
+
+private int existe(int id)
+{
+    int v = indice(id);
+
+    if(v < 0)
+        throw new IllegalArgumentException("No existe el vértice: "+ id);
+
+    return v;
+}
+
+/**
+ * Recorre en anchura el grafo desde un vértice.
+ * @param origen Identificador del vértice origen.
+ * @return Identificadores de los vértices alcanzados en orden de visita.
+ */
+public int[] recorridoAnchura(int origen)
+{
+    boolean[] visitados = new boolean[n];
+    int[] cola = new int[n];
+    int cabeza = 0, fin = 0;
+    int s = existe(origen);
+    visitados[s] = true;
+    cola[fin++] = s;
+
+    while(cabeza < fin)
+    {
+        int u = cola[cabeza++];
+
+        for(int a = desplazamientos.get(u), f = desplazamientos.get(u+1);
+            a < f; a++)
+        {
+            int v = destinos.get(a);
+
+            if(!visitados[v])
+            {
+                visitados[v] = true;
+                cola[fin++] = v;
+            }
+        }
+    }
+
+    int[] r = new int[fin];
+
+    for(int i = 0; i < fin; i++)
+        r[i] = ids.get(cola[i]);
+
+    return r;
+}
+
+/**
+ * Busca el camino más corto entre dos vértices (algoritmo de Dijkstra).
+ * @param origen Identificador del vértice origen.
+ * @param destino Identificador del vértice destino.
+ * @return Identificadores de los vértices del camino más corto,
+ *         o una lista vacía si no hay camino.
+ */
+public List<Integer> search(int origen, int destino)
+{
+    int s = existe(origen),
+        t = existe(destino);
+
+    long[] distancias = new long[n];
+    int[]  padres = new int[n];
+    Arrays.fill(distancias, Long.MAX_VALUE);
+    distancias[s] = 0;
+    padres[s] = -1;
+
+    Monticulo cola = new Monticulo();
+    cola.add(0, s);
+
+    while(!cola.isEmpty())
+    {
+        long du = cola.minimo();
+        int  u  = cola.remove();
+
+        if(du > distancias[u])
+            continue; //..........................................CONTINUE
+
+        if(u == t)
+            break; //................................................BREAK
+
+        for(int a = desplazamientos.get(u), f = desplazamientos.get(u+1);
+            a < f; a++)
+        {
+            int  v   = destinos.get(a);
+            long duv = du + (pesos == null ? 1 : pesos.get(a));
+
+            if(duv < distancias[v])
+            {
+                distancias[v] = duv;
+                padres[v] = u;
+                cola.add(duv, v);
+            }
+        }
+    }
+
+    ArrayDeque<Integer> path = new ArrayDeque<>();
+
+    if(distancias[t] == Long.MAX_VALUE)
+        return new ArrayList<>(path); //............................RETURN
+
+    for(int v = t; v != -1; v = padres[v])
+        path.addFirst(ids.get(v));
+
+    return new ArrayList<>(path);
+}
+
+/**
+ * Calcula la distancia de un camino.
+ * @param path Secuencia de identificadores de vértices.
+ * @return Distancia del camino.
+ */
+public long distance(List<Integer> path)
+{
+    Iterator<Integer> it = path.iterator();
+    int u = it.next();
+    long w = 0;
+
+    while(it.hasNext())
+    {
+        int v = it.next();
+        w += peso(u, v);
+        u = v;
+    }
+
+    return w;
+}
+
+/**
+ * Montículo binario de pares (distancia, vértice) con tipos primitivos.
+ */
+private static class Monticulo
+{
+    private long[] claves  = new long[16];
+    private int[]  valores = new int[16];
+    private int size;
+
+    private boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    private long minimo()
+    {
+        return claves[0];
+    }
+
+    private void add(long clave, int valor)
+    {
+        if(size == claves.length)
+        {
+            claves  = Arrays.copyOf(claves, size * 2);
+            valores = Arrays.copyOf(valores, size * 2);
+        }
+
+        int i = size++;
+
+        while(i > 0)
+        {
+            int p = (i - 1) / 2;
+
+            if(claves[p] <= clave)
+                break; //............................................BREAK
+
+            claves[i]  = claves[p];
+            valores[i] = valores[p];
+            i = p;
+        }
+
+        claves[i]  = clave;
+        valores[i] = valor;
+    }
+
+    private int remove()
+    {
+        int  r = valores[0];
+        long c = claves[--size];
+        int  v = valores[size];
+        int  i = 0;
+
+        for(;;)
+        {
+            int h = 2 * i + 1;
+
+            if(h >= size)
+                break; //............................................BREAK
+
+            if(h + 1 < size && claves[h+1] < claves[h])
+                h++;
+
+            if(claves[h] >= c)
+                break; //............................................BREAK
+
+            claves[i]  = claves[h];
+            valores[i] = valores[h];
+            i = h;
+        }
+
+        claves[i]  = c;
+        valores[i] = v;
+        return r;
+    }
+} // Monticulo
+
+/**
+ * Escritura secuencial de enteros en little-endian con un buffer.
+ */
+private static class Escritor implements Closeable
+{
+    private final FileChannel fc;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+
+    private Escritor(Path fichero) throws IOException
+    {
+        fc = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                              StandardOpenOption.WRITE,
+                              StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void putInt(int i) throws IOException
+    {
+        if(buffer.remaining() < 4)
+            vaciar();
+
+        buffer.putInt(i);
+    }
+
+    private void vaciar() throws IOException
+    {
+        buffer.flip();
+
+        while(buffer.hasRemaining())
+            fc.write(buffer);
+
+        buffer.clear();
+    }
+
+    @Override public void close() throws IOException
+    {
+        try
+        {
+            vaciar();
+        }
+        finally
+        {
+            fc.close();
+        }
+    }
+} // Escritor
+
+public static void main(String[] args) throws IOException
+{
+    // Grafo del ejemplo de wikipedia con vértices numerados:
+    // A=1, B=2, C=3, D=4, E=5, F=6, G=7, Z=8.
+    Dijkstra<Integer> g = new Dijkstra<>();
+
+    for(int v = 1; v <= 8; v++)
+        g.add(v);
+
+    g.add2(1, 2, 16);
+    g.add2(1, 3, 10);
+    g.add2(1, 4, 5);
+    g.add2(2, 3, 2);
+    g.add2(2, 6, 4);
+    g.add2(2, 7, 6);
+    g.add2(3, 4, 4);
+    g.add2(3, 5, 10);
+    g.add2(3, 6, 12);
+    g.add2(4, 5, 15);
+    g.add2(5, 6, 3);
+    g.add2(5, 8, 5);
+    g.add2(6, 7, 8);
+    g.add2(6, 8, 16);
+    g.add2(7, 8, 7);
+
+    Path fichero = Files.createTempFile("grafo", ".bin");
+    escribir(g, fichero);
+    GrafoBinario b = abrir(fichero);
+
+    List<Integer> path = b.search(1, 8);
+    System.out.println("Camino: "+ path);
+    System.out.println(" Coste: "+ b.distance(path));
+    System.out.println("Anchura: "+ Arrays.toString(b.recorridoAnchura(1)));
+    Files.delete(fichero);
+}
+
+} // GrafoBinario
@@ -0,0 +1,470 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Grafo dirigido ponderado dividido en particiones.
+ *
+ * Los vértices se reparten en particiones haciendo crecer regiones
+ * mediante recorridos en anchura, de modo que los vértices cercanos
+ * quedan en la misma partición. Cada partición guarda por separado sus
+ * aristas internas y las aristas frontera, que llevan a vértices de
+ * otras particiones.
+ *
+ * Los recorridos se ejecutan por pasos: en cada paso, cada partición
+ * procesa en un hilo propio los mensajes recibidos siguiendo sólo sus
+ * aristas internas, y genera mensajes para las demás particiones al
+ * llegar a una arista frontera. El coordinador intercambia los mensajes
+ * entre pasos y termina cuando no queda ninguno.
+ * @param <E> Tipo de los vértices.
+ */
+public class GrafoParticionado<E> implements AutoCloseable
+{
+private final Map<E,Integer> particion = new HashMap<>();
+private final List<Particion<E>> particiones = new ArrayList<>();
+private final ExecutorService pool;
+
+/**
+ * Crea un grafo particionado a partir de un grafo ponderado.
+ * @param g Grafo.
+ * @param n Número de particiones.
+ */
+public GrafoParticionado(Dijkstra<E> g, int n)
+{
+    this(g.vertices(), g::edges, n);
+}
+
+/**
+ * Crea un grafo particionado a partir de un grafo no ponderado.
+ * Todas las aristas tienen peso 1.
+ * @param g Grafo.
+ * @param n Número de particiones.
+ */
+public GrafoParticionado(Grafo<E> g, int n)
+{
+    this(g.nodos(), v ->
+    {
+        Map<E,Integer> m = new LinkedHashMap<>();
+
+        for(E w : g.sucesores(v))
+            m.put(w, 1);
+
+        return m;
+    }, n);
+}
+
+private GrafoParticionado(Set<E> vertices,
+                          Function<E,Map<E,Integer>> aristas, int n)
+{
+    if(n < 1)
+        throw new IllegalArgumentException("Particiones: "+ n);
+
+    for(int i = 0; i < n; i++)
+        particiones.add(new Particion<>());
+
+    particionar(vertices, aristas, n);
+
+    for(E v : vertices)
+    {
+        Particion<E> p = particiones.get(particion.get(v));
+        Map<E,Integer> internas = new HashMap<>(),
+                       frontera = new HashMap<>();
+
+        for(Map.Entry<E,Integer> a : aristas.apply(v).entrySet())
+        {
+            if(particiones.get(particion.get(a.getKey())) == p)
+                internas.put(a.getKey(), a.getValue());
+            else
+                frontera.put(a.getKey(), a.getValue());
+        }
+
+        p.internas.put(v, internas);
+
+        if(!frontera.isEmpty())
+            p.frontera.put(v, frontera);
+    }
+
+    pool = Executors.newFixedThreadPool(
+            Math.min(n, Runtime.getRuntime().availableProcessors()), r ->
+    {
+        Thread t = new Thread(r, "GrafoParticionado");
+        t.setDaemon(true);
+        return t;
+    });
+}
+
+private void particionar(Set<E> vertices,
+                         Function<E,Map<E,Integer>> aristas, int n)
+{
+    // Cada partición crece en anchura desde un vértice semilla hasta
+    // alcanzar su capacidad. Si el recorrido se agota antes, se continúa
+    // desde el siguiente vértice sin asignar.
+    int capacidad = (vertices.size() + n - 1) / n,
+        actual = 0,
+        asignados = 0;
+
+    Deque<E> cola = new ArrayDeque<>();
+
+    for(E semilla : vertices)
+    {
+        if(particion.containsKey(semilla))
+            continue; //..........................................CONTINUE
+
+        cola.add(semilla);
+
+        while(!cola.isEmpty())
+        {
+            E v = cola.poll();
+
+            if(particion.containsKey(v))
+                continue; //......................................CONTINUE
+
+            if(asignados == capacidad)
+            {
+                // La partición está llena: empezamos la siguiente
+                // desde este mismo vértice.
+                actual++;
+                asignados = 0;
+                cola.clear();
+            }
+
+            particion.put(v, actual);
+            asignados++;
+
+            for(E w : aristas.apply(v).keySet())
+            {
+                if(!particion.containsKey(w))
+                    cola.add(w);
+            }
+        }
+    }
+}
+
+/**
+ * Número de particiones.
+ * @return Número de particiones.
+ */
+public int particiones()
+{
+    return particiones.size();
+}
+
+/**
+ * Partición a la que pertenece un vértice.
+ * @param v Vértice.
+ * @return Índice de la partición.
+ */
+public int particion(E v)
+{
+    Integer p = particion.get(v);
+
+    if(p == null)
+        throw new IllegalArgumentException("No existe el vértice: "+ v);
+
+    return p;
+}
+
+/**
+ * Número de aristas que unen vértices de distintas particiones.
+ * @return Número de aristas frontera.
+ */
+public int aristasFrontera()
+{
+    int n = 0;
+
+    for(Particion<E> p : particiones)
+    {
+        for(Map<E,Integer> m : p.frontera.values())
+            n += m.size();
+    }
+
+    return n;
+}
+
+/**
+ * Recorre en anchura el grafo desde varios vértices a la vez.
+ * @param origenes Vértices origen del recorrido.
+ * @return Nivel (número de aristas desde el origen más cercano) de
+ *         cada vértice alcanzado.
+ */
+public Map<E,Integer> recorridoAnchura(Collection<E> origenes)
+{
+    Map<E,Integer> niveles = new HashMap<>();
+
+    for(Estado<E> e : ejecutar(origenes, false))
+    {
+        for(Map.Entry<E,Long> d : e.distancias.entrySet())
+            niveles.put(d.getKey(), d.getValue().intValue());
+    }
+
+    return niveles;
+}
+
+/**
+ * Recorre en anchura el grafo desde un vértice.
+ * @param origen Vértice origen del recorrido.
+ * @return Nivel de cada vértice alcanzado.
+ */
+public Map<E,Integer> recorridoAnchura(E origen)
+{
+    return recorridoAnchura(Collections.singleton(origen));
+}
+
+/**
+ * Calcula las distancias mínimas desde varios vértices a la vez.
+ * @param origenes Vértices origen.
+ * @return Distancia desde el origen más cercano a cada vértice
+ *         alcanzado.
+ */
+public Map<E,Long> distancias(Collection<E> origenes)
+{
+    Map<E,Long> distancias = new HashMap<>();
+
+    for(Estado<E> e : ejecutar(origenes, true))
+        distancias.putAll(e.distancias);
+
+    return distancias;
+}
+
+/**
+ * Busca el camino más corto entre dos vértices.
+ * @param origin Vértice origen.
+ * @param destination Vértice destino.
+ * @return Secuencia de vértices del camino más corto.
+ */
+public List<E> search(E origin, E destination)
+{
+    List<Estado<E>> estados = ejecutar(
+            Collections.singleton(origin), true);
+
+    ArrayDeque<E> path = new ArrayDeque<>();
+    E v = destination;
+
+    if(!estados.get(particion(v)).distancias.containsKey(v))
+    {
+        throw new RuntimeException(
+            "No existe camino: "+ origin +" -> "+ destination);
+    }
+
+    while(v != null)
+    {
+        path.addFirst(v);
+        v = estados.get(particion(v)).padres.get(v);
+    }
+
+    return new ArrayList<>(path);
+}
+
+private List<Estado<E>> ejecutar(Collection<E> origenes, boolean pesos)
+{
+    int n = particiones.size();
+    List<Estado<E>> estados = new ArrayList<>();
+
+    for(Particion<E> p : particiones)
+        estados.add(new Estado<>(p, n, pesos));
+
+    for(E o : origenes)
+        estados.get(particion(o)).entrada.add(new Mensaje<>(o, 0, null));
+
+    List<Callable<Void>> tareas = new ArrayList<>();
+
+    for(;;)
+    {
+        tareas.clear();
+
+        for(Estado<E> e : estados)
+        {
+            if(!e.entrada.isEmpty())
+                tareas.add(() -> { e.paso(this::particion); return null; });
+        }
+
+        if(tareas.isEmpty())
+            break; //................................................BREAK
+
+        try
+        {
+            for(Future<Void> f : pool.invokeAll(tareas))
+                f.get();
+        }
+        catch(InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        }
+        catch(ExecutionException ex)
+        {
+            throw new RuntimeException(ex.getCause());
+        }
+
+        // Intercambio de mensajes entre particiones.
+        for(Estado<E> e : estados)
+        {
+            for(int i = 0; i < n; i++)
+            {
+                List<Mensaje<E>> salida = e.salida.get(i);
+                estados.get(i).entrada.addAll(salida);
+                salida.clear();
+            }
+        }
+    }
+
+    return estados;
+}
+
+/**
+ * Libera los hilos de las particiones.
+ */
+@Override public void close()
+{
+    pool.shutdown();
+}
+
+private static class Particion<E>
+{
+    private final Map<E,Map<E,Integer>> internas = new HashMap<>(),
+                                        frontera = new HashMap<>();
+} // Particion
+
+/**
+ * Estado de una partición durante un recorrido.
+ * Sólo lo modifica el hilo que procesa la partición en cada paso.
+ */
+private static class Estado<E>
+{
+    private final Particion<E> particion;
+    private final boolean pesos;
+    private final Map<E,Long> distancias = new HashMap<>();
+    private final Map<E,E> padres = new HashMap<>();
+    private final List<Mensaje<E>> entrada = new ArrayList<>();
+    private final List<List<Mensaje<E>>> salida = new ArrayList<>();
+
+    private Estado(Particion<E> particion, int n, boolean pesos)
+    {
+        this.particion = particion;
+        this.pesos = pesos;
+
+        for(int i = 0; i < n; i++)
+            salida.add(new ArrayList<>());
+    }
+
+    private void paso(ToIntFunction<E> destino)
+    {
+        // Algoritmo de Dijkstra local sembrado con los mensajes
+        // recibidos. Las mejoras que cruzan la frontera se envían
+        // como mensajes a la partición propietaria del vértice.
+        PriorityQueue<Mensaje<E>> cola = new PriorityQueue<>();
+
+        for(Mensaje<E> m : entrada)
+            relajar(m, cola);
+
+        entrada.clear();
+
+        while(!cola.isEmpty())
+        {
+            Mensaje<E> m = cola.remove();
+
+            if(m.distancia > distancias.get(m.vertice))
+                continue; //......................................CONTINUE
+
+            for(Map.Entry<E,Integer> a :
+                particion.internas.get(m.vertice).entrySet())
+            {
+                relajar(new Mensaje<>(a.getKey(), m.distancia +
+                        (pesos ? a.getValue() : 1), m.vertice), cola);
+            }
+
+            Map<E,Integer> frontera = particion.frontera.get(m.vertice);
+
+            if(frontera != null)
+            {
+                for(Map.Entry<E,Integer> a : frontera.entrySet())
+                {
+                    E v = a.getKey();
+                    long d = m.distancia + (pesos ? a.getValue() : 1);
+                    salida.get(destino.applyAsInt(v))
+                          .add(new Mensaje<>(v, d, m.vertice));
+                }
+            }
+        }
+    }
+
+    private void relajar(Mensaje<E> m, PriorityQueue<Mensaje<E>> cola)
+    {
+        Long d = distancias.get(m.vertice);
+
+        if(d == null || m.distancia < d)
+        {
+            distancias.put(m.vertice, m.distancia);
+            padres.put(m.vertice, m.padre);
+            cola.add(m);
+        }
+    }
+} // Estado
+
+private static class Mensaje<E> implements Comparable<Mensaje<E>>
+{
+    private final E vertice, padre;
+    private final long distancia;
+
+    private Mensaje(E vertice, long distancia, E padre)
+    {
+        this.vertice   = vertice;
+        this.distancia = distancia;
+        this.padre     = padre;
+    }
+
+    @Override public int compareTo(Mensaje<E> m)
+    {
+        return Long.compare(distancia, m.distancia);
+    }
+} // Mensaje
+
+public static void main(String[] args)
+{
+    // Grafo del ejemplo de wikipedia:
+    // https://es.wikipedia.org/wiki/Anexo:Ejemplo_de_Algoritmo_de_Dijkstra
+
+    Dijkstra<Character> g = new Dijkstra<>();
+
+    for(char c : "ABCDEFGZ".toCharArray())
+        g.add(c);
+
+    g.add2('A', 'B', 16);
+    g.add2('A', 'C', 10);
+    g.add2('A', 'D', 5);
+    g.add2('B', 'C', 2);
+    g.add2('B', 'F', 4);
+    g.add2('B', 'G', 6);
+    g.add2('C', 'D', 4);
+    g.add2('C', 'E', 10);
+    g.add2('C', 'F', 12);
+    g.add2('D', 'E', 15);
+    g.add2('E', 'F', 3);
+    g.add2('E', 'Z', 5);
+    g.add2('F', 'G', 8);
+    g.add2('F', 'Z', 16);
+    g.add2('G', 'Z', 7);
+
+    try(GrafoParticionado<Character> p = new GrafoParticionado<>(g, 3))
+    {
+        System.out.print("Particiones:");
+
+        for(char c : "ABCDEFGZ".toCharArray())
+            System.out.print(" "+ c +"="+ p.particion(c));
+
+        System.out.println("\n   Frontera: "+ p.aristasFrontera());
+
+        List<Character> path = p.search('A', 'Z');
+        System.out.println("     Camino: "+ path);
+        System.out.println("      Coste: "+ g.distance(path));
+        System.out.println("    Anchura: "+ p.recorridoAnchura('A'));
+    }
+}
+
+} // GrafoParticionado
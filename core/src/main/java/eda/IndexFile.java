@@ -0,0 +1,161 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Fichero binario con un índice espacial.
+ *
+ * Formato del fichero (enteros de 32 bits en little-endian):
+ *
+ *   Cabecera: magia, versión, longitud de los datos generales 'h' y
+ *             número de arrays 'a'.
+ *   Datos generales: int[h], que dependen del tipo de índice.
+ *   Arrays: para cada uno, su longitud seguida de sus elementos.
+ */
+class IndexFile
+{
+private static final int VERSION = 1;
+
+final int magic;
+final int[] header;
+final int[][] arrays;
+
+private IndexFile(int magic, int[] header, int[][] arrays)
+{
+    this.magic  = magic;
+    this.header = header;
+    this.arrays = arrays;
+}
+
+/**
+ * Escribe un índice.
+ * @param file Fichero destino.
+ * @param magic Tipo de índice.
+ * @param header Datos generales.
+ * @param arrays Arrays del índice.
+ * @throws IOException Si falla la escritura.
+ */
+static void write(Path file, int magic, int[] header, int[]... arrays)
+        throws IOException
+{
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+
+    try(FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE,
+                                          StandardOpenOption.WRITE,
+                                          StandardOpenOption.TRUNCATE_EXISTING))
+    {
+        buffer.putInt(magic).putInt(VERSION)
+              .putInt(header.length).putInt(arrays.length);
+
+        for(int h : header)
+            buffer.putInt(h);
+
+        for(int[] a : arrays)
+        {
+            put(fc, buffer, new int[] { a.length });
+            put(fc, buffer, a);
+        }
+
+        flush(fc, buffer);
+    }
+}
+
+private static void put(FileChannel fc, ByteBuffer buffer, int[] a)
+        throws IOException
+{
+    for(int i = 0; i < a.length; )
+    {
+        if(buffer.remaining() < 4)
+            flush(fc, buffer);
+
+        // Copiamos de golpe todo lo que cabe en el buffer.
+        IntBuffer ib = buffer.asIntBuffer();
+        int n = Math.min(ib.remaining(), a.length - i);
+        ib.put(a, i, n);
+        buffer.position(buffer.position() + 4 * n);
+        i += n;
+    }
+}
+
+private static void flush(FileChannel fc, ByteBuffer buffer)
+        throws IOException
+{
+    buffer.flip();
+
+    while(buffer.hasRemaining())
+        fc.write(buffer);
+
+    buffer.clear();
+}
+
+/**
+ * Lee un índice.
+ * @param file Fichero.
+ * @return Contenido del fichero.
+ * @throws IOException Si falla la lectura o el formato no es correcto.
+ */
+static IndexFile read(Path file) throws IOException
+{
+    try(FileChannel fc = FileChannel.open(file, StandardOpenOption.READ))
+    {
+        long p = 0, size = fc.size();
+        IntBuffer c = map(fc, p, 16, size);
+        int magic = c.get(0);
+
+        if(c.get(1) != VERSION)
+            throw new IOException("Versión no soportada: "+ c.get(1));
+
+        p += 16;
+        int[] header = new int[length(c.get(2), p, size, file)];
+        map(fc, p, 4L * header.length, size).get(header);
+        p += 4L * header.length;
+
+        // Cada array ocupa al menos los 4 bytes de su longitud.
+        int[][] arrays = new int[length(c.get(3), p, size, file)][];
+
+        for(int i = 0; i < arrays.length; i++)
+        {
+            int n = map(fc, p, 4, size).get(0);
+            p += 4;
+            arrays[i] = new int[length(n, p, size, file)];
+            map(fc, p, 4L * arrays[i].length, size).get(arrays[i]);
+            p += 4L * arrays[i].length;
+        }
+
+        if(p != size)
+            throw new IOException("Tamaño de fichero incorrecto: "+ file);
+
+        return new IndexFile(magic, header, arrays);
+    }
+}
+
+// Comprueba que una longitud leída del fichero cabe en lo que queda
+// de él antes de reservar memoria.
+private static int length(int n, long p, long size, Path file)
+        throws IOException
+{
+    if(n < 0 || n > (size - p) / 4)
+        throw new IOException("Índice no válido: "+ file);
+
+    return n;
+}
+
+private static IntBuffer map(FileChannel fc, long p, long bytes, long size)
+        throws IOException
+{
+    if(bytes < 0 || p + bytes > size)
+        throw new IOException("Fichero demasiado corto.");
+
+    return fc.map(FileChannel.MapMode.READ_ONLY, p, bytes)
+             .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+}
+
+} // IndexFile
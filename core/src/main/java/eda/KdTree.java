@@ -0,0 +1,381 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * Árbol k-d implícito de puntos del plano.
+ *
+ * El árbol no tiene nodos: el subárbol de las posiciones [lo,hi) tiene
+ * su raíz en la posición central, el subárbol izquierdo a la izquierda
+ * y el derecho a la derecha. Los ejes de corte se alternan empezando
+ * por 'x'. Se construye en O(n log n) a partir de las permutaciones
+ * de los puntos ordenados por 'x' y por 'y', repartiéndolas en cada
+ * nivel con una partición estable, como en {@link ClosestPoints}.
+ *
+ * Cada búsqueda del vecino más cercano cuesta O(log n) en las nubes
+ * de puntos habituales, aunque los puntos estén muy agrupados.
+ */
+public class KdTree implements SpatialIndex
+{
+static final int MAGIC = 0x4B414445; // "EDAK"
+
+// Tamaño mínimo de un subárbol para construirlo en paralelo.
+private static final int SEQUENTIAL = 1 << 13;
+
+private final int[] index,    // Índice original del punto de cada posición.
+                    position, // Posición de cada índice original.
+                    xs, ys;   // Coordenadas en el orden del árbol.
+
+/**
+ * Construye el árbol.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ */
+public KdTree(int[] xs, int[] ys)
+{
+    this(xs, ys, false);
+}
+
+/**
+ * Construye el árbol.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @param parallel Si se ordena y se construye con el marco fork/join.
+ */
+public KdTree(int[] xs, int[] ys, boolean parallel)
+{
+    this(xs, ys, ClosestPoints.Engine.sort(xs, parallel),
+         ClosestPoints.Engine.sort(ys, parallel), parallel);
+}
+
+/**
+ * Construye el árbol a partir de los índices ya ordenados por 'x' y por
+ * 'y', que se modifican.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @param pX Índices ordenados por 'x'.
+ * @param pY Índices ordenados por 'y'.
+ * @param parallel Si se construye con el marco fork/join.
+ */
+KdTree(int[] xs, int[] ys, int[] pX, int[] pY, boolean parallel)
+{
+    if(xs.length != ys.length)
+        throw new IllegalArgumentException("Distinto número de coordenadas.");
+
+    int n = xs.length;
+    index = new int[n];
+    Build b = new Build(0, n, true, pX, pY, new boolean[n], new int[n]);
+
+    if(parallel)
+        b.invoke();
+    else
+        b.compute();
+
+    this.xs  = new int[n];
+    this.ys  = new int[n];
+    position = new int[n];
+
+    for(int k = 0; k < n; k++)
+    {
+        this.xs[k] = xs[index[k]];
+        this.ys[k] = ys[index[k]];
+        position[index[k]] = k;
+    }
+}
+
+KdTree(IndexFile f) throws IOException
+{
+    if(f.arrays.length != 3)
+        throw new IOException("Árbol k-d no válido.");
+
+    index = f.arrays[0];
+    xs    = f.arrays[1];
+    ys    = f.arrays[2];
+
+    int n = index.length;
+    position = new int[n];
+
+    if(xs.length != n || ys.length != n)
+        throw new IOException("Árbol k-d no válido.");
+
+    for(int k = 0; k < n; k++)
+        position[index[k]] = k;
+}
+
+/**
+ * Construcción del subárbol [lo,hi).
+ */
+private class Build extends RecursiveAction
+{
+    private final int lo, hi;
+    private final boolean axisX;
+    private final int[] pX, pY, scratch;
+    private final boolean[] left;
+
+    // Al entrar, pX[lo,hi) y pY[lo,hi) contienen los mismos puntos
+    // ordenados por 'x' y por 'y' respectivamente.
+    private Build(int lo, int hi, boolean axisX, int[] pX, int[] pY,
+                  boolean[] left, int[] scratch)
+    {
+        this.lo = lo;
+        this.hi = hi;
+        this.axisX = axisX;
+        this.pX = pX;
+        this.pY = pY;
+        this.left = left;
+        this.scratch = scratch;
+    }
+
+    @Override protected void compute()
+    {
+        if(lo >= hi)
+            return; //..............................................RETURN
+
+        int[] primary   = axisX ? pX : pY,
+              secondary = axisX ? pY : pX;
+
+        int middle = (lo + hi) >>> 1,
+            median = primary[middle];
+
+        index[middle] = median;
+
+        for(int k = lo; k < hi; k++)
+            left[primary[k]] = k < middle;
+
+        // Partición estable del otro orden, dejando la mediana en medio.
+        for(int k = lo, l = lo, r = middle + 1; k < hi; k++)
+        {
+            int i = secondary[k];
+
+            if(i == median)
+                continue; //......................................CONTINUE
+
+            if(left[i])
+                scratch[l++] = i;
+            else
+                scratch[r++] = i;
+        }
+
+        scratch[middle] = median;
+        System.arraycopy(scratch, lo, secondary, lo, hi - lo);
+
+        Build l = new Build(lo, middle, !axisX, pX, pY, left, scratch),
+              r = new Build(middle + 1, hi, !axisX, pX, pY, left, scratch);
+
+        // Los subárboles usan rangos disjuntos de todos los arrays.
+        if(hi - lo > SEQUENTIAL && inForkJoinPool())
+        {
+            invokeAll(l, r);
+        }
+        else
+        {
+            l.compute();
+            r.compute();
+        }
+    }
+} // Build
+
+@Override public int size()
+{
+    return index.length;
+}
+
+@Override public int getX(int i)
+{
+    return xs[position[i]];
+}
+
+@Override public int getY(int i)
+{
+    return ys[position[i]];
+}
+
+@Override public int[] nearest(int x, int y, int k)
+{
+    if(k < 1)
+        throw new IllegalArgumentException("k debe ser positivo: "+ k);
+
+    Candidates q = new Candidates(Math.min(k, size()));
+    q.reset(x, y, -1);
+    nearest(0, size(), true, q);
+    return q.sorted();
+}
+
+@Override public int neighbour(int i)
+{
+    Candidates q = new Candidates(1);
+    q.reset(getX(i), getY(i), i);
+    nearest(0, size(), true, q);
+    return q.worst();
+}
+
+@Override public int[] neighbours()
+{
+    // Recorremos los puntos en el orden del árbol para que las búsquedas
+    // consecutivas pasen por los mismos nodos.
+    int n = size();
+    int[] nn = new int[n];
+    Candidates q = new Candidates(1);
+
+    for(int k = 0; k < n; k++)
+    {
+        q.reset(xs[k], ys[k], index[k]);
+        nearest(0, n, true, q);
+        nn[index[k]] = q.worst();
+    }
+
+    return nn;
+}
+
+private void nearest(int lo, int hi, boolean axisX, Candidates q)
+{
+    while(lo < hi)
+    {
+        int middle = (lo + hi) >>> 1;
+        long d = axisX ? q.x - xs[middle] : q.y - ys[middle];
+        q.add(xs[middle], ys[middle], index[middle]);
+
+        // Primero el lado de la posición buscada; el otro lado sólo si
+        // la línea de corte está más cerca que el peor candidato.
+        if(d < 0)
+        {
+            nearest(lo, middle, !axisX, q);
+            lo = middle + 1;
+        }
+        else
+        {
+            nearest(middle + 1, hi, !axisX, q);
+            hi = middle;
+        }
+
+        if(q.beyond(d))
+            return; //..............................................RETURN
+
+        axisX = !axisX;
+    }
+}
+
+@Override public int[] radius(int x, int y, double distance)
+{
+    if(!(distance >= 0))
+    {
+        throw new IllegalArgumentException(
+                "Distancia no válida: "+ distance);
+    }
+
+    IntStream.Builder r = IntStream.builder();
+    radius(0, size(), true, x, y, Candidates.limitHi(distance),
+           Candidates.limitLo(distance), r);
+    return r.build().toArray();
+}
+
+// La cota de las distancias al cuadrado es el valor de 128 bits (h,l).
+private void radius(int lo, int hi, boolean axisX, long x, long y,
+                    long h, long l, IntStream.Builder r)
+{
+    while(lo < hi)
+    {
+        int middle = (lo + hi) >>> 1;
+        long dx = x - xs[middle],
+             dy = y - ys[middle],
+             d  = axisX ? dx : dy;
+
+        if(Candidates.within(dx, dy, h, l))
+            r.add(index[middle]);
+
+        // A la izquierda las coordenadas son menores o iguales que las
+        // de la raíz, y a la derecha mayores o iguales.
+        boolean near = Candidates.within(d, 0, h, l);
+
+        if(d <= 0 || near)
+            radius(lo, middle, !axisX, x, y, h, l, r);
+
+        if(d < 0 && !near)
+            return; //..............................................RETURN
+
+        lo = middle + 1;
+        axisX = !axisX;
+    }
+}
+
+@Override public int[] box(int minX, int minY, int maxX, int maxY)
+{
+    IntStream.Builder r = IntStream.builder();
+    box(0, size(), true, minX, minY, maxX, maxY, r);
+    return r.build().toArray();
+}
+
+private void box(int lo, int hi, boolean axisX, int minX, int minY,
+                 int maxX, int maxY, IntStream.Builder r)
+{
+    while(lo < hi)
+    {
+        int middle = (lo + hi) >>> 1,
+            x = xs[middle],
+            y = ys[middle],
+            c = axisX ? x : y;
+
+        if(x >= minX && x <= maxX && y >= minY && y <= maxY)
+            r.add(index[middle]);
+
+        if((axisX ? minX : minY) <= c)
+            box(lo, middle, !axisX, minX, minY, maxX, maxY, r);
+
+        if((axisX ? maxX : maxY) < c)
+            return; //..............................................RETURN
+
+        lo = middle + 1;
+        axisX = !axisX;
+    }
+}
+
+@Override public void write(Path file) throws IOException
+{
+    IndexFile.write(file, MAGIC, new int[0], index, xs, ys);
+}
+
+public static void main(String[] args) throws IOException
+{
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+    Random random = new Random(1);
+    int[] xs = new int[n], ys = new int[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        xs[i] = random.nextInt(1000000);
+        ys[i] = random.nextInt(1000000);
+    }
+
+    long t = System.nanoTime();
+    KdTree tree = new KdTree(xs, ys, true);
+    System.out.printf("Construcción: %d ms\n",
+                      (System.nanoTime() - t) / 1000000);
+
+    t = System.nanoTime();
+
+    for(int i = 0; i < 100000; i++)
+        tree.nearest(random.nextInt(1000000), random.nextInt(1000000));
+
+    System.out.printf("100000 búsquedas: %d ms\n",
+                      (System.nanoTime() - t) / 1000000);
+
+    Path file = Files.createTempFile("kdtree", ".bin");
+    tree.write(file);
+    SpatialIndex copy = SpatialIndex.read(file);
+    Files.delete(file);
+
+    System.out.println("Más cercano a (500000,500000): "+
+                       copy.nearest(500000, 500000));
+
+    System.out.println("Par más cercano: "+ ClosestPoints.compute(copy));
+}
+
+} // KdTree
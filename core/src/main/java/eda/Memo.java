@@ -0,0 +1,694 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Memorización de funciones recursivas para programación dinámica de
+ * arriba hacia abajo (Top-Down).
+ *
+ * La función recibe el propio objeto {@code Memo} para resolver los
+ * subproblemas, y sus argumentos son uno, dos o tres enteros que se
+ * empaquetan en una clave 'long'. Los resultados se guardan en uno de
+ * estos almacenes:
+ * <ul>
+ * <li>Tabla hash sin límite (por defecto): la memoria es proporcional
+ *     al número de subproblemas alcanzados.
+ * <li>Array denso: para espacios de estados pequeños y casi completos.
+ * <li>Caché LRU o LFU: con un número máximo de resultados, desalojando
+ *     el usado hace más tiempo o el usado menos veces.
+ * </ul>
+ *
+ * Se puede usar desde varios hilos para resolver subproblemas en
+ * paralelo. Los resultados no se calculan bajo ningún bloqueo, así que
+ * dos hilos pueden calcular a la vez el mismo subproblema; la función
+ * debe ser pura y se guarda el primer resultado.
+ * @param <V> Tipo de los resultados.
+ */
+public class Memo<V>
+{
+/**
+ * Función de un argumento.
+ * @param <V> Tipo del resultado.
+ */
+public interface Funcion<V>
+{
+    /**
+     * Calcula el resultado de un subproblema.
+     * @param memo Memorización para resolver otros subproblemas.
+     * @param n Argumento.
+     * @return Resultado, distinto de null.
+     */
+    V calcular(Memo<V> memo, long n);
+}
+
+/**
+ * Función de dos argumentos.
+ * @param <V> Tipo del resultado.
+ */
+public interface Funcion2<V>
+{
+    /**
+     * Calcula el resultado de un subproblema.
+     * @param memo Memorización para resolver otros subproblemas.
+     * @param a Primer argumento.
+     * @param b Segundo argumento.
+     * @return Resultado, distinto de null.
+     */
+    V calcular(Memo<V> memo, int a, int b);
+}
+
+/**
+ * Función de tres argumentos, que deben estar en [0,2^21).
+ * @param <V> Tipo del resultado.
+ */
+public interface Funcion3<V>
+{
+    /**
+     * Calcula el resultado de un subproblema.
+     * @param memo Memorización para resolver otros subproblemas.
+     * @param a Primer argumento.
+     * @param b Segundo argumento.
+     * @param c Tercer argumento.
+     * @return Resultado, distinto de null.
+     */
+    V calcular(Memo<V> memo, int a, int b, int c);
+}
+
+// Almacén de resultados. Todas las implementaciones son seguras
+// entre hilos.
+private interface Almacen<V>
+{
+    V get(long clave);
+
+    // Guarda el resultado si no había otro, y devuelve el guardado.
+    V put(long clave, V valor);
+
+    int size();
+
+    void clear();
+}
+
+private static final int BITS3 = 21;
+private static final int SEGMENTOS = 16;
+
+private final Funcion<V> funcion;
+private final int aridad;
+private volatile Almacen<V> almacen = new Ilimitado<>();
+
+private final LongAdder aciertos  = new LongAdder(),
+                        fallos    = new LongAdder(),
+                        desalojos = new LongAdder();
+
+private Memo(int aridad, Funcion<V> funcion)
+{
+    this.aridad  = aridad;
+    this.funcion = funcion;
+}
+
+/**
+ * Memoriza una función de un argumento.
+ * @param <V> Tipo de los resultados.
+ * @param f Función.
+ * @return Memorización con una tabla hash sin límite.
+ */
+public static <V> Memo<V> crear(Funcion<V> f)
+{
+    return new Memo<>(1, f);
+}
+
+/**
+ * Memoriza una función de dos argumentos.
+ * @param <V> Tipo de los resultados.
+ * @param f Función.
+ * @return Memorización con una tabla hash sin límite.
+ */
+public static <V> Memo<V> crear(Funcion2<V> f)
+{
+    return new Memo<>(2, (m, k) -> f.calcular(m, (int)(k >> 32), (int)k));
+}
+
+/**
+ * Memoriza una función de tres argumentos, que deben estar en [0,2^21).
+ * @param <V> Tipo de los resultados.
+ * @param f Función.
+ * @return Memorización con una tabla hash sin límite.
+ */
+public static <V> Memo<V> crear(Funcion3<V> f)
+{
+    int m = (1 << BITS3) - 1;
+
+    return new Memo<>(3, (memo, k) -> f.calcular(
+            memo, (int)(k >> 2 * BITS3), (int)(k >> BITS3) & m, (int)k & m));
+}
+
+/**
+ * Guarda los resultados en un array con una posición por cada
+ * combinación de argumentos. Descarta los resultados guardados.
+ * @param dimensiones Número de valores de cada argumento, que deben
+ *                    estar en [0,dimensión).
+ */
+public void setDenso(int... dimensiones)
+{
+    if(dimensiones.length != aridad)
+        throw new IllegalArgumentException("Número de dimensiones.");
+
+    almacen = new Denso(dimensiones);
+}
+
+/**
+ * Guarda como mucho un número de resultados, desalojando los usados
+ * hace más tiempo (Least Recently Used). Descarta los resultados
+ * guardados.
+ * @param capacidad Número máximo de resultados.
+ */
+public void setLru(int capacidad)
+{
+    almacen = new Segmentado<>(capacidad, false, desalojos);
+}
+
+/**
+ * Guarda como mucho un número de resultados, desalojando los usados
+ * menos veces (Least Frequently Used). Descarta los resultados
+ * guardados.
+ * @param capacidad Número máximo de resultados.
+ */
+public void setLfu(int capacidad)
+{
+    almacen = new Segmentado<>(capacidad, true, desalojos);
+}
+
+/**
+ * Guarda todos los resultados en una tabla hash. Descarta los
+ * resultados guardados.
+ */
+public void setIlimitado()
+{
+    almacen = new Ilimitado<>();
+}
+
+/**
+ * Resultado de la función con un argumento.
+ * @param n Argumento.
+ * @return Resultado.
+ */
+public V get(long n)
+{
+    if(aridad != 1)
+        throw new IllegalArgumentException("La función tiene "+ aridad +
+                                           " argumentos.");
+    return buscar(n);
+}
+
+/**
+ * Resultado de la función con dos argumentos.
+ * @param a Primer argumento.
+ * @param b Segundo argumento.
+ * @return Resultado.
+ */
+public V get(int a, int b)
+{
+    if(aridad != 2)
+        throw new IllegalArgumentException("La función tiene "+ aridad +
+                                           " argumentos.");
+    return buscar((long)a << 32 | (b & 0xffffffffL));
+}
+
+/**
+ * Resultado de la función con tres argumentos.
+ * @param a Primer argumento.
+ * @param b Segundo argumento.
+ * @param c Tercer argumento.
+ * @return Resultado.
+ */
+public V get(int a, int b, int c)
+{
+    if(aridad != 3)
+        throw new IllegalArgumentException("La función tiene "+ aridad +
+                                           " argumentos.");
+
+    if((a | b | c) >>> BITS3 != 0)
+        throw new IllegalArgumentException("Argumento fuera de rango.");
+
+    return buscar((long)a << 2 * BITS3 | (long)b << BITS3 | c);
+}
+
+private V buscar(long clave)
+{
+    Almacen<V> a = almacen;
+    V v = a.get(clave);
+
+    if(v != null)
+    {
+        aciertos.increment();
+        return v; //................................................RETURN
+    }
+
+    fallos.increment();
+    v = Objects.requireNonNull(funcion.calcular(this, clave),
+                               "La función ha devuelto null.");
+    return a.put(clave, v);
+}
+
+/**
+ * Número de consultas resueltas con un resultado guardado.
+ * @return Número de aciertos.
+ */
+public long getAciertos()
+{
+    return aciertos.sum();
+}
+
+/**
+ * Número de consultas en las que se ha calculado la función.
+ * @return Número de fallos.
+ */
+public long getFallos()
+{
+    return fallos.sum();
+}
+
+/**
+ * Número de resultados desalojados de una caché LRU o LFU.
+ * @return Número de desalojos.
+ */
+public long getDesalojos()
+{
+    return desalojos.sum();
+}
+
+/**
+ * Número de resultados guardados.
+ * @return Número de resultados.
+ */
+public int size()
+{
+    return almacen.size();
+}
+
+/**
+ * Descarta los resultados guardados y pone a cero las estadísticas.
+ */
+public void clear()
+{
+    almacen.clear();
+    aciertos.reset();
+    fallos.reset();
+    desalojos.reset();
+}
+
+@Override public String toString()
+{
+    return "aciertos: "+ getAciertos() +", fallos: "+ getFallos() +
+           ", desalojos: "+ getDesalojos() +", guardados: "+ size();
+}
+
+private static class Ilimitado<V> implements Almacen<V>
+{
+    private final ConcurrentHashMap<Long,V> tabla = new ConcurrentHashMap<>();
+
+    @Override public V get(long clave)
+    {
+        return tabla.get(clave);
+    }
+
+    @Override public V put(long clave, V valor)
+    {
+        V v = tabla.putIfAbsent(clave, valor);
+        return v == null ? valor : v;
+    }
+
+    @Override public int size()
+    {
+        return tabla.size();
+    }
+
+    @Override public void clear()
+    {
+        tabla.clear();
+    }
+} // Ilimitado
+
+private class Denso implements Almacen<V>
+{
+    private final int[] dimensiones;
+    private final AtomicReferenceArray<V> tabla;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private Denso(int[] dimensiones)
+    {
+        long n = 1;
+
+        for(int d : dimensiones)
+        {
+            if(d <= 0)
+                throw new IllegalArgumentException("Dimensión: "+ d);
+
+            n *= d;
+
+            if(n > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Demasiadas posiciones.");
+        }
+
+        this.dimensiones = dimensiones.clone();
+        tabla = new AtomicReferenceArray<>((int)n);
+    }
+
+    // Posición de una clave, con los argumentos en orden de filas.
+    private int indice(long clave)
+    {
+        long i;
+
+        if(aridad == 1)
+        {
+            i = clave;
+        }
+        else if(aridad == 2)
+        {
+            i = comprobar((int)(clave >> 32), 0) * dimensiones[1] +
+                comprobar((int)clave, 1);
+        }
+        else
+        {
+            int m = (1 << BITS3) - 1;
+
+            i = (comprobar((int)(clave >> 2 * BITS3), 0) * dimensiones[1] +
+                 comprobar((int)(clave >> BITS3) & m, 1)) * dimensiones[2] +
+                comprobar((int)clave & m, 2);
+        }
+
+        if(i < 0 || i >= tabla.length())
+            throw new IllegalArgumentException("Argumento fuera de rango.");
+
+        return (int)i;
+    }
+
+    private long comprobar(int x, int dimension)
+    {
+        if(x < 0 || x >= dimensiones[dimension])
+            throw new IllegalArgumentException("Argumento fuera de rango.");
+
+        return x;
+    }
+
+    @Override public V get(long clave)
+    {
+        return tabla.get(indice(clave));
+    }
+
+    @Override public V put(long clave, V valor)
+    {
+        int i = indice(clave);
+
+        if(tabla.compareAndSet(i, null, valor))
+        {
+            size.incrementAndGet();
+            return valor; //........................................RETURN
+        }
+
+        return tabla.get(i);
+    }
+
+    @Override public int size()
+    {
+        return size.get();
+    }
+
+    @Override public void clear()
+    {
+        for(int i = 0; i < tabla.length(); i++)
+            tabla.set(i, null);
+
+        size.set(0);
+    }
+} // Denso
+
+/*
+ * Caché limitada dividida en segmentos según la clave, cada uno con su
+ * propio bloqueo, para que varios hilos puedan usarla a la vez.
+ */
+private static class Segmentado<V> implements Almacen<V>
+{
+    private final Almacen<V>[] segmentos;
+
+    @SuppressWarnings("unchecked")
+    private Segmentado(int capacidad, boolean lfu, LongAdder desalojos)
+    {
+        if(capacidad <= 0)
+            throw new IllegalArgumentException("Capacidad: "+ capacidad);
+
+        int n = Math.min(SEGMENTOS, capacidad);
+        segmentos = (Almacen<V>[])new Almacen<?>[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            // Repartimos la capacidad de forma exacta.
+            int c = capacidad / n + (i < capacidad % n ? 1 : 0);
+
+            segmentos[i] = lfu ? new Lfu<>(c, desalojos)
+                               : new Lru<>(c, desalojos);
+        }
+    }
+
+    private Almacen<V> segmento(long clave)
+    {
+        long h = clave * 0x9e3779b97f4a7c15L;
+        return segmentos[(int)((h >>> 32) * segmentos.length >>> 32)];
+    }
+
+    @Override public V get(long clave)
+    {
+        return segmento(clave).get(clave);
+    }
+
+    @Override public V put(long clave, V valor)
+    {
+        return segmento(clave).put(clave, valor);
+    }
+
+    @Override public int size()
+    {
+        int n = 0;
+
+        for(Almacen<V> s : segmentos)
+            n += s.size();
+
+        return n;
+    }
+
+    @Override public void clear()
+    {
+        for(Almacen<V> s : segmentos)
+            s.clear();
+    }
+} // Segmentado
+
+private static class Lru<V> implements Almacen<V>
+{
+    private final LinkedHashMap<Long,V> tabla;
+
+    private Lru(int capacidad, LongAdder desalojos)
+    {
+        // Con el orden de acceso, el primer elemento es el usado hace
+        // más tiempo.
+        tabla = new LinkedHashMap<Long,V>(16, 0.75f, true)
+        {
+            @Override protected boolean removeEldestEntry(
+                    Map.Entry<Long,V> e)
+            {
+                if(size() <= capacidad)
+                    return false; //................................RETURN
+
+                desalojos.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override public synchronized V get(long clave)
+    {
+        return tabla.get(clave);
+    }
+
+    @Override public synchronized V put(long clave, V valor)
+    {
+        V v = tabla.putIfAbsent(clave, valor);
+        return v == null ? valor : v;
+    }
+
+    @Override public synchronized int size()
+    {
+        return tabla.size();
+    }
+
+    @Override public synchronized void clear()
+    {
+        tabla.clear();
+    }
+} // Lru
+
+/*
+ * Caché LFU con coste O(1) por operación. Los nodos con la misma
+ * frecuencia de uso forman una lista circular doblemente enlazada, con
+ * el usado hace más tiempo al principio, y se desaloja el primero de la
+ * lista de menor frecuencia.
+ */
+private static class Lfu<V> implements Almacen<V>
+{
+    private static class Nodo<V>
+    {
+        private final long clave;
+        private final V valor;
+        private int frecuencia = 1;
+        private Nodo<V> anterior, siguiente;
+
+        private Nodo(long clave, V valor)
+        {
+            this.clave = clave;
+            this.valor = valor;
+            anterior = siguiente = this;
+        }
+    } // Nodo
+
+    private final int capacidad;
+    private final LongAdder desalojos;
+    private final HashMap<Long,Nodo<V>> nodos = new HashMap<>();
+    private final HashMap<Integer,Nodo<V>> listas = new HashMap<>();
+    private int minima;
+
+    private Lfu(int capacidad, LongAdder desalojos)
+    {
+        this.capacidad = capacidad;
+        this.desalojos = desalojos;
+    }
+
+    private void quitar(Nodo<V> n)
+    {
+        Nodo<V> primero = listas.get(n.frecuencia);
+
+        if(n.siguiente == n)
+        {
+            listas.remove(n.frecuencia);
+        }
+        else
+        {
+            n.anterior.siguiente = n.siguiente;
+            n.siguiente.anterior = n.anterior;
+
+            if(primero == n)
+                listas.put(n.frecuencia, n.siguiente);
+        }
+
+        n.anterior = n.siguiente = n;
+    }
+
+    private void insertar(Nodo<V> n)
+    {
+        Nodo<V> primero = listas.putIfAbsent(n.frecuencia, n);
+
+        if(primero != null)
+        {
+            // Al final de la lista, antes del primero.
+            n.anterior = primero.anterior;
+            n.siguiente = primero;
+            primero.anterior.siguiente = n;
+            primero.anterior = n;
+        }
+    }
+
+    @Override public synchronized V get(long clave)
+    {
+        Nodo<V> n = nodos.get(clave);
+
+        if(n == null)
+            return null; //.........................................RETURN
+
+        quitar(n);
+
+        if(n.frecuencia == minima && !listas.containsKey(minima))
+            minima++;
+
+        n.frecuencia++;
+        insertar(n);
+        return n.valor;
+    }
+
+    @Override public synchronized V put(long clave, V valor)
+    {
+        Nodo<V> n = nodos.get(clave);
+
+        if(n != null)
+            return n.valor; //......................................RETURN
+
+        if(nodos.size() == capacidad)
+        {
+            Nodo<V> victima = listas.get(minima);
+            quitar(victima);
+            nodos.remove(victima.clave);
+            desalojos.increment();
+        }
+
+        n = new Nodo<>(clave, valor);
+        nodos.put(clave, n);
+        insertar(n);
+        minima = 1;
+        return valor;
+    }
+
+    @Override public synchronized int size()
+    {
+        return nodos.size();
+    }
+
+    @Override public synchronized void clear()
+    {
+        nodos.clear();
+        listas.clear();
+    }
+} // Lfu
+
+public static void main(String[] args)
+{
+    // Fibonacci con un array denso.
+    Memo<BigInteger> fib = crear((m, n) -> n < 2 ? BigInteger.ONE :
+                                 m.get(n - 1).add(m.get(n - 2)));
+    fib.setDenso(1001);
+
+    // Llamamos en orden creciente para no desbordar la pila.
+    for(int n = 0; n <= 1000; n += 100)
+        fib.get(n);
+
+    System.out.println("fib(1000) = "+ fib.get(1000));
+    System.out.println(fib);
+
+    // Mochila 0/1 de arriba hacia abajo: sólo se guardan los estados
+    // (objeto, peso) alcanzados desde el peso máximo.
+    int[] w = { 23, 31, 29, 44, 53, 38, 63, 85, 89, 82 },
+          v = { 92, 57, 49, 68, 60, 43, 67, 84, 87, 72 };
+
+    Funcion2<Integer> mochila = (m, i, j) ->
+            i == w.length ? 0 :
+            w[i] > j ? m.get(i + 1, j) :
+            Math.max(m.get(i + 1, j), m.get(i + 1, j - w[i]) + v[i]);
+
+    int W = 1000000;
+    Memo<Integer> memo = crear(mochila);
+    System.out.println("\nMochila: "+ memo.get(0, W) +" ("+ memo +")");
+    System.out.println("Tabla completa: "+ (long)w.length * (W + 1));
+
+    memo.setLru(200);
+    memo.clear();
+    System.out.println("LRU: "+ memo.get(0, W) +" ("+ memo +")");
+
+    memo.clear();
+    memo.setLfu(200);
+    System.out.println("LFU: "+ memo.get(0, W) +" ("+ memo +")");
+}
+
+} // Memo
@@ -0,0 +1,246 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.*;
+import javax.management.*;
+
+/**
+ * Métricas de una búsqueda o recorrido en un grafo.
+ *
+ * Las métricas sólo se recogen si se ha indicado un {@link Listener}
+ * en el grafo. En caso contrario no se crea ningún objeto ni se mide
+ * el tiempo, y el coste se limita a comprobar una referencia nula.
+ */
+public class Metricas
+{
+private final String operacion;
+private final long inicio;
+private long nanos;
+private int profundidad;
+
+// Contadores actualizados directamente por los grafos.
+long nodos, relajaciones, obsoletos, maxCola;
+
+Metricas(String operacion)
+{
+    this.operacion = operacion;
+    this.inicio = System.nanoTime();
+}
+
+/**
+ * Actualiza el tamaño máximo de la cola.
+ * @param size Tamaño actual de la cola.
+ */
+void cola(int size)
+{
+    if(size > maxCola)
+        maxCola = size;
+}
+
+/**
+ * Anota la entrada en un nivel de recursión, que en los recorridos en
+ * profundidad hace el papel de la cola.
+ */
+void entrar()
+{
+    cola(++profundidad);
+}
+
+/**
+ * Anota la salida de un nivel de recursión.
+ */
+void salir()
+{
+    profundidad--;
+}
+
+/**
+ * Termina la medida y notifica las métricas.
+ * @param listener Destinatario de las métricas.
+ */
+void fin(Listener listener)
+{
+    nanos = System.nanoTime() - inicio;
+    listener.metricas(this);
+}
+
+/**
+ * Nombre de la operación medida.
+ * @return Nombre de la operación.
+ */
+public String getOperacion()
+{
+    return operacion;
+}
+
+/**
+ * Número de nodos visitados o cerrados.
+ * @return Número de nodos.
+ */
+public long getNodos()
+{
+    return nodos;
+}
+
+/**
+ * Número de aristas examinadas.
+ * @return Número de relajaciones.
+ */
+public long getRelajaciones()
+{
+    return relajaciones;
+}
+
+/**
+ * Número de extracciones de la cola que se descartan porque el nodo ya
+ * estaba visitado o su distancia había mejorado.
+ * @return Número de extracciones obsoletas.
+ */
+public long getObsoletos()
+{
+    return obsoletos;
+}
+
+/**
+ * Tamaño máximo que alcanzó la cola (o la pila de recursión).
+ * @return Tamaño máximo.
+ */
+public long getMaxCola()
+{
+    return maxCola;
+}
+
+/**
+ * Tiempo de la operación.
+ * @return Tiempo en nanosegundos.
+ */
+public long getNanos()
+{
+    return nanos;
+}
+
+@Override public String toString()
+{
+    return operacion +": nodos="+ nodos +", relajaciones="+ relajaciones +
+           ", obsoletos="+ obsoletos +", maxCola="+ maxCola +
+           ", tiempo="+ nanos / 1000 +" us";
+}
+
+/**
+ * Destinatario de las métricas de cada operación.
+ */
+@FunctionalInterface
+public interface Listener
+{
+    /**
+     * Recibe las métricas de una operación terminada.
+     * @param m Métricas.
+     */
+    void metricas(Metricas m);
+} // Listener
+
+/**
+ * Interfaz JMX de {@link Acumulador}.
+ */
+public interface AcumuladorMBean
+{
+    long getConsultas();
+    long getNodos();
+    long getRelajaciones();
+    long getObsoletos();
+    long getMaxCola();
+    long getNanos();
+    long getMaxNanos();
+    void reset();
+} // AcumuladorMBean
+
+/**
+ * Listener que acumula las métricas de todas las operaciones y puede
+ * publicarse como MBean para consultarlas con JConsole o VisualVM.
+ */
+public static class Acumulador implements Listener, AcumuladorMBean
+{
+    private final LongAdder consultas    = new LongAdder(),
+                            nodos        = new LongAdder(),
+                            relajaciones = new LongAdder(),
+                            obsoletos    = new LongAdder(),
+                            nanos        = new LongAdder();
+
+    private final LongAccumulator maxCola  = new LongAccumulator(Math::max, 0),
+                                  maxNanos = new LongAccumulator(Math::max, 0);
+
+    @Override public void metricas(Metricas m)
+    {
+        consultas.increment();
+        nodos.add(m.nodos);
+        relajaciones.add(m.relajaciones);
+        obsoletos.add(m.obsoletos);
+        nanos.add(m.nanos);
+        maxCola.accumulate(m.maxCola);
+        maxNanos.accumulate(m.nanos);
+    }
+
+    /**
+     * Publica el acumulador en el servidor de MBeans de la plataforma.
+     * @param nombre Nombre con el que se publica.
+     * @throws JMException Si no se puede registrar.
+     */
+    public void registrar(String nombre) throws JMException
+    {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new StandardMBean(this, AcumuladorMBean.class),
+                new ObjectName("eda:type=Metricas,name="+ nombre));
+    }
+
+    @Override public long getConsultas()
+    {
+        return consultas.sum();
+    }
+
+    @Override public long getNodos()
+    {
+        return nodos.sum();
+    }
+
+    @Override public long getRelajaciones()
+    {
+        return relajaciones.sum();
+    }
+
+    @Override public long getObsoletos()
+    {
+        return obsoletos.sum();
+    }
+
+    @Override public long getMaxCola()
+    {
+        return maxCola.get();
+    }
+
+    @Override public long getNanos()
+    {
+        return nanos.sum();
+    }
+
+    @Override public long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    @Override public void reset()
+    {
+        consultas.reset();
+        nodos.reset();
+        relajaciones.reset();
+        obsoletos.reset();
+        nanos.reset();
+        maxCola.reset();
+        maxNanos.reset();
+    }
+} // Acumulador
+
+} // Metricas
@@ -0,0 +1,508 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Problema de la mochila 0/1 por ramificación y poda.
+ *
+ * A diferencia de la versión de programación dinámica de
+ * {@code Dinamica}, no necesita una tabla proporcional a la capacidad,
+ * así que sirve para capacidades de millones. Los elementos se ordenan
+ * por su relación valor/peso, como en el algoritmo voraz de
+ * {@code Voraces}, y cada nodo del árbol decide si se mete el siguiente
+ * elemento. La cota superior de un nodo es la solución de la mochila
+ * con fraccionamiento de los elementos que quedan, que se calcula en
+ * O(log n) con las sumas acumuladas de pesos y valores.
+ *
+ * La búsqueda es primero el mejor: se expande siempre el nodo con
+ * mayor cota, y se podan los nodos cuya cota no supera la mejor
+ * solución encontrada. Se puede limitar el número de nodos y el tiempo
+ * de búsqueda; si se agotan, se devuelve la mejor solución encontrada
+ * hasta entonces, indicando que puede no ser óptima.
+ *
+ * Con varios hilos, el árbol se expande primero hasta tener varios
+ * nodos por hilo, y cada hilo explora los subárboles de esos nodos en
+ * orden de cota, compartiendo la mejor solución para podar.
+ */
+public class MochilaRamificacion
+{
+// Los presupuestos se comprueban cada cierto número de nodos.
+private static final int BLOQUE = 1024;
+
+// Nodos por hilo con los que se reparte el árbol.
+private static final int REPARTO = 8;
+
+private static final Comparator<Nodo> POR_COTA =
+        (a, b) -> Long.compare(b.cota, a.cota);
+
+private final int[] pesos, valores;
+private final long capacidad;
+private final int[] orden;         // Candidatos por valor/peso.
+private final long[] sumaPesos,    // Sumas acumuladas en ese orden.
+                     sumaValores;
+private final long fijo;           // Valor de los elementos sin peso.
+
+private int hilos = 1;
+private long maxNodos = Long.MAX_VALUE,
+             maxNanos = Long.MAX_VALUE;
+
+/**
+ * Prepara un problema de la mochila 0/1.
+ * @param pesos Peso de cada elemento.
+ * @param valores Valor de cada elemento.
+ * @param capacidad Peso máximo de la mochila.
+ */
+public MochilaRamificacion(int[] pesos, int[] valores, long capacidad)
+{
+    int n = pesos.length;
+
+    if(valores.length != n)
+        throw new IllegalArgumentException("Distinto número de valores.");
+
+    if(capacidad < 0)
+        throw new IllegalArgumentException("Capacidad: "+ capacidad);
+
+    this.pesos     = pesos.clone();
+    this.valores   = valores.clone();
+    this.capacidad = capacidad;
+
+    // Sólo son candidatos los elementos con valor que caben solos. Los
+    // que tienen valor y no pesan se meten siempre.
+    List<Integer> candidatos = new ArrayList<>();
+    long f = 0;
+
+    for(int i = 0; i < n; i++)
+    {
+        if(pesos[i] < 0)
+            throw new IllegalArgumentException("Peso negativo: "+ i);
+
+        if(valores[i] > 0 && pesos[i] == 0)
+            f += valores[i];
+        else if(valores[i] > 0 && pesos[i] <= capacidad)
+            candidatos.add(i);
+    }
+
+    // Orden descendente de valor/peso sin errores de redondeo.
+    candidatos.sort((a, b) -> Long.compare((long)valores[b] * pesos[a],
+                                           (long)valores[a] * pesos[b]));
+    int m = candidatos.size();
+    fijo = f;
+    orden = new int[m];
+    sumaPesos = new long[m + 1];
+    sumaValores = new long[m + 1];
+
+    for(int k = 0; k < m; k++)
+    {
+        int i = candidatos.get(k);
+        orden[k] = i;
+        sumaPesos[k+1] = sumaPesos[k] + pesos[i];
+        sumaValores[k+1] = sumaValores[k] + valores[i];
+    }
+}
+
+/**
+ * Número de hilos de la búsqueda. Por defecto se usa uno.
+ * @param hilos Número de hilos.
+ */
+public void setHilos(int hilos)
+{
+    if(hilos < 1)
+        throw new IllegalArgumentException("Hilos: "+ hilos);
+
+    this.hilos = hilos;
+}
+
+/**
+ * Número máximo de nodos que se expanden. Se comprueba cada mil nodos
+ * aproximadamente y al acabar cada subárbol. Por defecto no hay límite.
+ * @param nodos Número de nodos.
+ */
+public void setMaxNodos(long nodos)
+{
+    if(nodos < 1)
+        throw new IllegalArgumentException("Nodos: "+ nodos);
+
+    maxNodos = nodos;
+}
+
+/**
+ * Tiempo máximo de búsqueda. Por defecto no hay límite.
+ * @param milisegundos Tiempo en milisegundos.
+ */
+public void setMaxTiempo(long milisegundos)
+{
+    if(milisegundos < 1)
+        throw new IllegalArgumentException("Tiempo: "+ milisegundos);
+
+    maxNanos = TimeUnit.MILLISECONDS.toNanos(milisegundos);
+}
+
+// Nodo del árbol de búsqueda: los elementos de 'orden' anteriores a
+// 'nivel' ya están decididos. La decisión del último está en 'dentro'
+// y las de los demás en los nodos padre.
+private static class Nodo
+{
+    private final Nodo padre;
+    private final int nivel;
+    private final boolean dentro;
+    private final long valor, peso, cota;
+
+    private Nodo(Nodo padre, int nivel, boolean dentro,
+                 long valor, long peso, long cota)
+    {
+        this.padre  = padre;
+        this.nivel  = nivel;
+        this.dentro = dentro;
+        this.valor  = valor;
+        this.peso   = peso;
+        this.cota   = cota;
+    }
+} // Nodo
+
+// Cota superior de un nodo: solución con fraccionamiento de los
+// elementos a partir de 'nivel'. Los elementos que caben enteros se
+// buscan en las sumas acumuladas, y el siguiente se fracciona. Como
+// los valores son enteros, el valor fraccionado se redondea hacia
+// abajo.
+private long cota(int nivel, long valor, long peso)
+{
+    long libre = capacidad - peso,
+         base  = sumaPesos[nivel];
+
+    // Mayor j con sumaPesos[j] - base <= libre.
+    int lo = nivel, hi = orden.length;
+
+    while(lo < hi)
+    {
+        int mid = (lo + hi + 1) >>> 1;
+
+        if(sumaPesos[mid] - base <= libre)
+            lo = mid;
+        else
+            hi = mid - 1;
+    }
+
+    long cota = valor + sumaValores[lo] - sumaValores[nivel];
+
+    if(lo < orden.length)
+    {
+        int i = orden[lo];
+        libre -= sumaPesos[lo] - base;
+        cota += libre * valores[i] / pesos[i];
+    }
+
+    return cota;
+}
+
+// Estado compartido de una búsqueda.
+private class Busqueda
+{
+    private final long fin = maxNanos == Long.MAX_VALUE ? Long.MAX_VALUE
+                           : System.nanoTime() + maxNanos;
+
+    private final AtomicLong nodos = new AtomicLong();
+    private volatile boolean agotada;
+    private volatile long mejor;
+    private Nodo solucion;
+
+    private Busqueda(Nodo raiz)
+    {
+        solucion = voraz(raiz);
+        mejor = solucion.valor;
+    }
+
+    // Solución voraz inicial: mete en orden todos los que caben.
+    private Nodo voraz(Nodo n)
+    {
+        while(n.nivel < orden.length)
+        {
+            int i = orden[n.nivel];
+            boolean cabe = n.peso + pesos[i] <= capacidad;
+
+            n = new Nodo(n, n.nivel + 1, cabe,
+                         n.valor + (cabe ? valores[i] : 0),
+                         n.peso  + (cabe ? pesos[i] : 0), 0);
+        }
+
+        return n;
+    }
+
+    private synchronized void mejorar(Nodo n)
+    {
+        if(n.valor > mejor)
+        {
+            solucion = n;
+            mejor = n.valor;
+        }
+    }
+
+    // Cuenta un bloque de nodos y comprueba los presupuestos.
+    private boolean presupuesto(int expandidos)
+    {
+        if(nodos.addAndGet(expandidos) >= maxNodos ||
+           fin != Long.MAX_VALUE && System.nanoTime() >= fin)
+        {
+            agotada = true;
+        }
+
+        return !agotada;
+    }
+
+    // Expande un nodo y añade a la cola los hijos que pueden mejorar.
+    private void expandir(Nodo n, Queue<Nodo> cola)
+    {
+        int i = orden[n.nivel], nivel = n.nivel + 1;
+
+        if(n.peso + pesos[i] <= capacidad)
+        {
+            long v = n.valor + valores[i], p = n.peso + pesos[i];
+            encolar(new Nodo(n, nivel, true, v, p, cota(nivel, v, p)), cola);
+        }
+
+        long c = cota(nivel, n.valor, n.peso);
+
+        if(c > mejor)
+            encolar(new Nodo(n, nivel, false, n.valor, n.peso, c), cola);
+    }
+
+    private void encolar(Nodo n, Queue<Nodo> cola)
+    {
+        if(n.valor > mejor)
+            mejorar(n);
+
+        if(n.nivel < orden.length && n.cota > mejor)
+            cola.add(n);
+    }
+
+    // Búsqueda primero el mejor en un subárbol. Devuelve 'false' si se
+    // agotan los presupuestos. Los nodos del último bloque incompleto
+    // también se comprueban: con varios hilos cada subárbol puede
+    // expandir menos de un bloque.
+    private boolean explorar(PriorityQueue<Nodo> cola, int limite)
+    {
+        int expandidos = 0;
+
+        while(!cola.isEmpty() && cola.size() < limite)
+        {
+            Nodo n = cola.poll();
+
+            if(n.cota <= mejor)
+                break; //............................................BREAK
+
+            if(++expandidos == BLOQUE)
+            {
+                if(!presupuesto(expandidos))
+                    return false; //................................RETURN
+
+                expandidos = 0;
+            }
+
+            expandir(n, cola);
+        }
+
+        return presupuesto(expandidos);
+    }
+} // Busqueda
+
+/**
+ * Busca la mejor solución.
+ * @return Mejor solución encontrada.
+ */
+public Solucion resolver()
+{
+    Nodo raiz = new Nodo(null, 0, false, 0, 0, cota(0, 0, 0));
+    Busqueda b = new Busqueda(raiz);
+    PriorityQueue<Nodo> cola = new PriorityQueue<>(POR_COTA);
+
+    if(raiz.cota > b.mejor)
+        cola.add(raiz);
+
+    if(hilos == 1)
+    {
+        b.explorar(cola, Integer.MAX_VALUE);
+        return solucion(b);
+    }
+
+    // Expandimos hasta tener varios nodos por hilo y repartimos sus
+    // subárboles, empezando por los de mayor cota.
+    if(!b.explorar(cola, REPARTO * hilos))
+        return solucion(b); //......................................RETURN
+
+    PriorityBlockingQueue<Nodo> subarboles =
+            new PriorityBlockingQueue<>(Math.max(1, cola.size()), POR_COTA);
+
+    subarboles.addAll(cola);
+    ExecutorService pool = Executors.newFixedThreadPool(hilos);
+
+    try
+    {
+        List<Callable<Void>> tareas = new ArrayList<>();
+
+        for(int t = 0; t < hilos; t++)
+        {
+            tareas.add(() ->
+            {
+                PriorityQueue<Nodo> local = new PriorityQueue<>(POR_COTA);
+                Nodo n;
+
+                while((n = subarboles.poll()) != null && !b.agotada)
+                {
+                    local.clear();
+                    local.add(n);
+                    b.explorar(local, Integer.MAX_VALUE);
+                }
+
+                return null;
+            });
+        }
+
+        for(Future<Void> f : pool.invokeAll(tareas))
+            f.get();
+    }
+    catch(InterruptedException ex)
+    {
+        Thread.currentThread().interrupt();
+        b.agotada = true;
+    }
+    catch(ExecutionException ex)
+    {
+        throw new IllegalStateException(ex.getCause());
+    }
+    finally
+    {
+        pool.shutdownNow();
+    }
+
+    return solucion(b);
+}
+
+private Solucion solucion(Busqueda b)
+{
+    boolean[] x = new boolean[pesos.length];
+    long peso = 0, valor = fijo;
+
+    for(int i = 0; i < pesos.length; i++)
+        x[i] = valores[i] > 0 && pesos[i] == 0;
+
+    for(Nodo n = b.solucion; n.padre != null; n = n.padre)
+    {
+        if(n.dentro)
+        {
+            int i = orden[n.nivel - 1];
+            x[i] = true;
+            peso += pesos[i];
+            valor += valores[i];
+        }
+    }
+
+    return new Solucion(x, valor, peso, !b.agotada, b.nodos.get());
+}
+
+/**
+ * Solución del problema de la mochila.
+ */
+public static class Solucion
+{
+    private final boolean[] elementos;
+    private final long valor, peso, nodos;
+    private final boolean optima;
+
+    private Solucion(boolean[] elementos, long valor, long peso,
+                     boolean optima, long nodos)
+    {
+        this.elementos = elementos;
+        this.valor  = valor;
+        this.peso   = peso;
+        this.optima = optima;
+        this.nodos  = nodos;
+    }
+
+    /**
+     * Elementos que se meten en la mochila.
+     * @return Para cada elemento, si se mete.
+     */
+    public boolean[] getElementos()
+    {
+        return elementos.clone();
+    }
+
+    /**
+     * Valor total de los elementos de la mochila.
+     * @return Valor.
+     */
+    public long getValor()
+    {
+        return valor;
+    }
+
+    /**
+     * Peso total de los elementos de la mochila.
+     * @return Peso.
+     */
+    public long getPeso()
+    {
+        return peso;
+    }
+
+    /**
+     * Indica si la solución es óptima. No lo es necesariamente si la
+     * búsqueda se detuvo por agotar el número de nodos o el tiempo.
+     * @return {@code true} si es óptima.
+     */
+    public boolean optima()
+    {
+        return optima;
+    }
+
+    /**
+     * Número de nodos expandidos.
+     * @return Número de nodos.
+     */
+    public long getNodos()
+    {
+        return nodos;
+    }
+
+    @Override public String toString()
+    {
+        return "Valor: "+ valor +", peso: "+ peso +", nodos: "+ nodos +
+               (optima ? "" : " (no óptima)");
+    }
+} // Solucion
+
+public static void main(String[] args)
+{
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+    Random r = new Random(1);
+    int[] pesos = new int[n], valores = new int[n];
+    long total = 0;
+
+    for(int i = 0; i < n; i++)
+    {
+        pesos[i] = 1000 + r.nextInt(1000000);
+        valores[i] = pesos[i] + r.nextInt(100000);
+        total += pesos[i];
+    }
+
+    for(int hilos : new int[] { 1, 4 })
+    {
+        MochilaRamificacion m = new MochilaRamificacion(
+                                pesos, valores, total / 2);
+        m.setHilos(hilos);
+        m.setMaxTiempo(10000);
+
+        long t = System.nanoTime();
+        Solucion s = m.resolver();
+
+        System.out.printf("%d hilos: %s, %d ms\n", hilos, s,
+                          (System.nanoTime() - t) / 1000000);
+    }
+}
+
+} // MochilaRamificacion
@@ -0,0 +1,326 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.math.*;
+import java.util.*;
+import eda.ClosestPoints.Result;
+
+/**
+ * Consultas de proximidad sobre una nube de puntos con coordenadas
+ * enteras: los k pares más cercanos, los pares a menos de una distancia
+ * dada, el vecino más cercano de cada punto y los k puntos más cercanos
+ * a una posición.
+ *
+ * Los pares se buscan con el algoritmo de divide y vencerás de
+ * {@link ClosestPoints}, que sólo ordena los puntos una vez al crear la
+ * nube. Las consultas de vecinos usan un árbol k-d que se construye, a
+ * partir de los mismos órdenes por 'x' y por 'y', la primera vez que se
+ * necesita.
+ *
+ * Los arrays de coordenadas no se copian, así que no se deben modificar
+ * mientras se use la nube. Las consultas no se pueden hacer desde varios
+ * hilos a la vez.
+ */
+public class PointCloud
+{
+private final int[] xs, ys;
+private final ClosestPoints.Engine engine;
+private KdTree tree;
+
+/**
+ * Crea una nube de puntos.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ */
+public PointCloud(int[] xs, int[] ys)
+{
+    engine  = new ClosestPoints.Engine(new Space.Ints(xs, ys), false);
+    this.xs = xs;
+    this.ys = ys;
+}
+
+/**
+ * Número de puntos.
+ * @return Número de puntos.
+ */
+public int size()
+{
+    return xs.length;
+}
+
+/**
+ * Punto de una posición de los arrays de coordenadas.
+ * @param i Índice del punto.
+ * @return Punto.
+ */
+public ClosestPoints.Point getPoint(int i)
+{
+    return new ClosestPoints.Point(xs[i], ys[i]);
+}
+
+/**
+ * Busca el par de puntos más cercanos.
+ * @return Par de puntos más cercanos.
+ */
+public Result closestPair()
+{
+    return closestPairs(1).get(0);
+}
+
+/**
+ * Busca los k pares de puntos más cercanos.
+ *
+ * Coste O(n log n + n k) en el caso habitual: la franja central de
+ * cada nivel tiene la anchura del k-ésimo mejor par encontrado.
+ * @param k Número de pares.
+ * @return Pares ordenados de menor a mayor distancia. Si hay menos de
+ *         k pares se devuelven todos.
+ */
+public List<Result> closestPairs(int k)
+{
+    if(k < 1)
+        throw new IllegalArgumentException("k debe ser positivo: "+ k);
+
+    long pairs = (long)size() * (size() - 1) / 2;
+    KBest best = new KBest((int)Math.min(k, pairs));
+    engine.compute(0, size(), best);
+    return best.results();
+}
+
+/**
+ * Busca todos los pares de puntos a una distancia menor o igual que
+ * la indicada.
+ *
+ * La franja central de cada nivel tiene una anchura fija, y cada par
+ * se encuentra sólo en el nivel que separa sus dos puntos. El coste es
+ * O((n + p) log n), siendo 'p' el número de pares encontrados.
+ * @param distance Distancia máxima. Con una distancia infinita se
+ *                 obtienen todos los pares.
+ * @return Pares ordenados de menor a mayor distancia.
+ */
+public List<Result> pairsWithin(double distance)
+{
+    if(!(distance >= 0))
+    {
+        throw new IllegalArgumentException(
+                "Distancia no válida: "+ distance);
+    }
+
+    // Las distancias al cuadrado son enteras: d2 <= r*r si d2 < r*r+1.
+    // Con coordenadas 'int' son menores que 2^65, así que una distancia
+    // cuyo cuadrado es infinito incluye todos los pares.
+    double r2 = Math.floor(distance * distance);
+    BigInteger all = BigInteger.ONE.shiftLeft(66),
+               limit = Double.isInfinite(r2) ? all
+                     : new BigDecimal(r2).toBigInteger().add(BigInteger.ONE)
+                                         .min(all);
+
+    Within within = new Within(limit.shiftRight(64).longValue(),
+                               limit.longValue());
+    engine.compute(0, size(), within);
+    return within.results();
+}
+
+/**
+ * Busca el vecino más cercano de cada punto.
+ *
+ * El árbol k-d se construye en O(n log n) y cada búsqueda cuesta
+ * O(log n) en las nubes de puntos habituales.
+ * @return Para cada índice, el índice de su vecino más cercano.
+ *         Si hay varios a la misma distancia se devuelve uno de ellos.
+ */
+public int[] nearestNeighbours()
+{
+    return tree().neighbours();
+}
+
+/**
+ * Busca los k puntos más cercanos a una posición.
+ * @param x Coordenada 'x' de la posición.
+ * @param y Coordenada 'y' de la posición.
+ * @param k Número de puntos.
+ * @return Índices de los puntos, del más cercano al más lejano.
+ */
+public int[] nearest(int x, int y, int k)
+{
+    if(k < 1)
+        throw new IllegalArgumentException("k debe ser positivo: "+ k);
+
+    return tree().nearest(x, y, k);
+}
+
+private KdTree tree()
+{
+    if(tree == null)
+        tree = new KdTree(xs, ys, engine.orderX(), engine.orderY(), false);
+
+    return tree;
+}
+
+/**
+ * Montículo de máximos con los k mejores pares encontrados.
+ */
+private class KBest extends ClosestPoints.Pairs
+{
+    private final long[] hi, lo;
+    private final int[] a, b;
+    private int size;
+
+    private KBest(int k)
+    {
+        hi = new long[k];
+        lo = new long[k];
+        a  = new int[k];
+        b  = new int[k];
+    }
+
+    @Override void add(int i, int j, long h, long l)
+    {
+        int k;
+
+        if(size < hi.length)
+        {
+            // Subimos el hueco desde la última posición.
+            k = size++;
+
+            while(k > 0 && compare((k - 1) / 2, h, l) < 0)
+            {
+                move((k - 1) / 2, k);
+                k = (k - 1) / 2;
+            }
+        }
+        else
+        {
+            // Sustituimos el peor par y bajamos el hueco.
+            k = 0;
+
+            for(int c = 1; c < size; c = 2 * k + 1)
+            {
+                if(c + 1 < size && compare(c + 1, hi[c], lo[c]) > 0)
+                    c++;
+
+                if(compare(c, h, l) <= 0)
+                    break; //........................................BREAK
+
+                move(c, k);
+                k = c;
+            }
+        }
+
+        hi[k] = h;
+        lo[k] = l;
+        a[k]  = i;
+        b[k]  = j;
+
+        if(size == hi.length)
+        {
+            limitHi = hi[0];
+            limitLo = lo[0];
+        }
+    }
+
+    private int compare(int k, long h, long l)
+    {
+        return Space.compare(hi[k], lo[k], h, l);
+    }
+
+    private void move(int from, int to)
+    {
+        hi[to] = hi[from];
+        lo[to] = lo[from];
+        a[to]  = a[from];
+        b[to]  = b[from];
+    }
+
+    private List<Result> results()
+    {
+        List<Result> r = new ArrayList<>(size);
+
+        for(int k = 0; k < size; k++)
+            r.add(ClosestPoints.result(xs, ys, a[k], b[k]));
+
+        r.sort(BY_DISTANCE);
+        return r;
+    }
+} // KBest
+
+/**
+ * Todos los pares a menos de una distancia fija.
+ */
+private class Within extends ClosestPoints.Pairs
+{
+    private int[] pairs = new int[32];
+    private int size;
+
+    private Within(long limitHi, long limitLo)
+    {
+        this.limitHi = limitHi;
+        this.limitLo = limitLo;
+    }
+
+    @Override void add(int i, int j, long hi, long lo)
+    {
+        if(size + 2 > pairs.length)
+            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+
+        pairs[size++] = i;
+        pairs[size++] = j;
+    }
+
+    private List<Result> results()
+    {
+        List<Result> r = new ArrayList<>(size / 2);
+
+        for(int k = 0; k < size; k += 2)
+            r.add(ClosestPoints.result(xs, ys, pairs[k], pairs[k+1]));
+
+        r.sort(BY_DISTANCE);
+        return r;
+    }
+} // Within
+
+private static final Comparator<Result> BY_DISTANCE =
+        Comparator.comparingLong(Result::getDistance2)
+                  .thenComparingDouble(Result::getDistance)
+                  .thenComparingInt(Result::getIndexA)
+                  .thenComparingInt(Result::getIndexB);
+
+public static void main(String[] args)
+{
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    Random random = new Random(1);
+    int[] xs = new int[n], ys = new int[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        xs[i] = random.nextInt(10000);
+        ys[i] = random.nextInt(10000);
+    }
+
+    PointCloud cloud = new PointCloud(xs, ys);
+    long t = System.nanoTime();
+    List<Result> pairs = cloud.closestPairs(10);
+    System.out.printf("10 pares más cercanos: %d ms\n",
+                      (System.nanoTime() - t) / 1000000);
+
+    for(Result r : pairs)
+        System.out.println("  "+ r);
+
+    t = System.nanoTime();
+    int within = cloud.pairsWithin(5).size();
+    System.out.printf("%d pares a distancia <= 5: %d ms\n", within,
+                      (System.nanoTime() - t) / 1000000);
+
+    t = System.nanoTime();
+    int[] nn = cloud.nearestNeighbours();
+    System.out.printf("Vecinos más cercanos: %d ms\n",
+                      (System.nanoTime() - t) / 1000000);
+
+    System.out.println("Vecino de "+ cloud.getPoint(0) +": "+
+                       cloud.getPoint(nn[0]));
+}
+
+} // PointCloud
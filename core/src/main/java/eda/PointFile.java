@@ -0,0 +1,416 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Lectura y escritura de nubes de puntos del plano con coordenadas
+ * enteras.
+ *
+ * Se admiten dos formatos:
+ *
+ *   CSV: una línea por punto con las coordenadas 'x' e 'y' separadas
+ *        por una coma, un punto y coma, espacios o tabuladores. Se
+ *        ignoran las líneas vacías, las que empiezan por '#' y una
+ *        primera línea de cabecera que empiece por una letra.
+ *   Binario: pares 'x', 'y' de enteros de 32 bits en little-endian,
+ *        sin cabecera.
+ *
+ * Los ficheros se leen proyectándolos en memoria por tramos, y las
+ * coordenadas se guardan directamente en arrays de enteros, sin crear
+ * objetos por punto.
+ */
+public class PointFile
+{
+// Tamaño máximo de los tramos del fichero que se proyectan en memoria.
+private static final int WINDOW = 1 << 30;
+
+private int[] xs, ys;
+private int size;
+
+private PointFile(int capacity)
+{
+    xs = new int[capacity];
+    ys = new int[capacity];
+}
+
+/**
+ * Número de puntos.
+ * @return Número de puntos.
+ */
+public int size()
+{
+    return size;
+}
+
+/**
+ * Coordenadas 'x' de los puntos.
+ * @return Array con una coordenada por punto.
+ */
+public int[] getXs()
+{
+    return xs;
+}
+
+/**
+ * Coordenadas 'y' de los puntos.
+ * @return Array con una coordenada por punto.
+ */
+public int[] getYs()
+{
+    return ys;
+}
+
+/**
+ * Lee un fichero de puntos. Los ficheros con extensión '.csv' o '.txt'
+ * se leen como CSV, y los demás como binarios.
+ * @param file Fichero.
+ * @return Puntos del fichero.
+ * @throws IOException Si falla la lectura o el formato no es correcto.
+ */
+public static PointFile read(Path file) throws IOException
+{
+    return isCsv(file) ? readCsv(file) : readBinary(file);
+}
+
+/**
+ * Indica si un fichero de puntos es CSV según su extensión.
+ * @param file Fichero.
+ * @return {@code true} si es CSV.
+ */
+public static boolean isCsv(Path file)
+{
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    return name.endsWith(".csv") || name.endsWith(".txt");
+}
+
+/**
+ * Lee un fichero de puntos binario.
+ * @param file Fichero.
+ * @return Puntos del fichero.
+ * @throws IOException Si falla la lectura o el formato no es correcto.
+ */
+public static PointFile readBinary(Path file) throws IOException
+{
+    try(FileChannel fc = FileChannel.open(file, StandardOpenOption.READ))
+    {
+        long bytes = fc.size();
+
+        if(bytes % 8 != 0 || bytes / 8 > Integer.MAX_VALUE - 8)
+            throw new IOException("Tamaño de fichero incorrecto: "+ file);
+
+        PointFile f = new PointFile((int)(bytes / 8));
+        int[] pair = new int[2 * 4096];
+
+        for(long p = 0; p < bytes; )
+        {
+            long length = Math.min(WINDOW, bytes - p);
+
+            IntBuffer b = fc.map(FileChannel.MapMode.READ_ONLY, p, length)
+                            .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+
+            // Copiamos por bloques y separamos las coordenadas.
+            while(b.hasRemaining())
+            {
+                int n = Math.min(pair.length, b.remaining());
+                b.get(pair, 0, n);
+
+                for(int i = 0; i < n; i += 2)
+                {
+                    f.xs[f.size] = pair[i];
+                    f.ys[f.size] = pair[i+1];
+                    f.size++;
+                }
+            }
+
+            p += length;
+        }
+
+        return f;
+    }
+}
+
+/**
+ * Lee un fichero de puntos CSV.
+ * @param file Fichero.
+ * @return Puntos del fichero.
+ * @throws IOException Si falla la lectura o el formato no es correcto.
+ */
+public static PointFile readCsv(Path file) throws IOException
+{
+    try(FileChannel fc = FileChannel.open(file, StandardOpenOption.READ))
+    {
+        long bytes = fc.size();
+
+        // Suponemos unos 12 bytes por línea para reservar memoria.
+        PointFile f = new PointFile(
+                (int)Math.min(Math.max(16, bytes / 12), 1 << 24));
+
+        Parser parser = new Parser(f);
+
+        for(long p = 0; p < bytes; )
+        {
+            long length = Math.min(WINDOW, bytes - p);
+
+            ByteBuffer b = fc.map(FileChannel.MapMode.READ_ONLY, p, length);
+            int end = (int)length;
+
+            // Salvo en el último tramo, terminamos en el último salto de
+            // línea para no partir una línea entre dos tramos.
+            if(p + length < bytes)
+            {
+                while(end > 0 && b.get(end - 1) != '\n')
+                    end--;
+
+                if(end == 0)
+                    throw new IOException("Línea demasiado larga.");
+            }
+
+            parser.parse(b, end);
+            p += end;
+        }
+
+        f.trim();
+        return f;
+    }
+}
+
+private void add(int x, int y)
+{
+    if(size == xs.length)
+    {
+        int capacity = (int)Math.min(2L * size, Integer.MAX_VALUE - 8);
+
+        if(capacity == size)
+            throw new IllegalStateException("Demasiados puntos.");
+
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+    }
+
+    xs[size] = x;
+    ys[size] = y;
+    size++;
+}
+
+private void trim()
+{
+    if(size < xs.length)
+    {
+        xs = Arrays.copyOf(xs, size);
+        ys = Arrays.copyOf(ys, size);
+    }
+}
+
+/**
+ * Analizador de líneas CSV directamente sobre los bytes del fichero.
+ */
+private static class Parser
+{
+    private final PointFile f;
+    private long line;
+    private boolean header = true;
+
+    private Parser(PointFile f)
+    {
+        this.f = f;
+    }
+
+    private void parse(ByteBuffer b, int end) throws IOException
+    {
+        int p = 0;
+
+        while(p < end)
+        {
+            line++;
+            p = skipBlanks(b, p, end);
+            int c = p < end ? b.get(p) : '\n';
+
+            if(c == '\n' || c == '#' || header && Character.isLetter(c))
+            {
+                // Línea vacía, comentario o cabecera. La cabecera sólo
+                // puede estar antes del primer punto.
+                header = header && (c == '\n' || c == '#');
+
+                while(p < end && b.get(p) != '\n')
+                    p++;
+
+                p++;
+                continue; //......................................CONTINUE
+            }
+
+            header = false;
+            long x = number(b, p, end);
+            p = (int)(x >>> 32);
+            p = separator(b, p, end);
+            long y = number(b, p, end);
+            p = skipBlanks(b, (int)(y >>> 32), end);
+
+            if(p < end && b.get(p) != '\n')
+                throw error("fin de línea esperado");
+
+            f.add((int)x, (int)y);
+            p++;
+        }
+    }
+
+    // Devuelve la posición siguiente al número en los 32 bits altos y
+    // el número en los 32 bits bajos.
+    private long number(ByteBuffer b, int p, int end) throws IOException
+    {
+        boolean negative = false;
+
+        if(p < end && (b.get(p) == '-' || b.get(p) == '+'))
+            negative = b.get(p++) == '-';
+
+        long v = 0;
+        int start = p;
+
+        while(p < end && b.get(p) >= '0' && b.get(p) <= '9')
+        {
+            v = 10 * v + (b.get(p++) - '0');
+
+            if(v > 1L << 31)
+                throw error("número fuera de rango");
+        }
+
+        if(p == start)
+            throw error("número esperado");
+
+        v = negative ? -v : v;
+
+        if(v > Integer.MAX_VALUE)
+            throw error("número fuera de rango");
+
+        return (long)p << 32 | (v & 0xffffffffL);
+    }
+
+    private int separator(ByteBuffer b, int p, int end) throws IOException
+    {
+        p = skipBlanks(b, p, end);
+
+        if(p < end && (b.get(p) == ',' || b.get(p) == ';'))
+            p = skipBlanks(b, p + 1, end);
+        else if(p == end || !isBlank(b.get(p - 1)))
+            throw error("separador esperado");
+
+        return p;
+    }
+
+    private static int skipBlanks(ByteBuffer b, int p, int end)
+    {
+        while(p < end && isBlank(b.get(p)))
+            p++;
+
+        return p;
+    }
+
+    private static boolean isBlank(byte c)
+    {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    private IOException error(String message)
+    {
+        return new IOException("Línea "+ line +": "+ message +".");
+    }
+} // Parser
+
+/**
+ * Escribe un fichero de puntos binario.
+ * @param file Fichero destino.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @throws IOException Si falla la escritura.
+ */
+public static void writeBinary(Path file, int[] xs, int[] ys)
+        throws IOException
+{
+    if(xs.length != ys.length)
+        throw new IllegalArgumentException("Distinto número de coordenadas.");
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+
+    try(FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE,
+                                          StandardOpenOption.WRITE,
+                                          StandardOpenOption.TRUNCATE_EXISTING))
+    {
+        for(int i = 0; i < xs.length; i++)
+        {
+            if(buffer.remaining() < 8)
+                flush(fc, buffer);
+
+            buffer.putInt(xs[i]).putInt(ys[i]);
+        }
+
+        flush(fc, buffer);
+    }
+}
+
+/**
+ * Escribe un fichero de puntos CSV.
+ * @param file Fichero destino.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @throws IOException Si falla la escritura.
+ */
+public static void writeCsv(Path file, int[] xs, int[] ys)
+        throws IOException
+{
+    if(xs.length != ys.length)
+        throw new IllegalArgumentException("Distinto número de coordenadas.");
+
+    try(Writer w = Files.newBufferedWriter(file))
+    {
+        for(int i = 0; i < xs.length; i++)
+            w.write(xs[i] +","+ ys[i] +"\n");
+    }
+}
+
+private static void flush(FileChannel fc, ByteBuffer buffer)
+        throws IOException
+{
+    buffer.flip();
+
+    while(buffer.hasRemaining())
+        fc.write(buffer);
+
+    buffer.clear();
+}
+
+/**
+ * Convierte un fichero de puntos de un formato a otro, según las
+ * extensiones de los ficheros.
+ * @param args Fichero origen y fichero destino.
+ * @throws IOException Si falla la lectura o la escritura.
+ */
+public static void main(String[] args) throws IOException
+{
+    if(args.length != 2)
+    {
+        System.err.println("Uso: java eda.PointFile origen destino");
+        System.exit(2);
+    }
+
+    Path in = Paths.get(args[0]), out = Paths.get(args[1]);
+    long t = System.nanoTime();
+    PointFile f = read(in);
+
+    System.out.printf("%d puntos leídos en %d ms\n", f.size(),
+                      (System.nanoTime() - t) / 1000000);
+
+    if(isCsv(out))
+        writeCsv(out, f.getXs(), f.getYs());
+    else
+        writeBinary(out, f.getXs(), f.getYs());
+}
+
+} // PointFile
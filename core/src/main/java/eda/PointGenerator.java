@@ -0,0 +1,236 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import eda.ClosestPoints.Point;
+
+/**
+ * Generadores reproducibles de nubes de puntos del plano.
+ *
+ * Las coordenadas se generan en arrays de enteros a partir de una
+ * semilla, de modo que la misma semilla produce siempre los mismos
+ * puntos. Se pueden usar directamente con {@code ClosestPoints.compute}
+ * o convertir en un conjunto de {@link Point}.
+ */
+public class PointGenerator
+{
+// Lado del cuadrado en el que se generan las distribuciones por defecto.
+private static final int SIDE = 1 << 30;
+
+private final int[] xs, ys;
+
+private PointGenerator(int n)
+{
+    if(n < 0)
+        throw new IllegalArgumentException("Número de puntos: "+ n);
+
+    xs = new int[n];
+    ys = new int[n];
+}
+
+/**
+ * Puntos repartidos de forma uniforme en un rectángulo.
+ * Puede haber puntos repetidos.
+ * @param n Número de puntos.
+ * @param minX Menor coordenada 'x'.
+ * @param minY Menor coordenada 'y'.
+ * @param maxX Mayor coordenada 'x'.
+ * @param maxY Mayor coordenada 'y'.
+ * @param seed Semilla.
+ * @return Generador con los puntos.
+ */
+public static PointGenerator uniform(int n, int minX, int minY,
+                                     int maxX, int maxY, long seed)
+{
+    if(minX > maxX || minY > maxY)
+        throw new IllegalArgumentException("Rectángulo vacío.");
+
+    PointGenerator g = new PointGenerator(n);
+    Random r = new Random(seed);
+
+    for(int i = 0; i < n; i++)
+    {
+        g.xs[i] = between(r, minX, maxX);
+        g.ys[i] = between(r, minY, maxY);
+    }
+
+    return g;
+}
+
+/**
+ * Puntos repartidos de forma uniforme en el cuadrado [0,2^30).
+ * @param n Número de puntos.
+ * @param seed Semilla.
+ * @return Generador con los puntos.
+ */
+public static PointGenerator uniform(int n, long seed)
+{
+    return uniform(n, 0, 0, SIDE - 1, SIDE - 1, seed);
+}
+
+/**
+ * Puntos agrupados en nubes de unos mil puntos con distribución normal
+ * alrededor de centros repartidos de forma uniforme en el cuadrado
+ * [0,2^30). La desviación típica de cada nube es unas mil veces menor
+ * que la separación media entre centros, así que casi todos los pares
+ * cercanos están dentro de la misma nube.
+ * @param n Número de puntos.
+ * @param seed Semilla.
+ * @return Generador con los puntos.
+ */
+public static PointGenerator clustered(int n, long seed)
+{
+    PointGenerator g = new PointGenerator(n);
+    Random r = new Random(seed);
+    int clusters = Math.max(1, n / 1000);
+    double sigma = SIDE / Math.sqrt(clusters) / 1024;
+    int[] cx = new int[clusters], cy = new int[clusters];
+
+    for(int c = 0; c < clusters; c++)
+    {
+        cx[c] = r.nextInt(SIDE);
+        cy[c] = r.nextInt(SIDE);
+    }
+
+    for(int i = 0; i < n; i++)
+    {
+        int c = r.nextInt(clusters);
+        g.xs[i] = clamp(cx[c] + r.nextGaussian() * sigma);
+        g.ys[i] = clamp(cy[c] + r.nextGaussian() * sigma);
+    }
+
+    return g;
+}
+
+/**
+ * Puntos alineados en vertical: todos tienen la misma 'x' y distinta
+ * 'y' en [0,2^30), en orden aleatorio. Es el caso degenerado del
+ * algoritmo de divide y vencerás, en el que la franja central contiene
+ * todos los puntos de cada subproblema.
+ * @param n Número de puntos.
+ * @param seed Semilla.
+ * @return Generador con los puntos.
+ */
+public static PointGenerator collinear(int n, long seed)
+{
+    PointGenerator g = new PointGenerator(n);
+    Random r = new Random(seed);
+
+    // Repartimos el segmento en n tramos con un punto en cada uno para
+    // que no haya puntos repetidos, y los desordenamos.
+    int step = Math.max(1, SIDE / Math.max(1, n));
+
+    for(int i = 0; i < n; i++)
+    {
+        g.xs[i] = SIDE / 2;
+        g.ys[i] = i * step + r.nextInt(step);
+    }
+
+    for(int i = n - 1; i > 0; i--)
+    {
+        int j = r.nextInt(i + 1), y = g.ys[i];
+        g.ys[i] = g.ys[j];
+        g.ys[j] = y;
+    }
+
+    return g;
+}
+
+/**
+ * Crea una nube de puntos a partir del nombre de su distribución.
+ * @param shape "uniform", "clustered" o "collinear".
+ * @param n Número de puntos.
+ * @param seed Semilla.
+ * @return Generador con los puntos.
+ */
+public static PointGenerator create(String shape, int n, long seed)
+{
+    switch(shape)
+    {
+        case "uniform":   return uniform(n, seed);
+        case "clustered": return clustered(n, seed);
+        case "collinear": return collinear(n, seed);
+        default: throw new IllegalArgumentException("Distribución: "+ shape);
+    }
+}
+
+// Entero uniforme en [min,max].
+private static int between(Random r, int min, int max)
+{
+    long width = (long)max - min + 1;
+    return (int)(min + Math.floorMod(r.nextLong(), width));
+}
+
+private static int clamp(double v)
+{
+    return (int)Math.max(0, Math.min(SIDE - 1, Math.round(v)));
+}
+
+/**
+ * Número de puntos.
+ * @return Número de puntos.
+ */
+public int size()
+{
+    return xs.length;
+}
+
+/**
+ * Coordenadas 'x' de los puntos.
+ * @return Array con una coordenada por punto.
+ */
+public int[] getXs()
+{
+    return xs;
+}
+
+/**
+ * Coordenadas 'y' de los puntos.
+ * @return Array con una coordenada por punto.
+ */
+public int[] getYs()
+{
+    return ys;
+}
+
+/**
+ * Conjunto con los puntos generados. Los puntos repetidos aparecen
+ * una sola vez.
+ * @return Conjunto de puntos.
+ */
+public Set<Point> points()
+{
+    Set<Point> points = new HashSet<>();
+
+    for(int i = 0; i < xs.length; i++)
+        points.add(new Point(xs[i], ys[i]));
+
+    return points;
+}
+
+/**
+ * Mide el tiempo de {@code ClosestPoints.compute} con cada distribución
+ * y lo divide entre n·log2(n), que debería ser casi constante.
+ * @param args Número de puntos.
+ */
+public static void main(String[] args)
+{
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+    for(String shape : new String[] { "uniform", "clustered", "collinear" })
+    {
+        PointGenerator g = create(shape, n, 1);
+        long t = System.nanoTime();
+        ClosestPoints.Result r = ClosestPoints.compute(g.xs, g.ys);
+        t = System.nanoTime() - t;
+
+        System.out.printf("%10s: %6d ms, %6.2f ns/(n log n), %s\n", shape,
+                          t / 1000000, t / (n * Math.log(n) / Math.log(2)),
+                          r);
+    }
+}
+
+} // PointGenerator
@@ -0,0 +1,475 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Programación dinámica sobre secuencias: distancia de edición
+ * (Levenshtein), subsecuencia común más larga y alineamiento global.
+ *
+ * Las tablas se calculan fila a fila como en {@link Dinamica}, pero
+ * guardando una sola fila con tantas columnas como la secuencia más
+ * corta, así que la memoria es O(min(m,n)). Además:
+ * <ul>
+ * <li>Con un umbral k sólo se calculan las diagonales a distancia k de
+ *     la principal (banda de Ukkonen), en tiempo O(k min(m,n)), y se
+ *     termina en cuanto toda una fila supera el umbral.
+ * <li>Si la secuencia más corta tiene como mucho 64 caracteres, la
+ *     distancia se calcula con el algoritmo de bits en paralelo de
+ *     Myers, que procesa una columna entera en unas pocas operaciones.
+ * <li>La subsecuencia común se reconstruye con el algoritmo de
+ *     Hirschberg, también en memoria lineal.
+ * </ul>
+ */
+public class Secuencias
+{
+/**
+ * Distancia de edición: menor número de inserciones, borrados y
+ * sustituciones de caracteres para pasar de una secuencia a otra.
+ * @param a Primera secuencia.
+ * @param b Segunda secuencia.
+ * @return Distancia de edición.
+ */
+public static int distanciaEdicion(CharSequence a, CharSequence b)
+{
+    if(a.length() < b.length())
+    {
+        CharSequence t = a;
+        a = b;
+        b = t;
+    }
+
+    // D[j] es la distancia entre a[0,i) y b[0,j) en la fila i.
+    int m = a.length(), n = b.length();
+    int[] D = new int[n + 1];
+
+    for(int j = 0; j <= n; j++)
+        D[j] = j;
+
+    for(int i = 1; i <= m; i++)
+    {
+        char c = a.charAt(i - 1);
+        int diagonal = D[0];
+        D[0] = i;
+
+        for(int j = 1; j <= n; j++)
+        {
+            int arriba = D[j],
+                d = diagonal + (c == b.charAt(j - 1) ? 0 : 1);
+
+            D[j] = Math.min(d, Math.min(arriba, D[j-1]) + 1);
+            diagonal = arriba;
+        }
+    }
+
+    return D[n];
+}
+
+/**
+ * Distancia de edición con un umbral. Si la secuencia más corta tiene
+ * como mucho 64 caracteres se usa el algoritmo de Myers, y si no, la
+ * banda de Ukkonen.
+ * @param a Primera secuencia.
+ * @param b Segunda secuencia.
+ * @param umbral Mayor distancia que interesa.
+ * @return Distancia de edición, o umbral+1 si es mayor que el umbral.
+ */
+public static int distanciaEdicion(CharSequence a, CharSequence b,
+                                   int umbral)
+{
+    if(umbral < 0)
+        throw new IllegalArgumentException("Umbral negativo: "+ umbral);
+
+    int m = a.length(), n = b.length();
+    umbral = Math.min(umbral, Math.max(m, n));
+
+    if(Math.abs(m - n) > umbral)
+        return umbral + 1; //.......................................RETURN
+
+    if(Math.min(m, n) <= 64)
+        return Math.min(myers(a, b), umbral + 1); //................RETURN
+
+    return ukkonen(a, b, umbral);
+}
+
+// Banda de Ukkonen: sólo las casillas con |i-j| <= k. Las de fuera de
+// la banda valen k+1, que hace de infinito.
+private static int ukkonen(CharSequence a, CharSequence b, int k)
+{
+    if(a.length() < b.length())
+    {
+        CharSequence t = a;
+        a = b;
+        b = t;
+    }
+
+    int m = a.length(), n = b.length(), infinito = k + 1;
+    int[] D = new int[n + 1];
+
+    for(int j = 0; j <= n; j++)
+        D[j] = Math.min(j, infinito);
+
+    for(int i = 1; i <= m; i++)
+    {
+        char c = a.charAt(i - 1);
+        int desde = Math.max(1, i - k),
+            hasta = Math.min(n, i + k);
+
+        int diagonal = D[desde - 1],
+            izquierda = desde == 1 ? Math.min(i, infinito) : infinito,
+            minimo = izquierda;
+
+        D[desde - 1] = izquierda;
+
+        for(int j = desde; j <= hasta; j++)
+        {
+            int arriba = D[j],
+                d = diagonal + (c == b.charAt(j - 1) ? 0 : 1);
+
+            d = Math.min(d, Math.min(arriba, izquierda) + 1);
+            d = Math.min(d, infinito);
+            D[j] = izquierda = d;
+            diagonal = arriba;
+            minimo = Math.min(minimo, d);
+        }
+
+        if(minimo > k)
+            return infinito; //.....................................RETURN
+    }
+
+    return D[n];
+}
+
+/**
+ * Distancia de edición con el algoritmo de bits en paralelo de Myers,
+ * en la versión de Hyyrö para la distancia global. Cada columna de la
+ * tabla se representa con las diferencias entre casillas consecutivas,
+ * que valen -1, 0 o +1, en dos máscaras de bits, y se calcula a partir
+ * de la anterior con operaciones lógicas y una suma. El tiempo es
+ * O(n) para una secuencia corta de hasta 64 caracteres.
+ * @param a Primera secuencia.
+ * @param b Segunda secuencia.
+ * @return Distancia de edición.
+ * @throws IllegalArgumentException Si las dos secuencias tienen más de
+ *         64 caracteres.
+ */
+public static int myers(CharSequence a, CharSequence b)
+{
+    if(a.length() > b.length())
+    {
+        CharSequence t = a;
+        a = b;
+        b = t;
+    }
+
+    int m = a.length();
+
+    if(m > 64)
+        throw new IllegalArgumentException("Secuencias de más de 64.");
+
+    if(m == 0)
+        return b.length(); //.......................................RETURN
+
+    // Máscara de posiciones de cada carácter de 'a', en una tabla hash
+    // de direccionamiento abierto.
+    char[] caracteres = new char[128];
+    long[] mascaras = new long[128];
+
+    for(int i = 0; i < m; i++)
+    {
+        int h = posicion(caracteres, mascaras, a.charAt(i));
+        caracteres[h] = a.charAt(i);
+        mascaras[h] |= 1L << i;
+    }
+
+    long pv = -1, mv = 0, ultimo = 1L << (m - 1);
+    int distancia = m;
+
+    for(int j = 0; j < b.length(); j++)
+    {
+        char c = b.charAt(j);
+        long eq = mascaras[posicion(caracteres, mascaras, c)],
+             xv = eq | mv,
+             xh = ((eq & pv) + pv ^ pv) | eq,
+             ph = mv | ~(xh | pv),
+             mh = pv & xh;
+
+        if((ph & ultimo) != 0)
+            distancia++;
+        else if((mh & ultimo) != 0)
+            distancia--;
+
+        // La fila 0 aumenta en 1 en cada columna.
+        ph = ph << 1 | 1;
+        mh <<= 1;
+        pv = mh | ~(xv | ph);
+        mv = ph & xv;
+    }
+
+    return distancia;
+}
+
+// Posición de un carácter en la tabla, o de la casilla libre donde
+// debería estar.
+private static int posicion(char[] caracteres, long[] mascaras, char c)
+{
+    int h = c * 0x9e3779b1 >>> 25;
+
+    while(mascaras[h] != 0 && caracteres[h] != c)
+        h = (h + 1) & 127;
+
+    return h;
+}
+
+/**
+ * Longitud de la subsecuencia común más larga.
+ * @param a Primera secuencia.
+ * @param b Segunda secuencia.
+ * @return Longitud.
+ */
+public static int lcs(CharSequence a, CharSequence b)
+{
+    if(a.length() < b.length())
+    {
+        CharSequence t = a;
+        a = b;
+        b = t;
+    }
+
+    int[] L = new int[b.length() + 1];
+    filaLcs(a, 0, a.length(), false, b, 0, b.length(), L);
+    return L[b.length()];
+}
+
+/**
+ * Subsecuencia común más larga, con el algoritmo de Hirschberg: se
+ * divide la primera secuencia por la mitad, se calcula la última fila
+ * de la tabla de cada mitad (la segunda al revés), y se busca la
+ * columna en que conviene dividir la segunda secuencia. Cada mitad se
+ * resuelve después por separado. La memoria es O(n) y el tiempo
+ * O(m n), unas dos veces el de la longitud.
+ * @param a Primera secuencia.
+ * @param b Segunda secuencia.
+ * @return Subsecuencia común más larga.
+ */
+public static String subsecuenciaComun(CharSequence a, CharSequence b)
+{
+    if(a.length() < b.length())
+    {
+        CharSequence t = a;
+        a = b;
+        b = t;
+    }
+
+    StringBuilder sb = new StringBuilder();
+    int n = b.length();
+    hirschberg(a, 0, a.length(), b, 0, n, new int[n+1], new int[n+1], sb);
+    return sb.toString();
+}
+
+private static void hirschberg(CharSequence a, int a0, int a1,
+                               CharSequence b, int b0, int b1,
+                               int[] f, int[] g, StringBuilder sb)
+{
+    if(a1 - a0 == 0 || b1 - b0 == 0)
+        return; //..................................................RETURN
+
+    if(a1 - a0 == 1)
+    {
+        char c = a.charAt(a0);
+
+        for(int j = b0; j < b1; j++)
+        {
+            if(b.charAt(j) == c)
+            {
+                sb.append(c);
+                break; //............................................BREAK
+            }
+        }
+
+        return; //..................................................RETURN
+    }
+
+    int mitad = (a0 + a1) >>> 1, n = b1 - b0;
+    filaLcs(a, a0, mitad, false, b, b0, b1, f);
+    filaLcs(a, mitad, a1, true, b, b0, b1, g);
+
+    // f[j] usa b[b0,b0+j) y g[n-j] usa b[b0+j,b1).
+    int corte = 0;
+
+    for(int j = 1; j <= n; j++)
+    {
+        if(f[j] + g[n - j] > f[corte] + g[n - corte])
+            corte = j;
+    }
+
+    hirschberg(a, a0, mitad, b, b0, b0 + corte, f, g, sb);
+    hirschberg(a, mitad, a1, b, b0 + corte, b1, f, g, sb);
+}
+
+// Última fila de la tabla de la subsecuencia común de a[a0,a1) y
+// b[b0,b1), o de las dos secuencias al revés. L[j] es la longitud con
+// los j primeros caracteres de b, o los j últimos al revés.
+private static void filaLcs(CharSequence a, int a0, int a1, boolean reves,
+                            CharSequence b, int b0, int b1, int[] L)
+{
+    int n = b1 - b0;
+    Arrays.fill(L, 0, n + 1, 0);
+
+    for(int i = 0; i < a1 - a0; i++)
+    {
+        char c = a.charAt(reves ? a1 - 1 - i : a0 + i);
+        int diagonal = 0;
+
+        for(int j = 1; j <= n; j++)
+        {
+            int arriba = L[j];
+            char d = b.charAt(reves ? b1 - j : b0 + j - 1);
+
+            L[j] = c == d ? diagonal + 1 : Math.max(arriba, L[j-1]);
+            diagonal = arriba;
+        }
+    }
+}
+
+/**
+ * Puntuación del mejor alineamiento global (Needleman-Wunsch) de dos
+ * secuencias dentro de una banda: sólo se consideran alineamientos en
+ * que ningún carácter se desplaza más que la banda respecto del otro.
+ * @param a Primera secuencia.
+ * @param b Segunda secuencia.
+ * @param coincidencia Puntuación de dos caracteres iguales.
+ * @param diferencia Puntuación de dos caracteres distintos.
+ * @param hueco Puntuación de un carácter alineado con un hueco.
+ * @param banda Mayor desplazamiento, que debe ser al menos la
+ *              diferencia de longitudes.
+ * @return Puntuación del alineamiento.
+ */
+public static long alineamiento(CharSequence a, CharSequence b,
+                                int coincidencia, int diferencia,
+                                int hueco, int banda)
+{
+    if(a.length() < b.length())
+    {
+        CharSequence t = a;
+        a = b;
+        b = t;
+    }
+
+    int m = a.length(), n = b.length();
+
+    if(banda < m - n)
+        throw new IllegalArgumentException("Banda menor que "+ (m - n));
+
+    // Las casillas fuera de la banda valen "menos infinito".
+    long infinito = Long.MIN_VALUE / 4;
+    long[] S = new long[n + 1];
+
+    for(int j = 0; j <= n; j++)
+        S[j] = j <= banda ? (long)j * hueco : infinito;
+
+    for(int i = 1; i <= m; i++)
+    {
+        char c = a.charAt(i - 1);
+        int desde = Math.max(1, i - banda),
+            hasta = Math.min(n, i + banda);
+
+        long diagonal = S[desde - 1],
+             izquierda = desde == 1 && i <= banda ? (long)i * hueco
+                                                  : infinito;
+        S[desde - 1] = izquierda;
+
+        for(int j = desde; j <= hasta; j++)
+        {
+            long arriba = S[j],
+                 s = diagonal + (c == b.charAt(j - 1) ? coincidencia
+                                                      : diferencia);
+
+            s = Math.max(s, Math.max(arriba, izquierda) + hueco);
+            S[j] = izquierda = s;
+            diagonal = arriba;
+        }
+    }
+
+    return S[n];
+}
+
+/**
+ * Distancias de edición de muchos pares de secuencias, en paralelo
+ * con los hilos del {@code ForkJoinPool} común.
+ * @param a Primera secuencia de cada par.
+ * @param b Segunda secuencia de cada par.
+ * @param umbral Mayor distancia que interesa.
+ * @param paralelo Si se calcula en paralelo.
+ * @return Distancia de cada par, o umbral+1 si es mayor.
+ */
+public static int[] distancias(CharSequence[] a, CharSequence[] b,
+                               int umbral, boolean paralelo)
+{
+    if(a.length != b.length)
+        throw new IllegalArgumentException("Distinto número de secuencias.");
+
+    int[] d = new int[a.length];
+    IntStream s = IntStream.range(0, a.length);
+
+    (paralelo ? s.parallel() : s).forEach(
+            i -> d[i] = distanciaEdicion(a[i], b[i], umbral));
+
+    return d;
+}
+
+public static void main(String[] args)
+{
+    String[][] pares = { { "kitten", "sitting" }, { "sunday", "saturday" },
+                         { "ACCGGTCGAGTGCGCGGAAGCCGGCCGAA",
+                           "GTCGTTCGGAATGCCGTTGCTCTGTAAA" } };
+
+    for(String[] p : pares)
+    {
+        System.out.println("\n"+ p[0] +" / "+ p[1]);
+        System.out.println("Distancia: "+ distanciaEdicion(p[0], p[1]) +
+                           ", Myers: "+ myers(p[0], p[1]) +
+                           ", umbral 3: "+ distanciaEdicion(p[0], p[1], 3));
+        System.out.println("Subsecuencia común: "+
+                           subsecuenciaComun(p[0], p[1]));
+        System.out.println("Alineamiento: "+
+                           alineamiento(p[0], p[1], 1, -1, -1, 4));
+    }
+
+    // Pares de registros parecidos, como al buscar duplicados.
+    int n = 1000000;
+    Random r = new Random(1);
+    String[] a = new String[n], b = new String[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        char[] s = new char[20 + r.nextInt(30)];
+
+        for(int j = 0; j < s.length; j++)
+            s[j] = (char)('a' + r.nextInt(26));
+
+        a[i] = new String(s);
+
+        for(int k = r.nextInt(5); k > 0; k--)
+            s[r.nextInt(s.length)] = (char)('a' + r.nextInt(26));
+
+        b[i] = new String(s);
+    }
+
+    for(boolean paralelo : new boolean[] { false, true })
+    {
+        long t = System.currentTimeMillis();
+        int[] d = distancias(a, b, 2, paralelo);
+        t = System.currentTimeMillis() - t;
+        long cercanos = Arrays.stream(d).filter(x -> x <= 2).count();
+
+        System.out.println("\n"+ n +" pares"+ (paralelo ? " en paralelo" : "")
+                           +": "+ cercanos +" a distancia <= 2, "+ t +" ms");
+    }
+}
+
+} // Secuencias
@@ -0,0 +1,360 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+/**
+ * Coordenadas de una nube de puntos para el algoritmo de divide
+ * y vencerás de {@link ClosestPoints}.
+ *
+ * El algoritmo no opera con las coordenadas: sólo ordena los puntos por
+ * unas claves 'long' y compara distancias al cuadrado con la cota de un
+ * {@link ClosestPoints.Pairs}. Las distancias se representan como un
+ * valor de 128 bits (parte alta con signo y parte baja sin signo), así
+ * que con coordenadas enteras son exactas y no se desbordan. Con
+ * coordenadas 'double' la parte alta son los bits de la distancia, que
+ * se ordenan igual que las distancias por no ser negativas.
+ */
+abstract class Space
+{
+final int n;
+
+Space(int n, int... lengths)
+{
+    for(int l : lengths)
+    {
+        if(l != n)
+        {
+            throw new IllegalArgumentException(
+                    "Distinto número de coordenadas.");
+        }
+    }
+
+    this.n = n;
+}
+
+/**
+ * Clave de ordenación de la coordenada 'x'.
+ * @param i Índice del punto.
+ * @return Clave.
+ */
+abstract long keyX(int i);
+
+/**
+ * Clave de ordenación de la coordenada 'y'.
+ * @param i Índice del punto.
+ * @return Clave.
+ */
+abstract long keyY(int i);
+
+/**
+ * Entrega un par si su distancia es menor que la cota.
+ * @param i Primer punto.
+ * @param j Segundo punto.
+ * @param p Destino de los pares.
+ */
+abstract void update(int i, int j, ClosestPoints.Pairs p);
+
+/**
+ * Indica si un punto puede estar a una distancia menor que la cota de
+ * algún punto del otro lado de una separación vertical. Los puntos de
+ * la izquierda tienen 'x' menor o igual que la de 'l', y los de la
+ * derecha mayor o igual que la de 'r'; basta comparar cada punto con
+ * el más cercano del otro lado. La diferencia con él es la mayor de
+ * las diferencias con 'l' y con 'r', lo que evita un salto que dependa
+ * del lado del punto.
+ * @param i Punto.
+ * @param l Punto de la izquierda con mayor 'x'.
+ * @param r Punto de la derecha con menor 'x'.
+ * @param p Destino de los pares.
+ * @return {@code true} si puede estar a una distancia menor.
+ */
+abstract boolean nearSplit(int i, int l, int r, ClosestPoints.Pairs p);
+
+/**
+ * Indica si la distancia entre las coordenadas 'y' de dos puntos es
+ * menor que la cota.
+ * @param i Primer punto.
+ * @param j Segundo punto.
+ * @param p Destino de los pares.
+ * @return {@code true} si es menor.
+ */
+abstract boolean nearY(int i, int j, ClosestPoints.Pairs p);
+
+/**
+ * Distancia euclídea entre dos puntos.
+ * @param i Primer punto.
+ * @param j Segundo punto.
+ * @return Distancia.
+ */
+abstract double distance(int i, int j);
+
+/**
+ * Compara dos distancias de 128 bits.
+ * @param hi1 Parte alta de la primera distancia.
+ * @param lo1 Parte baja de la primera distancia.
+ * @param hi2 Parte alta de la segunda distancia.
+ * @param lo2 Parte baja de la segunda distancia.
+ * @return Negativo, cero o positivo si la primera es menor, igual
+ *         o mayor que la segunda.
+ */
+static int compare(long hi1, long lo1, long hi2, long lo2)
+{
+    return hi1 != hi2 ? Long.compare(hi1, hi2)
+                      : Long.compareUnsigned(lo1, lo2);
+}
+
+/**
+ * Indica si una distancia de 128 bits es menor que la cota.
+ * @param hi Parte alta de la distancia.
+ * @param lo Parte baja de la distancia.
+ * @param p Destino de los pares.
+ * @return {@code true} si es menor.
+ */
+static boolean less(long hi, long lo, ClosestPoints.Pairs p)
+{
+    // Está en los bucles internos: comparamos sin signo sumando
+    // Long.MIN_VALUE en lugar de usar Long.compareUnsigned, que hace
+    // una comparación de tres resultados.
+    long h = p.limitHi;
+    return hi < h || hi == h && lo + Long.MIN_VALUE
+                                < p.limitLo + Long.MIN_VALUE;
+}
+
+// Acarreo de la suma sin signo 'sum' de 'lo' y otro valor.
+private static long carry(long sum, long lo)
+{
+    return sum + Long.MIN_VALUE < lo + Long.MIN_VALUE ? 1 : 0;
+}
+
+/**
+ * Coordenadas enteras en el plano. Los cuadrados de las diferencias
+ * caben en 64 bits sin signo, y su suma en 65.
+ */
+static class Ints extends Space
+{
+    final int[] xs, ys;
+
+    Ints(int[] xs, int[] ys)
+    {
+        super(xs.length, ys.length);
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    @Override long keyX(int i)
+    {
+        return xs[i];
+    }
+
+    @Override long keyY(int i)
+    {
+        return ys[i];
+    }
+
+    @Override void update(int i, int j, ClosestPoints.Pairs p)
+    {
+        long x  = (long)xs[i] - xs[j],
+             y  = (long)ys[i] - ys[j],
+             x2 = x * x,
+             lo = x2 + y * y,
+             hi = carry(lo, x2);
+
+        if(less(hi, lo, p))
+            p.add(i, j, hi, lo);
+    }
+
+    @Override double distance(int i, int j)
+    {
+        return Math.hypot((double)xs[i] - xs[j], (double)ys[i] - ys[j]);
+    }
+
+    @Override boolean nearSplit(int i, int l, int r, ClosestPoints.Pairs p)
+    {
+        long x = xs[i], d = Math.max(xs[r] - x, x - xs[l]);
+        return less(0, d * d, p);
+    }
+
+    @Override boolean nearY(int i, int j, ClosestPoints.Pairs p)
+    {
+        long y = (long)ys[i] - ys[j];
+        return less(0, y * y, p);
+    }
+} // Ints
+
+/**
+ * Coordenadas enteras de 64 bits en el plano o en el espacio. Los
+ * cuadrados se calculan con 128 bits y la parte alta tiene signo, así
+ * que la suma de los cuadrados debe ser menor que 2^127. En el plano
+ * las coordenadas deben ser menores que 2^62 en valor absoluto: las
+ * diferencias caben en un 'long' y la suma de dos cuadrados es menor
+ * que 2^127. En el espacio deben ser menores que 2^61, porque la suma
+ * de tres cuadrados de diferencias de hasta 2^63 no cabría.
+ */
+static class Longs extends Space
+{
+    private static final long LIMIT2 = 1L << 62,
+                              LIMIT3 = 1L << 61;
+    final long[] xs, ys, zs;
+
+    Longs(long[] xs, long[] ys, long[] zs)
+    {
+        super(xs.length, ys.length, zs == null ? xs.length : zs.length);
+        long limit = zs == null ? LIMIT2 : LIMIT3;
+        this.xs = check(xs, limit);
+        this.ys = check(ys, limit);
+        this.zs = zs == null ? null : check(zs, limit);
+    }
+
+    private static long[] check(long[] c, long limit)
+    {
+        for(long v : c)
+        {
+            if(v <= -limit || v >= limit)
+                throw new IllegalArgumentException("Coordenada: "+ v);
+        }
+
+        return c;
+    }
+
+    @Override long keyX(int i)
+    {
+        return xs[i];
+    }
+
+    @Override long keyY(int i)
+    {
+        return ys[i];
+    }
+
+    @Override void update(int i, int j, ClosestPoints.Pairs p)
+    {
+        long x  = xs[i] - xs[j],
+             y  = ys[i] - ys[j],
+             hi = Math.multiplyHigh(x, x),
+             lo = x * x,
+             s  = lo + y * y;
+
+        hi += Math.multiplyHigh(y, y) + carry(s, lo);
+        lo  = s;
+
+        if(zs != null)
+        {
+            long z = zs[i] - zs[j];
+            s   = lo + z * z;
+            hi += Math.multiplyHigh(z, z) + carry(s, lo);
+            lo  = s;
+        }
+
+        if(less(hi, lo, p))
+            p.add(i, j, hi, lo);
+    }
+
+    @Override double distance(int i, int j)
+    {
+        double x = xs[i] - xs[j],
+               y = ys[i] - ys[j],
+               z = zs == null ? 0 : zs[i] - zs[j];
+
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    @Override boolean nearSplit(int i, int l, int r, ClosestPoints.Pairs p)
+    {
+        long x = xs[i], d = Math.max(xs[r] - x, x - xs[l]);
+        return less(Math.multiplyHigh(d, d), d * d, p);
+    }
+
+    @Override boolean nearY(int i, int j, ClosestPoints.Pairs p)
+    {
+        long y = ys[i] - ys[j];
+        return less(Math.multiplyHigh(y, y), y * y, p);
+    }
+} // Longs
+
+/**
+ * Coordenadas reales en el plano o en el espacio. Deben ser finitas.
+ */
+static class Doubles extends Space
+{
+    final double[] xs, ys, zs;
+
+    Doubles(double[] xs, double[] ys, double[] zs)
+    {
+        super(xs.length, ys.length, zs == null ? xs.length : zs.length);
+        this.xs = check(xs);
+        this.ys = check(ys);
+        this.zs = zs == null ? null : check(zs);
+    }
+
+    private static double[] check(double[] c)
+    {
+        for(double v : c)
+        {
+            if(!Double.isFinite(v))
+                throw new IllegalArgumentException("Coordenada: "+ v);
+        }
+
+        return c;
+    }
+
+    // Clave 'long' con el mismo orden que los 'double'. Sumando 0.0 el
+    // cero negativo pasa a ser positivo.
+    private static long key(double v)
+    {
+        long bits = Double.doubleToLongBits(v + 0.0);
+        return bits ^ (bits >> 63 & Long.MAX_VALUE);
+    }
+
+    @Override long keyX(int i)
+    {
+        return key(xs[i]);
+    }
+
+    @Override long keyY(int i)
+    {
+        return key(ys[i]);
+    }
+
+    @Override void update(int i, int j, ClosestPoints.Pairs p)
+    {
+        double x  = xs[i] - xs[j],
+               y  = ys[i] - ys[j],
+               d2 = x * x + y * y;
+
+        if(zs != null)
+        {
+            double z = zs[i] - zs[j];
+            d2 += z * z;
+        }
+
+        long hi = Double.doubleToLongBits(d2);
+
+        if(less(hi, 0, p))
+            p.add(i, j, hi, 0);
+    }
+
+    @Override double distance(int i, int j)
+    {
+        double x = xs[i] - xs[j],
+               y = ys[i] - ys[j],
+               z = zs == null ? 0 : zs[i] - zs[j];
+
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    @Override boolean nearSplit(int i, int l, int r, ClosestPoints.Pairs p)
+    {
+        double x = xs[i], d = Math.max(xs[r] - x, x - xs[l]);
+        return less(Double.doubleToLongBits(d * d), 0, p);
+    }
+
+    @Override boolean nearY(int i, int j, ClosestPoints.Pairs p)
+    {
+        double y = ys[i] - ys[j];
+        return less(Double.doubleToLongBits(y * y), 0, p);
+    }
+} // Doubles
+
+} // Space
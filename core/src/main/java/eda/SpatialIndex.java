@@ -0,0 +1,131 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * Índice espacial de una nube de puntos con coordenadas enteras.
+ *
+ * El índice se construye una vez y después responde a muchas consultas
+ * de vecinos más cercanos, de puntos dentro de un círculo y de puntos
+ * dentro de un rectángulo sin recorrer todos los puntos. Los puntos se
+ * identifican por su posición en los arrays de coordenadas con los que
+ * se construyó el índice.
+ *
+ * Las consultas se pueden hacer desde varios hilos a la vez.
+ */
+public interface SpatialIndex
+{
+/**
+ * Número de puntos.
+ * @return Número de puntos.
+ */
+int size();
+
+/**
+ * Coordenada 'x' de un punto.
+ * @param i Índice del punto.
+ * @return Coordenada 'x'.
+ */
+int getX(int i);
+
+/**
+ * Coordenada 'y' de un punto.
+ * @param i Índice del punto.
+ * @return Coordenada 'y'.
+ */
+int getY(int i);
+
+/**
+ * Busca los k puntos más cercanos a una posición.
+ * @param x Coordenada 'x' de la posición.
+ * @param y Coordenada 'y' de la posición.
+ * @param k Número de puntos.
+ * @return Índices de los puntos, del más cercano al más lejano.
+ */
+int[] nearest(int x, int y, int k);
+
+/**
+ * Busca el punto más cercano a una posición.
+ * @param x Coordenada 'x' de la posición.
+ * @param y Coordenada 'y' de la posición.
+ * @return Índice del punto, o -1 si el índice está vacío.
+ */
+default int nearest(int x, int y)
+{
+    int[] r = nearest(x, y, 1);
+    return r.length > 0 ? r[0] : -1;
+}
+
+/**
+ * Busca el vecino más cercano de un punto del índice.
+ * @param i Índice del punto.
+ * @return Índice del vecino, o -1 si no hay más puntos.
+ */
+int neighbour(int i);
+
+/**
+ * Busca el vecino más cercano de cada punto del índice.
+ * @return Para cada índice, el índice de su vecino más cercano.
+ */
+default int[] neighbours()
+{
+    int[] nn = new int[size()];
+
+    for(int i = 0; i < nn.length; i++)
+        nn[i] = neighbour(i);
+
+    return nn;
+}
+
+/**
+ * Busca los puntos que están a una distancia menor o igual que la
+ * indicada de una posición.
+ * @param x Coordenada 'x' de la posición.
+ * @param y Coordenada 'y' de la posición.
+ * @param distance Distancia máxima.
+ * @return Índices de los puntos, en cualquier orden.
+ */
+int[] radius(int x, int y, double distance);
+
+/**
+ * Busca los puntos que están dentro de un rectángulo, incluido el
+ * borde.
+ * @param minX Coordenada 'x' mínima.
+ * @param minY Coordenada 'y' mínima.
+ * @param maxX Coordenada 'x' máxima.
+ * @param maxY Coordenada 'y' máxima.
+ * @return Índices de los puntos, en cualquier orden.
+ */
+int[] box(int minX, int minY, int maxX, int maxY);
+
+/**
+ * Escribe el índice en un fichero binario.
+ * @param file Fichero destino.
+ * @throws IOException Si falla la escritura.
+ */
+void write(Path file) throws IOException;
+
+/**
+ * Lee un índice escrito con {@link #write}.
+ * @param file Fichero.
+ * @return Índice.
+ * @throws IOException Si falla la lectura o el formato no es correcto.
+ */
+static SpatialIndex read(Path file) throws IOException
+{
+    IndexFile f = IndexFile.read(file);
+
+    switch(f.magic)
+    {
+        case KdTree.MAGIC:      return new KdTree(f);
+        case UniformGrid.MAGIC: return new UniformGrid(f);
+        default: throw new IOException("No es un índice espacial: "+ file);
+    }
+}
+
+} // SpatialIndex
@@ -0,0 +1,372 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Tabla de enteros de dos dimensiones para programación dinámica.
+ *
+ * Puede estar en memoria o en un fichero proyectado en memoria, de modo
+ * que el mismo algoritmo funciona con tablas mayores que la memoria
+ * física. El fichero se proyecta por bloques de filas consecutivas con
+ * {@code FileChannel.map}: al rellenar la tabla fila a fila, el sistema
+ * operativo escribe en disco los bloques ya calculados y los libera
+ * cuando necesita memoria, y al reconstruir la solución los vuelve a
+ * leer sin recalcular nada.
+ *
+ * Cada casilla ocupa 4 bytes ({@code int}) u 8 bytes ({@code long}).
+ */
+public abstract class Tabla implements Closeable
+{
+private static final int MAGIA   = 0x54414445; // "EDAT"
+private static final int VERSION = 1;
+private static final int CABECERA = 64;
+
+// Tamaño máximo de un bloque proyectado.
+private static final int TRAMO = 1 << 30;
+
+private final int filas, columnas;
+
+private Tabla(int filas, int columnas)
+{
+    if(filas < 0 || columnas < 0)
+        throw new IllegalArgumentException("Tamaño: "+ filas +"x"+ columnas);
+
+    this.filas = filas;
+    this.columnas = columnas;
+}
+
+/**
+ * Número de filas.
+ * @return Número de filas.
+ */
+public int filas()
+{
+    return filas;
+}
+
+/**
+ * Número de columnas.
+ * @return Número de columnas.
+ */
+public int columnas()
+{
+    return columnas;
+}
+
+/**
+ * Obtiene el valor de una casilla.
+ * @param i Fila.
+ * @param j Columna.
+ * @return Valor.
+ */
+public abstract long get(int i, int j);
+
+/**
+ * Cambia el valor de una casilla.
+ * @param i Fila.
+ * @param j Columna.
+ * @param valor Valor.
+ * @throws ArithmeticException Si la tabla es de {@code int} y el valor
+ *         no cabe en un {@code int}.
+ */
+public abstract void set(int i, int j, long valor);
+
+/**
+ * Termina de usar la tabla. Las tablas en fichero escriben en disco los
+ * cambios pendientes.
+ * @throws IOException Si hay un error de entrada/salida.
+ */
+@Override public void close() throws IOException
+{
+}
+
+/**
+ * Tabla en memoria sobre un array de enteros, que no se copia.
+ * @param datos Array con una fila por cada elemento, todas de la misma
+ *              longitud.
+ * @return Tabla.
+ */
+public static Tabla de(int[][] datos)
+{
+    return de(datos, datos.length == 0 ? 0 : datos[0].length);
+}
+
+/**
+ * Tabla en memoria sobre un array de enteros, que no se copia.
+ * @param datos Array con una fila por cada elemento.
+ * @param columnas Número de columnas, que hace falta aunque no haya filas.
+ * @return Tabla.
+ */
+public static Tabla de(int[][] datos, int columnas)
+{
+    for(int[] f : datos)
+    {
+        if(f.length != columnas)
+            throw new IllegalArgumentException("Filas de distinta longitud.");
+    }
+
+    return new Tabla(datos.length, columnas)
+    {
+        @Override public long get(int i, int j)
+        {
+            return datos[i][j];
+        }
+
+        @Override public void set(int i, int j, long valor)
+        {
+            datos[i][j] = Math.toIntExact(valor);
+        }
+    };
+}
+
+/**
+ * Tabla en memoria.
+ * @param filas Número de filas.
+ * @param columnas Número de columnas.
+ * @param largo Si las casillas son {@code long} en lugar de {@code int}.
+ * @return Tabla con todas las casillas a cero.
+ */
+public static Tabla memoria(int filas, int columnas, boolean largo)
+{
+    if(!largo)
+        return de(new int[filas][columnas], columnas); //...........RETURN
+
+    long[][] datos = new long[filas][columnas];
+
+    return new Tabla(filas, columnas)
+    {
+        @Override public long get(int i, int j)
+        {
+            return datos[i][j];
+        }
+
+        @Override public void set(int i, int j, long valor)
+        {
+            datos[i][j] = valor;
+        }
+    };
+}
+
+/**
+ * Crea una tabla en un fichero, que se sustituye si ya existe. Hay
+ * que cerrar la tabla para asegurar que los datos están en el disco.
+ * @param fichero Fichero.
+ * @param filas Número de filas.
+ * @param columnas Número de columnas.
+ * @param largo Si las casillas son {@code long} en lugar de {@code int}.
+ * @return Tabla con todas las casillas a cero.
+ * @throws IOException Si hay un error de entrada/salida.
+ */
+public static Tabla crear(Path fichero, int filas, int columnas,
+                          boolean largo) throws IOException
+{
+    int ancho = largo ? 8 : 4;
+    ByteBuffer c = ByteBuffer.allocate(CABECERA)
+                             .order(ByteOrder.LITTLE_ENDIAN);
+
+    c.putInt(MAGIA).putInt(VERSION).putInt(filas)
+     .putInt(columnas).putInt(ancho).rewind();
+
+    FileChannel fc = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                                      StandardOpenOption.READ,
+                                      StandardOpenOption.WRITE,
+                                      StandardOpenOption.TRUNCATE_EXISTING);
+    try
+    {
+        while(c.hasRemaining())
+            fc.write(c);
+
+        return new Proyectada(fc, filas, columnas, ancho, true);
+    }
+    catch(IOException | RuntimeException ex)
+    {
+        fc.close();
+        throw ex;
+    }
+}
+
+/**
+ * Abre una tabla guardada en un fichero con {@link #crear crear}.
+ * @param fichero Fichero.
+ * @param escritura Si se puede modificar la tabla.
+ * @return Tabla.
+ * @throws IOException Si hay un error de entrada/salida o el fichero
+ *         no es una tabla.
+ */
+public static Tabla abrir(Path fichero, boolean escritura)
+        throws IOException
+{
+    FileChannel fc = escritura
+            ? FileChannel.open(fichero, StandardOpenOption.READ,
+                               StandardOpenOption.WRITE)
+            : FileChannel.open(fichero, StandardOpenOption.READ);
+    try
+    {
+        if(fc.size() < CABECERA)
+            throw new IOException("Fichero demasiado corto: "+ fichero);
+
+        ByteBuffer c = fc.map(FileChannel.MapMode.READ_ONLY, 0, CABECERA)
+                         .order(ByteOrder.LITTLE_ENDIAN);
+
+        if(c.getInt(0) != MAGIA)
+            throw new IOException("No es una tabla: "+ fichero);
+
+        if(c.getInt(4) != VERSION)
+            throw new IOException("Versión no soportada: "+ c.getInt(4));
+
+        int filas = c.getInt(8), columnas = c.getInt(12), ancho = c.getInt(16);
+
+        if(filas < 0 || columnas < 0 || ancho != 4 && ancho != 8 ||
+           fc.size() != CABECERA + (long)filas * columnas * ancho)
+        {
+            throw new IOException("Tamaño de fichero incorrecto: "+ fichero);
+        }
+
+        return new Proyectada(fc, filas, columnas, ancho, escritura);
+    }
+    catch(IOException | RuntimeException ex)
+    {
+        fc.close();
+        throw ex;
+    }
+}
+
+/*
+ * Tabla en un fichero proyectado en memoria por bloques de filas. Los
+ * bloques se proyectan la primera vez que se usan.
+ */
+private static class Proyectada extends Tabla
+{
+    private final FileChannel fc;
+    private final int ancho, filasTramo;
+    private final boolean escritura;
+    private final MappedByteBuffer[] tramos;
+
+    private Proyectada(FileChannel fc, int filas, int columnas, int ancho,
+                       boolean escritura) throws IOException
+    {
+        super(filas, columnas);
+        long bytesFila = (long)columnas * ancho;
+
+        if(bytesFila > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Fila demasiado larga.");
+
+        this.fc = fc;
+        this.ancho = ancho;
+        this.escritura = escritura;
+        filasTramo = (int)Math.max(1, TRAMO / Math.max(1, bytesFila));
+        tramos = new MappedByteBuffer[(filas + filasTramo - 1) / filasTramo];
+
+        // Al proyectar en escritura el fichero crece hasta su tamaño.
+        if(escritura && tramos.length > 0)
+            tramo(tramos.length - 1);
+    }
+
+    private MappedByteBuffer tramo(int k)
+    {
+        MappedByteBuffer t = tramos[k];
+
+        if(t == null)
+        {
+            int desde = k * filasTramo,
+                hasta = Math.min(filas(), desde + filasTramo);
+
+            long bytesFila = (long)columnas() * ancho;
+
+            try
+            {
+                t = fc.map(escritura ? FileChannel.MapMode.READ_WRITE
+                                     : FileChannel.MapMode.READ_ONLY,
+                           CABECERA + desde * bytesFila,
+                           (hasta - desde) * bytesFila);
+            }
+            catch(IOException ex)
+            {
+                throw new UncheckedIOException(ex);
+            }
+
+            t.order(ByteOrder.LITTLE_ENDIAN);
+            tramos[k] = t;
+        }
+
+        return t;
+    }
+
+    // Posición de una casilla en su bloque.
+    private int posicion(int i, int j)
+    {
+        if(j < 0 || j >= columnas())
+            throw new IndexOutOfBoundsException("Columna: "+ j);
+
+        return ((i % filasTramo) * columnas() + j) * ancho;
+    }
+
+    @Override public long get(int i, int j)
+    {
+        MappedByteBuffer t = tramo(i / filasTramo);
+        int p = posicion(i, j);
+        return ancho == 4 ? t.getInt(p) : t.getLong(p);
+    }
+
+    @Override public void set(int i, int j, long valor)
+    {
+        MappedByteBuffer t = tramo(i / filasTramo);
+        int p = posicion(i, j);
+
+        if(ancho == 4)
+            t.putInt(p, Math.toIntExact(valor));
+        else
+            t.putLong(p, valor);
+    }
+
+    @Override public void close() throws IOException
+    {
+        try
+        {
+            for(int k = 0; k < tramos.length; k++)
+            {
+                if(escritura && tramos[k] != null)
+                    tramos[k].force();
+
+                // La proyección se libera cuando se recoge el buffer.
+                tramos[k] = null;
+            }
+        }
+        finally
+        {
+            fc.close();
+        }
+    }
+} // Proyectada
+
+public static void main(String[] args) throws IOException
+{
+    Path fichero = Files.createTempFile("tabla", ".bin");
+
+    try(Tabla t = crear(fichero, 1000, 100000, false))
+    {
+        for(int i = 0; i < t.filas(); i++)
+        {
+            for(int j = 0; j < t.columnas(); j++)
+                t.set(i, j, i + j);
+        }
+    }
+
+    try(Tabla t = abrir(fichero, false))
+    {
+        System.out.println(t.filas() +"x"+ t.columnas() +", "+
+                           Files.size(fichero) +" bytes, t[999][99999] = "+
+                           t.get(999, 99999));
+    }
+
+    Files.delete(fichero);
+}
+
+} // Tabla
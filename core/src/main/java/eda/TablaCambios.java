@@ -0,0 +1,408 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Tabla con el cambio óptimo de todas las cantidades hasta un máximo
+ * en un sistema monetario de {@link CambioMonedas}.
+ *
+ * Para cada cantidad se guarda el menor número de monedas y la última
+ * moneda usada, en un array de enteros y otro de bytes.
+ *
+ * Si c y c' son las dos monedas mayores, toda cantidad mayor que el
+ * umbral (c-1)·c' tiene un cambio óptimo que usa la moneda c: un cambio
+ * con c o más monedas menores tiene un subconjunto de ellas cuya suma
+ * es múltiplo de c, que se puede cambiar por menos monedas c. Por eso
+ * una cantidad j mayor que el umbral tiene el cambio de j-q·c más q
+ * monedas c, siendo j-q·c del último tramo de longitud c antes del
+ * umbral.
+ *
+ * Al construir la tabla, con un sistema canónico cada cantidad se
+ * calcula de forma voraz e independiente de las demás; con uno no
+ * canónico se usa programación dinámica hasta el umbral y por encima
+ * la relación anterior. En ambos casos la parte que no depende de
+ * cantidades anteriores se calcula en paralelo si se pide.
+ *
+ * El número de monedas de una cantidad se consulta en O(1). Su cambio
+ * se obtiene saltando de golpe las monedas c que sobrepasan el umbral,
+ * y después siguiendo las últimas monedas, una por moneda del cambio.
+ *
+ * Formato del fichero (little-endian):
+ *
+ *   Cabecera: magia, versión, número de monedas 'k' y máximo 'W'
+ *             (enteros de 32 bits).
+ *   Monedas:  int[k] ordenadas de menor a mayor.
+ *   Números de monedas: int[W+1].
+ *   Últimas monedas:    byte[W+1] (índices en el array de monedas).
+ */
+public class TablaCambios
+{
+private static final int MAGIA   = 0x4D414445; // "EDAM"
+private static final int VERSION = 1;
+
+// Tamaño máximo de los tramos del fichero que se proyectan en memoria.
+private static final int TRAMO = 1 << 30;
+
+// Número de monedas de las cantidades que no se pueden formar.
+private static final int IMPOSIBLE = Integer.MAX_VALUE;
+
+private final int[] monedas, numeros;
+private final byte[] ultimas;
+private final long umbral;
+
+private TablaCambios(int[] monedas, int[] numeros, byte[] ultimas)
+{
+    this.monedas = monedas;
+    this.numeros = numeros;
+    this.ultimas = ultimas;
+    umbral = umbral(monedas);
+}
+
+// Por encima del umbral algún cambio óptimo usa la moneda mayor.
+private static long umbral(int[] monedas)
+{
+    int k = monedas.length;
+    return (monedas[k-1] - 1L) * (k > 1 ? monedas[k-2] : 1);
+}
+
+/**
+ * Construye la tabla de un sistema monetario.
+ * @param sistema Sistema monetario.
+ * @param maximo Mayor cantidad de la tabla.
+ * @param paralelo Si se calcula en paralelo.
+ */
+TablaCambios(CambioMonedas sistema, int maximo, boolean paralelo)
+{
+    if(maximo < 0 || maximo > Integer.MAX_VALUE - 8)
+        throw new IllegalArgumentException("Máximo no válido: "+ maximo);
+
+    monedas = sistema.getMonedas();
+
+    // Las últimas monedas se guardan en un byte.
+    if(monedas.length > 256)
+    {
+        throw new IllegalArgumentException(
+                "Demasiadas monedas: "+ monedas.length);
+    }
+
+    numeros = new int[maximo + 1];
+    ultimas = new byte[maximo + 1];
+    umbral  = umbral(monedas);
+
+    int k = monedas.length, c = monedas[k-1];
+
+    if(sistema.canonico())
+    {
+        rango(1, maximo, paralelo).forEach(this::voraz);
+        return; //..................................................RETURN
+    }
+
+    // Por debajo del umbral, programación dinámica con una sola fila.
+    int limite = (int)Math.min(maximo, umbral);
+
+    for(int j = 1; j <= limite; j++)
+    {
+        int mejor = IMPOSIBLE;
+
+        for(int i = 0; i < k && monedas[i] <= j; i++)
+        {
+            int n = numeros[j - monedas[i]];
+
+            if(n != IMPOSIBLE && n + 1 < mejor)
+            {
+                mejor = n + 1;
+                ultimas[j] = (byte)i;
+            }
+        }
+
+        numeros[j] = mejor;
+    }
+
+    // Por encima, el cambio de j - q·c más q monedas c.
+    rango(limite + 1, maximo, paralelo).forEach(j ->
+    {
+        int q = saltos(j),
+            n = numeros[j - q * c];
+
+        numeros[j] = n == IMPOSIBLE ? IMPOSIBLE : n + q;
+        ultimas[j] = (byte)(k - 1);
+    });
+}
+
+// Número de monedas mayores que llevan una cantidad por debajo del
+// umbral.
+private int saltos(int j)
+{
+    int c = monedas[monedas.length - 1];
+    return j > umbral ? (int)((j - umbral - 1) / c + 1) : 0;
+}
+
+private static IntStream rango(int desde, int hasta, boolean paralelo)
+{
+    IntStream s = IntStream.rangeClosed(desde, hasta);
+    return paralelo ? s.parallel() : s;
+}
+
+private void voraz(int j)
+{
+    int n = 0, i = monedas.length - 1;
+
+    while(monedas[i] > j)
+        i--;
+
+    ultimas[j] = (byte)i;
+
+    for(int v = j; i >= 0; i--)
+    {
+        n += v / monedas[i];
+        v %= monedas[i];
+    }
+
+    numeros[j] = n;
+}
+
+/**
+ * Mayor cantidad de la tabla.
+ * @return Cantidad.
+ */
+public int maximo()
+{
+    return numeros.length - 1;
+}
+
+/**
+ * Valores de las monedas, ordenados de menor a mayor.
+ * @return Copia del array de monedas.
+ */
+public int[] getMonedas()
+{
+    return monedas.clone();
+}
+
+private void comprobar(int valor)
+{
+    if(valor < 0 || valor >= numeros.length)
+    {
+        throw new IllegalArgumentException(
+                "Cantidad fuera de la tabla: "+ valor);
+    }
+
+    if(numeros[valor] == IMPOSIBLE)
+        throw new IllegalArgumentException("No hay solución");
+}
+
+/**
+ * Menor número de monedas con el que se forma una cantidad.
+ * @param valor Cantidad.
+ * @return Número de monedas.
+ * @throws IllegalArgumentException Si la cantidad es mayor que el
+ *         máximo de la tabla o no se puede formar.
+ */
+public int numeroMonedas(int valor)
+{
+    comprobar(valor);
+    return numeros[valor];
+}
+
+/**
+ * Calcula el cambio de una cantidad con el menor número de monedas.
+ * @param valor Cantidad.
+ * @return Número de monedas de cada valor, en el orden de
+ *         {@link #getMonedas()}.
+ * @throws IllegalArgumentException Si la cantidad es mayor que el
+ *         máximo de la tabla o no se puede formar.
+ */
+public int[] cambio(int valor)
+{
+    comprobar(valor);
+    int k = monedas.length, q = saltos(valor);
+    int[] x = new int[k];
+    x[k-1] = q;
+
+    for(int j = valor - q * monedas[k-1]; j > 0; )
+    {
+        int i = ultimas[j] & 0xff;
+        x[i]++;
+        j -= monedas[i];
+    }
+
+    return x;
+}
+
+/**
+ * Escribe la tabla en un fichero binario.
+ * @param fichero Fichero destino.
+ * @throws IOException Si falla la escritura.
+ */
+public void escribir(Path fichero) throws IOException
+{
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+
+    try(FileChannel fc = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                                          StandardOpenOption.WRITE,
+                                          StandardOpenOption.TRUNCATE_EXISTING))
+    {
+        buffer.putInt(MAGIA).putInt(VERSION)
+              .putInt(monedas.length).putInt(maximo());
+
+        escribir(fc, buffer, monedas);
+        escribir(fc, buffer, numeros);
+
+        for(int i = 0; i < ultimas.length; )
+        {
+            if(!buffer.hasRemaining())
+                vaciar(fc, buffer);
+
+            int n = Math.min(buffer.remaining(), ultimas.length - i);
+            buffer.put(ultimas, i, n);
+            i += n;
+        }
+
+        vaciar(fc, buffer);
+    }
+}
+
+private static void escribir(FileChannel fc, ByteBuffer buffer, int[] a)
+        throws IOException
+{
+    for(int i = 0; i < a.length; )
+    {
+        if(buffer.remaining() < 4)
+            vaciar(fc, buffer);
+
+        // Copiamos de golpe todo lo que cabe en el buffer.
+        IntBuffer ib = buffer.asIntBuffer();
+        int n = Math.min(ib.remaining(), a.length - i);
+        ib.put(a, i, n);
+        buffer.position(buffer.position() + 4 * n);
+        i += n;
+    }
+}
+
+private static void vaciar(FileChannel fc, ByteBuffer buffer)
+        throws IOException
+{
+    buffer.flip();
+
+    while(buffer.hasRemaining())
+        fc.write(buffer);
+
+    buffer.clear();
+}
+
+/**
+ * Lee una tabla escrita con {@link #escribir(Path)}. El fichero se
+ * proyecta en memoria por tramos y se copia en los arrays de la tabla.
+ * @param fichero Fichero.
+ * @return Tabla.
+ * @throws IOException Si falla la lectura o el formato no es válido.
+ */
+public static TablaCambios leer(Path fichero) throws IOException
+{
+    try(FileChannel fc = FileChannel.open(fichero, StandardOpenOption.READ))
+    {
+        long size = fc.size();
+
+        if(size < 16)
+            throw new IOException("Fichero demasiado corto: "+ fichero);
+
+        ByteBuffer c = proyectar(fc, 0, 16);
+
+        if(c.getInt(0) != MAGIA)
+            throw new IOException("No es una tabla de cambios: "+ fichero);
+
+        if(c.getInt(4) != VERSION)
+            throw new IOException("Versión no soportada: "+ c.getInt(4));
+
+        int k = c.getInt(8), maximo = c.getInt(12);
+
+        if(k < 1 || maximo < 0 || maximo > Integer.MAX_VALUE - 8 ||
+           size != 16 + 4L * k + 5L * (maximo + 1L))
+        {
+            throw new IOException("Tamaño de fichero incorrecto: "+ fichero);
+        }
+
+        int[] monedas = new int[k], numeros = new int[maximo + 1];
+        byte[] ultimas = new byte[maximo + 1];
+        long p = 16;
+
+        proyectar(fc, p, 4L * k).asIntBuffer().get(monedas);
+        p += 4L * k;
+
+        for(int i = 0; i < numeros.length; )
+        {
+            int n = Math.min(TRAMO / 4, numeros.length - i);
+            proyectar(fc, p, 4L * n).asIntBuffer().get(numeros, i, n);
+            p += 4L * n;
+            i += n;
+        }
+
+        for(int i = 0; i < ultimas.length; )
+        {
+            int n = Math.min(TRAMO, ultimas.length - i);
+            proyectar(fc, p, n).get(ultimas, i, n);
+            p += n;
+            i += n;
+        }
+
+        for(int i = 0; i < k; i++)
+        {
+            if(monedas[i] <= 0 || i > 0 && monedas[i] <= monedas[i-1])
+                throw new IOException("Monedas no válidas: "+ fichero);
+        }
+
+        return new TablaCambios(monedas, numeros, ultimas);
+    }
+}
+
+private static ByteBuffer proyectar(FileChannel fc, long posicion, long bytes)
+        throws IOException
+{
+    return fc.map(FileChannel.MapMode.READ_ONLY, posicion, bytes)
+             .order(ByteOrder.LITTLE_ENDIAN);
+}
+
+public static void main(String[] args) throws IOException
+{
+    int maximo = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+
+    for(int[] s : new int[][] { { 1, 2, 5, 10, 20, 50, 100, 200 },
+                                { 1, 7, 10, 11 } })
+    {
+        CambioMonedas sistema = CambioMonedas.crear(s);
+        long t = System.nanoTime();
+        TablaCambios tabla = sistema.tabla(maximo, true);
+
+        System.out.printf("\nMonedas: %s, tabla hasta %d en %d ms\n",
+                          Arrays.toString(s), maximo,
+                          (System.nanoTime() - t) / 1000000);
+
+        Path fichero = Files.createTempFile("cambios", ".bin");
+        tabla.escribir(fichero);
+        tabla = leer(fichero);
+        Files.delete(fichero);
+
+        Random r = new Random(1);
+        t = System.nanoTime();
+
+        for(int i = 0; i < 1000000; i++)
+            tabla.cambio(r.nextInt(maximo + 1));
+
+        System.out.printf("1000000 consultas en %d ms\n",
+                          (System.nanoTime() - t) / 1000000);
+
+        System.out.println("14: "+ Arrays.toString(tabla.cambio(14)));
+    }
+}
+
+} // TablaCambios
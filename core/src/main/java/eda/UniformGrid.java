@@ -0,0 +1,361 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Rejilla uniforme de puntos del plano.
+ *
+ * El rectángulo que contiene los puntos se divide en celdas cuadradas
+ * del mismo tamaño, con unos dos puntos por celda de media. Los puntos
+ * se guardan ordenados por celda (representación CSR), de modo que los
+ * de una celda están juntos en memoria. Se construye con una ordenación
+ * de claves 'long' que combinan la celda y el índice del punto.
+ *
+ * Con puntos repartidos de forma uniforme, cada búsqueda del vecino más
+ * cercano visita un número constante de celdas; si los puntos están muy
+ * agrupados es mejor usar un {@link KdTree}.
+ */
+public class UniformGrid implements SpatialIndex
+{
+static final int MAGIC = 0x55414445; // "EDAU"
+
+private final int minX, minY, side, cols, rows;
+private final int[] start,    // Primera posición de cada celda.
+                    index,    // Índice original del punto de cada posición.
+                    position, // Posición de cada índice original.
+                    xs, ys;   // Coordenadas en el orden de las celdas.
+
+/**
+ * Construye la rejilla.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ */
+public UniformGrid(int[] xs, int[] ys)
+{
+    this(xs, ys, false);
+}
+
+/**
+ * Construye la rejilla.
+ * @param xs Coordenadas 'x' de los puntos.
+ * @param ys Coordenadas 'y' de los puntos.
+ * @param parallel Si se ordena en paralelo.
+ */
+public UniformGrid(int[] xs, int[] ys, boolean parallel)
+{
+    if(xs.length != ys.length)
+        throw new IllegalArgumentException("Distinto número de coordenadas.");
+
+    int n = xs.length;
+    int x0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE,
+        y0 = Integer.MAX_VALUE, y1 = Integer.MIN_VALUE;
+
+    for(int i = 0; i < n; i++)
+    {
+        x0 = Math.min(x0, xs[i]);
+        x1 = Math.max(x1, xs[i]);
+        y0 = Math.min(y0, ys[i]);
+        y1 = Math.max(y1, ys[i]);
+    }
+
+    if(n == 0)
+        x0 = x1 = y0 = y1 = 0;
+
+    // Lado de las celdas para que haya unos dos puntos por celda.
+    long width  = (long)x1 - x0 + 1,
+         height = (long)y1 - y0 + 1,
+         cells  = Math.max(16, n / 2),
+         s = Math.max(1, (long)Math.ceil(
+                 Math.sqrt((double)width * height / cells)));
+
+    while((width + s - 1) / s * ((height + s - 1) / s) > cells)
+        s = Math.min(2 * s, Integer.MAX_VALUE);
+
+    minX = x0;
+    minY = y0;
+    side = (int)s;
+    cols = (int)((width + s - 1) / s);
+    rows = (int)((height + s - 1) / s);
+
+    long[] keys = new long[n];
+
+    if(parallel)
+    {
+        Arrays.parallelSetAll(keys, i -> (long)cell(xs[i], ys[i]) << 32 | i);
+        Arrays.parallelSort(keys);
+    }
+    else
+    {
+        for(int i = 0; i < n; i++)
+            keys[i] = (long)cell(xs[i], ys[i]) << 32 | i;
+
+        Arrays.sort(keys);
+    }
+
+    start    = new int[cols * rows + 1];
+    index    = new int[n];
+    position = new int[n];
+    this.xs  = new int[n];
+    this.ys  = new int[n];
+
+    for(int k = 0; k < n; k++)
+    {
+        int i = (int)keys[k];
+        index[k] = i;
+        position[i] = k;
+        this.xs[k] = xs[i];
+        this.ys[k] = ys[i];
+        start[(int)(keys[k] >>> 32) + 1]++;
+    }
+
+    for(int c = 0; c < cols * rows; c++)
+        start[c+1] += start[c];
+}
+
+UniformGrid(IndexFile f) throws IOException
+{
+    if(f.header.length != 5 || f.arrays.length != 4)
+        throw new IOException("Rejilla no válida.");
+
+    minX  = f.header[0];
+    minY  = f.header[1];
+    side  = f.header[2];
+    cols  = f.header[3];
+    rows  = f.header[4];
+    start = f.arrays[0];
+    index = f.arrays[1];
+    xs    = f.arrays[2];
+    ys    = f.arrays[3];
+
+    int n = index.length;
+    position = new int[n];
+
+    if(start.length != (long)cols * rows + 1 || start[cols * rows] != n ||
+       xs.length != n || ys.length != n)
+    {
+        throw new IOException("Rejilla no válida.");
+    }
+
+    for(int k = 0; k < n; k++)
+        position[index[k]] = k;
+}
+
+private int cell(int x, int y)
+{
+    return row(y) * cols + col(x);
+}
+
+// Columna de una coordenada 'x', limitada a la rejilla.
+private int col(long x)
+{
+    return (int)Math.max(0, Math.min(cols - 1, (x - minX) / side));
+}
+
+// Fila de una coordenada 'y', limitada a la rejilla.
+private int row(long y)
+{
+    return (int)Math.max(0, Math.min(rows - 1, (y - minY) / side));
+}
+
+@Override public int size()
+{
+    return index.length;
+}
+
+@Override public int getX(int i)
+{
+    return xs[position[i]];
+}
+
+@Override public int getY(int i)
+{
+    return ys[position[i]];
+}
+
+@Override public int[] nearest(int x, int y, int k)
+{
+    if(k < 1)
+        throw new IllegalArgumentException("k debe ser positivo: "+ k);
+
+    Candidates q = new Candidates(Math.min(k, size()));
+    q.reset(x, y, -1);
+    nearest(q);
+    return q.sorted();
+}
+
+@Override public int neighbour(int i)
+{
+    Candidates q = new Candidates(1);
+    q.reset(getX(i), getY(i), i);
+    nearest(q);
+    return q.worst();
+}
+
+// Recorre anillos de celdas cada vez mayores alrededor de la celda de
+// la posición buscada, hasta que los puntos que quedan fuera del
+// cuadrado recorrido no pueden mejorar los candidatos.
+private void nearest(Candidates q)
+{
+    int cx = col(q.x), cy = row(q.y);
+
+    for(int r = 0; ; r++)
+    {
+        int c0 = cx - r, c1 = cx + r,
+            r0 = cy - r, r1 = cy + r;
+
+        for(int j = Math.max(r0, 0); j <= Math.min(r1, rows - 1); j++)
+        {
+            if(j == r0 || j == r1)
+            {
+                for(int i = Math.max(c0, 0); i <= Math.min(c1, cols-1); i++)
+                    visit(j * cols + i, q);
+            }
+            else
+            {
+                if(c0 >= 0)
+                    visit(j * cols + c0, q);
+
+                if(c1 < cols)
+                    visit(j * cols + c1, q);
+            }
+        }
+
+        // Distancia a los lados del cuadrado que no han llegado al borde
+        // de la rejilla. Fuera de la rejilla no hay puntos.
+        long bound = Long.MAX_VALUE;
+
+        if(c0 > 0)
+            bound = Math.min(bound, q.x - minX - (long)c0 * side);
+
+        if(c1 < cols - 1)
+            bound = Math.min(bound, minX + (long)(c1 + 1) * side - q.x);
+
+        if(r0 > 0)
+            bound = Math.min(bound, q.y - minY - (long)r0 * side);
+
+        if(r1 < rows - 1)
+            bound = Math.min(bound, minY + (long)(r1 + 1) * side - q.y);
+
+        if(bound == Long.MAX_VALUE || q.beyond(bound))
+            return; //..............................................RETURN
+    }
+}
+
+private void visit(int cell, Candidates q)
+{
+    for(int k = start[cell]; k < start[cell+1]; k++)
+        q.add(xs[k], ys[k], index[k]);
+}
+
+@Override public int[] radius(int x, int y, double distance)
+{
+    if(!(distance >= 0))
+    {
+        throw new IllegalArgumentException(
+                "Distancia no válida: "+ distance);
+    }
+
+    // Las coordenadas de la rejilla están a menos de 2^33 de la posición.
+    long h = Candidates.limitHi(distance),
+         l = Candidates.limitLo(distance),
+         r = (long)Math.ceil(Math.min(distance, 0x1p33));
+
+    IntStream.Builder b = IntStream.builder();
+
+    for(int j = row(y - r); j <= row(y + r); j++)
+    {
+        for(int i = col(x - r); i <= col(x + r); i++)
+        {
+            int c = j * cols + i;
+
+            for(int k = start[c]; k < start[c+1]; k++)
+            {
+                long dx = (long)x - xs[k],
+                     dy = (long)y - ys[k];
+
+                if(Candidates.within(dx, dy, h, l))
+                    b.add(index[k]);
+            }
+        }
+    }
+
+    return b.build().toArray();
+}
+
+@Override public int[] box(int minX, int minY, int maxX, int maxY)
+{
+    IntStream.Builder b = IntStream.builder();
+
+    if(minX > maxX || minY > maxY)
+        return b.build().toArray(); //..............................RETURN
+
+    for(int j = row(minY); j <= row(maxY); j++)
+    {
+        for(int i = col(minX); i <= col(maxX); i++)
+        {
+            int c = j * cols + i;
+
+            for(int k = start[c]; k < start[c+1]; k++)
+            {
+                if(xs[k] >= minX && xs[k] <= maxX &&
+                   ys[k] >= minY && ys[k] <= maxY)
+                {
+                    b.add(index[k]);
+                }
+            }
+        }
+    }
+
+    return b.build().toArray();
+}
+
+@Override public void write(Path file) throws IOException
+{
+    IndexFile.write(file, MAGIC, new int[] { minX, minY, side, cols, rows },
+                    start, index, xs, ys);
+}
+
+public static void main(String[] args) throws IOException
+{
+    int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+    Random random = new Random(1);
+    int[] xs = new int[n], ys = new int[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        xs[i] = random.nextInt(1000000);
+        ys[i] = random.nextInt(1000000);
+    }
+
+    long t = System.nanoTime();
+    UniformGrid grid = new UniformGrid(xs, ys, true);
+    System.out.printf("Construcción: %d ms\n",
+                      (System.nanoTime() - t) / 1000000);
+
+    t = System.nanoTime();
+
+    for(int i = 0; i < 100000; i++)
+        grid.nearest(random.nextInt(1000000), random.nextInt(1000000));
+
+    System.out.printf("100000 búsquedas: %d ms\n",
+                      (System.nanoTime() - t) / 1000000);
+
+    Path file = Files.createTempFile("grid", ".bin");
+    grid.write(file);
+    SpatialIndex copy = SpatialIndex.read(file);
+    Files.delete(file);
+
+    System.out.println("Puntos en [0,1000]x[0,1000]: "+
+                       copy.box(0, 0, 1000, 1000).length);
+
+    System.out.println("Par más cercano: "+ ClosestPoints.compute(copy));
+}
+
+} // UniformGrid
@@ -0,0 +1,968 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ejemplos de algoritmos voraces.
+ */
+public class Voraces
+{
+private static int[] cambioMonedas(int[] monedas, int valor)
+{
+    Arrays.sort(monedas);
+    int[] cambio = new int[monedas.length];
+    int suma = 0;
+    int i = monedas.length - 1;
+
+    while(suma != valor)
+    {
+        while(suma + monedas[i] > valor)
+        {
+            i--;
+
+            if(i < 0)
+                throw new RuntimeException("No hay solución");
+        }
+
+        suma += monedas[i];
+        cambio[i]++;
+    }
+
+    return cambio;
+}
+
+private static void printMonedas(
+        int[] monedas, int[] cambio, String titulo)
+{
+    System.out.println("\n"+ titulo);
+    System.out.println(Arrays.toString(monedas));
+
+    StringBuilder sb = new StringBuilder();
+    int valor = 0;
+
+    for(int i = 0; i < monedas.length; i++)
+    {
+        int c = cambio[i];
+
+        if(c != 0)
+        {
+            if(sb.length() > 0)
+                sb.append(" + ");
+
+            sb.append(c +"*"+ monedas[i]);
+            valor += c * monedas[i];
+        }
+    }
+
+    sb.append(" = "+ valor);
+    System.out.println(sb);
+}
+
+private static void cambioMonedas()
+{
+    int[] monedas = { 1, 5, 10, 25 },
+          cambio  = cambioMonedas(monedas, 31);
+
+    printMonedas(monedas, cambio, "Cambio de monedas");
+}
+
+private static void cambioMonedasNoCanonico()
+{
+    int[] monedas = { 1, 3, 4 },
+          cambio  = cambioMonedas(monedas, 6);
+
+    printMonedas(monedas, cambio, "Cambio de monedas no canónico");
+
+    cambio = CambioMonedas.crear(monedas).cambio(6);
+    printMonedas(monedas, cambio, "Cambio de monedas no canónico óptimo");
+}
+
+private static double[] mochila(Elemento[] elementos, double pesoObjetivo,
+                                boolean fraccionamiento)
+{
+    Arrays.sort(elementos);
+    double resultado[] = new double[elementos.length];
+    double peso = 0;
+
+    for(int i = 0; i < elementos.length && peso < pesoObjetivo; i++)
+    {
+        double pi = elementos[i].peso;
+
+        if(peso + pi <= pesoObjetivo)
+        {
+            resultado[i] = 1;
+            peso += pi;
+        }
+        else if(fraccionamiento)
+        {
+            resultado[i] = (pesoObjetivo - peso) / pi;
+            peso = pesoObjetivo;
+        }
+    }
+
+    return resultado;
+}
+
+/**
+ * Problema de la mochila con fraccionamiento en tiempo O(n) en promedio.
+ *
+ * No hace falta ordenar todos los elementos por su relación valor/peso:
+ * basta encontrar el elemento crítico, el único que se fracciona. Los
+ * de mayor relación entran enteros y los de menor se quedan fuera. El
+ * crítico se busca con una selección por mediana ponderada: como en
+ * quickselect, se parten los candidatos por la relación de un pivote
+ * aleatorio y se descarta la parte que entra entera en la mochila o la
+ * que se queda fuera, según la suma de sus pesos.
+ *
+ * No modifica los arrays de entrada. Los elementos sin valor no se
+ * meten en la mochila, y los que tienen valor pero no pesan, siempre.
+ * @param valores Valor de cada elemento.
+ * @param pesos Peso de cada elemento.
+ * @param capacidad Peso máximo de la mochila.
+ * @return Fracción de cada elemento que se mete en la mochila.
+ */
+public static double[] mochila(double[] valores, double[] pesos,
+                               double capacidad)
+{
+    int n = valores.length;
+
+    if(pesos.length != n)
+        throw new IllegalArgumentException("Distinto número de pesos.");
+
+    if(!(capacidad >= 0))
+        throw new IllegalArgumentException("Capacidad: "+ capacidad);
+
+    double[] x = new double[n], r = new double[n];
+    int[] e = new int[n]; // Candidatos y su relación valor/peso en 'r'.
+    int m = 0;
+
+    for(int i = 0; i < n; i++)
+    {
+        double v = valores[i], w = pesos[i];
+
+        if(!(w >= 0) || Double.isNaN(v))
+            throw new IllegalArgumentException("Elemento no válido: "+ i);
+
+        if(v > 0 && w == 0)
+        {
+            x[i] = 1;
+        }
+        else if(v > 0)
+        {
+            e[m] = i;
+            r[m] = v / w;
+            m++;
+        }
+    }
+
+    Random random = ThreadLocalRandom.current();
+    int lo = 0, hi = m;
+
+    while(lo < hi)
+    {
+        // Partición en tres: [lo,a) mayores que el pivote, [a,c) iguales
+        // y [c,hi) menores.
+        double p = r[lo + random.nextInt(hi - lo)];
+        int a = lo, b = lo, c = hi;
+
+        while(b < c)
+        {
+            if(r[b] > p)
+                swap(e, r, a++, b++);
+            else if(r[b] < p)
+                swap(e, r, b, --c);
+            else
+                b++;
+        }
+
+        double mayores = 0;
+
+        for(int k = lo; k < a; k++)
+            mayores += pesos[e[k]];
+
+        if(mayores > capacidad)
+        {
+            // El crítico está entre los mayores.
+            hi = a;
+            continue; //..........................................CONTINUE
+        }
+
+        for(int k = lo; k < a; k++)
+            x[e[k]] = 1;
+
+        capacidad -= mayores;
+
+        // Los iguales se meten en cualquier orden hasta llenar.
+        for(int k = a; k < c; k++)
+        {
+            double w = pesos[e[k]];
+
+            if(w > capacidad)
+            {
+                x[e[k]] = capacidad / w;
+                return x; //........................................RETURN
+            }
+
+            x[e[k]] = 1;
+            capacidad -= w;
+        }
+
+        lo = c;
+    }
+
+    return x;
+}
+
+private static void swap(int[] e, double[] r, int i, int j)
+{
+    int t = e[i];
+    e[i] = e[j];
+    e[j] = t;
+
+    double s = r[i];
+    r[i] = r[j];
+    r[j] = s;
+}
+
+private static void printMochila(Elemento[] elementos,
+                                 double[] resultado, String titulo)
+{
+    System.out.println("\n"+ titulo);
+    System.out.println(Arrays.toString(elementos));
+    assert elementos.length == resultado.length;
+    double beneficio = 0, peso = 0;
+
+    for(int i = 0; i < elementos.length; i++)
+    {
+        double r = resultado[i];
+
+        if(r > 0)
+        {
+            double pi = elementos[i].peso,
+                   pr = r * pi;
+
+            System.out.println(i +" : "+ r +" * "+ pi +" = "+ pr);
+            beneficio += r * elementos[i].valor;
+            peso += pr;
+        }
+    }
+
+    System.out.println("Beneficio: "+ beneficio);
+    System.out.println("     Peso: "+ peso);
+}
+
+private static void mochilaFraccionamiento()
+{
+    Elemento[] elementos = {
+            new Elemento(20, 10), new Elemento(30, 20),
+            new Elemento(66, 30), new Elemento(40, 40),
+            new Elemento(60, 50) };
+
+    double[] resultado = mochila(elementos, 100, true);
+    printMochila(elementos, resultado, "Mochila con fraccionamiento");
+}
+
+private static void mochilaSeleccion()
+{
+    double[] valores = { 20, 30, 66, 40, 60 },
+             pesos   = { 10, 20, 30, 40, 50 },
+             x = mochila(valores, pesos, 100);
+
+    System.out.println("\nMochila con fraccionamiento por selección");
+    double beneficio = 0;
+
+    for(int i = 0; i < x.length; i++)
+    {
+        if(x[i] > 0)
+        {
+            System.out.println(i +" : "+ x[i] +" * "+ pesos[i]);
+            beneficio += x[i] * valores[i];
+        }
+    }
+
+    System.out.println("Beneficio: "+ beneficio);
+}
+
+private static void mochilaDiscreta()
+{
+    Elemento[] elementos = {
+            new Elemento(50, 5), new Elemento(140, 20),
+            new Elemento(60, 10) };
+
+    double[] resultado = mochila(elementos, 30, false);
+    printMochila(elementos, resultado, "Mochila discreta");
+}
+
+/**
+ * Selección de actividades: el mayor número de actividades que no se
+ * solapan. Se eligen de forma voraz por orden de finalización.
+ *
+ * Cada actividad ocupa el intervalo [inicio, fin), así que una puede
+ * empezar cuando termina otra. Las actividades vacías (inicio igual al
+ * fin) no se solapan con ninguna, como en {@link #particionIntervalos},
+ * y se eligen siempre. Las actividades se ordenan con claves 'long' que
+ * combinan el fin y el índice, sin crear objetos.
+ * @param inicios Inicio de cada actividad.
+ * @param finales Fin de cada actividad.
+ * @return Índices de las actividades elegidas, por orden de fin.
+ */
+public static int[] seleccionActividades(int[] inicios, int[] finales)
+{
+    long[] claves = claves(inicios, finales, finales);
+    int[] elegidas = new int[claves.length];
+    int n = 0;
+    long fin = Long.MIN_VALUE;
+
+    for(long c : claves)
+    {
+        int i = (int)c;
+
+        if(inicios[i] == finales[i])
+        {
+            elegidas[n++] = i;
+        }
+        else if(inicios[i] >= fin)
+        {
+            elegidas[n++] = i;
+            fin = finales[i];
+        }
+    }
+
+    return Arrays.copyOf(elegidas, n);
+}
+
+/**
+ * Partición de intervalos: reparte los intervalos entre el menor
+ * número de recursos de modo que los de un mismo recurso no se
+ * solapen. Los intervalos se recorren por orden de inicio, y cada uno
+ * se asigna al recurso que queda libre antes si ya está libre, o a un
+ * recurso nuevo si no. Los recursos se guardan en un montículo de
+ * claves 'long' que combinan el fin de su último intervalo y el
+ * número de recurso. Los intervalos vacíos no se solapan con ninguno
+ * y se asignan al recurso 0.
+ * @param inicios Inicio de cada intervalo.
+ * @param finales Fin de cada intervalo.
+ * @return Recurso asignado a cada intervalo, numerados desde 0.
+ */
+public static int[] particionIntervalos(int[] inicios, int[] finales)
+{
+    long[] claves  = claves(inicios, finales, inicios),
+           monton  = new long[claves.length];
+    int[] recursos = new int[claves.length];
+    int n = 0, nuevos = 0;
+
+    for(long c : claves)
+    {
+        int i = (int)c, r;
+
+        if(inicios[i] == finales[i])
+            continue; //..........................................CONTINUE
+
+        if(n > 0 && monton[0] >> 32 <= inicios[i])
+        {
+            r = (int)monton[0];
+            monton[0] = monton[--n];
+            bajar(monton, n, 0);
+        }
+        else
+        {
+            r = nuevos++;
+        }
+
+        recursos[i] = r;
+        monton[n] = (long)finales[i] << 32 | r;
+        subir(monton, n++);
+    }
+
+    return recursos;
+}
+
+// Claves ordenadas con un valor en los 32 bits altos y el índice en los
+// bajos.
+private static long[] claves(int[] inicios, int[] finales, int[] valores)
+{
+    if(inicios.length != finales.length)
+        throw new IllegalArgumentException("Distinto número de finales.");
+
+    long[] claves = new long[inicios.length];
+
+    for(int i = 0; i < claves.length; i++)
+    {
+        if(inicios[i] > finales[i])
+            throw new IllegalArgumentException("Intervalo no válido: "+ i);
+
+        claves[i] = (long)valores[i] << 32 | i;
+    }
+
+    Arrays.sort(claves);
+    return claves;
+}
+
+// Montículo de mínimos de claves 'long'.
+private static void subir(long[] monton, int i)
+{
+    long c = monton[i];
+
+    while(i > 0 && monton[(i - 1) / 2] > c)
+    {
+        monton[i] = monton[(i - 1) / 2];
+        i = (i - 1) / 2;
+    }
+
+    monton[i] = c;
+}
+
+private static void bajar(long[] monton, int n, int i)
+{
+    long c = monton[i];
+
+    for(int h = 2 * i + 1; h < n; h = 2 * i + 1)
+    {
+        if(h + 1 < n && monton[h+1] < monton[h])
+            h++;
+
+        if(monton[h] >= c)
+            break; //................................................BREAK
+
+        monton[i] = monton[h];
+        i = h;
+    }
+
+    monton[i] = c;
+}
+
+/**
+ * Longitudes de un código de Huffman. Se unen repetidamente los dos
+ * árboles de menor frecuencia, guardados en un montículo de índices
+ * de nodo. Los nodos son los símbolos y los nodos internos que se van
+ * creando, con sus frecuencias y sus padres en arrays, de modo que la
+ * profundidad de cada símbolo se obtiene recorriendo los nodos desde
+ * la raíz, que es el último creado.
+ * @param frecuencias Frecuencia de cada símbolo.
+ * @return Longitud del código de cada símbolo. Los símbolos con
+ *         frecuencia cero no tienen código y su longitud es cero.
+ */
+public static int[] longitudesHuffman(long[] frecuencias)
+{
+    int n = frecuencias.length;
+    long[] peso = Arrays.copyOf(frecuencias, 2 * n);
+    int[] padre = new int[2 * n],
+          monton = new int[n];
+    int m = 0;
+
+    for(int i = 0; i < n; i++)
+    {
+        if(peso[i] < 0)
+            throw new IllegalArgumentException("Frecuencia negativa: "+ i);
+
+        if(peso[i] > 0)
+        {
+            monton[m] = i;
+            subir(monton, m++, peso);
+        }
+    }
+
+    int[] longitudes = new int[n];
+
+    if(m == 1)
+        longitudes[monton[0]] = 1;
+
+    if(m <= 1)
+        return longitudes; //.......................................RETURN
+
+    int nodo = n;
+
+    while(m > 1)
+    {
+        int a = sacar(monton, m--, peso),
+            b = sacar(monton, m--, peso);
+
+        peso[nodo] = peso[a] + peso[b];
+        padre[a] = padre[b] = nodo;
+        monton[m] = nodo++;
+        subir(monton, m++, peso);
+    }
+
+    // Los padres se crean después que sus hijos: recorremos los nodos
+    // de la raíz hacia abajo con 'padre' como profundidad.
+    padre[--nodo] = 0;
+
+    for(int i = nodo - 1; i >= n; i--)
+        padre[i] = padre[padre[i]] + 1;
+
+    for(int i = 0; i < n; i++)
+    {
+        if(peso[i] > 0)
+            longitudes[i] = padre[padre[i]] + 1;
+    }
+
+    return longitudes;
+}
+
+// Montículo de mínimos de índices de nodo según su peso. Los empates se
+// deshacen por índice para que el código no dependa del montículo.
+private static boolean menor(long[] peso, int a, int b)
+{
+    return peso[a] < peso[b] || peso[a] == peso[b] && a < b;
+}
+
+private static void subir(int[] monton, int i, long[] peso)
+{
+    int c = monton[i];
+
+    while(i > 0 && menor(peso, c, monton[(i - 1) / 2]))
+    {
+        monton[i] = monton[(i - 1) / 2];
+        i = (i - 1) / 2;
+    }
+
+    monton[i] = c;
+}
+
+private static int sacar(int[] monton, int n, long[] peso)
+{
+    int r = monton[0], c = monton[--n], i = 0;
+
+    for(int h = 1; h < n; h = 2 * i + 1)
+    {
+        if(h + 1 < n && menor(peso, monton[h+1], monton[h]))
+            h++;
+
+        if(!menor(peso, monton[h], c))
+            break; //................................................BREAK
+
+        monton[i] = monton[h];
+        i = h;
+    }
+
+    monton[i] = c;
+    return r;
+}
+
+/**
+ * Código canónico a partir de las longitudes de un código prefijo, como
+ * en el formato DEFLATE: los códigos de cada longitud son consecutivos
+ * por orden de símbolo, y siguen al último de la longitud anterior.
+ * Basta guardar las longitudes para reconstruir el código.
+ * @param longitudes Longitud del código de cada símbolo, o cero si el
+ *                   símbolo no tiene código.
+ * @return Código de cada símbolo, en los bits bajos.
+ * @throws IllegalArgumentException Si alguna longitud es mayor que 63
+ *         o las longitudes no corresponden a un código prefijo.
+ */
+public static long[] codigosCanonicos(int[] longitudes)
+{
+    int[] cuenta = new int[64];
+
+    for(int l : longitudes)
+    {
+        if(l < 0 || l > 63)
+            throw new IllegalArgumentException("Longitud: "+ l);
+
+        cuenta[l]++;
+    }
+
+    long[] siguiente = new long[64];
+    long codigo = 0;
+
+    for(int l = 1; l < 64; l++)
+    {
+        codigo = (codigo + (l > 1 ? cuenta[l-1] : 0)) << 1;
+        siguiente[l] = codigo;
+
+        // Con l = 63 el límite sólo cabe sin signo.
+        if(Long.compareUnsigned(codigo + cuenta[l], 1L << l) > 0)
+            throw new IllegalArgumentException("No es un código prefijo.");
+    }
+
+    long[] codigos = new long[longitudes.length];
+
+    for(int i = 0; i < longitudes.length; i++)
+    {
+        if(longitudes[i] > 0)
+            codigos[i] = siguiente[longitudes[i]]++;
+    }
+
+    return codigos;
+}
+
+/**
+ * Estructura de conjuntos disjuntos (union-find) sobre enteros, con
+ * unión por tamaño y compresión de caminos por división a la mitad.
+ */
+private static class Conjuntos
+{
+    private final int[] padre, tam;
+
+    private Conjuntos(int n)
+    {
+        padre = new int[n];
+        tam = new int[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            padre[i] = i;
+            tam[i] = 1;
+        }
+    }
+
+    private int buscar(int a)
+    {
+        while(padre[a] != a)
+        {
+            padre[a] = padre[padre[a]];
+            a = padre[a];
+        }
+
+        return a;
+    }
+
+    // Une los conjuntos de dos elementos. Devuelve 'false' si ya
+    // estaban en el mismo.
+    private boolean unir(int a, int b)
+    {
+        a = buscar(a);
+        b = buscar(b);
+
+        if(a == b)
+            return false; //........................................RETURN
+
+        if(tam[a] < tam[b])
+        {
+            int t = a;
+            a = b;
+            b = t;
+        }
+
+        padre[b] = a;
+        tam[a] += tam[b];
+        return true;
+    }
+} // Conjuntos
+
+private static void comprobarAristas(
+        int vertices, int[] origenes, int[] destinos, int[] pesos)
+{
+    if(destinos.length != origenes.length || pesos.length != origenes.length)
+        throw new IllegalArgumentException("Distinto número de aristas.");
+
+    for(int i = 0; i < origenes.length; i++)
+    {
+        if(origenes[i] < 0 || origenes[i] >= vertices ||
+           destinos[i] < 0 || destinos[i] >= vertices)
+        {
+            throw new IllegalArgumentException("Arista no válida: "+ i);
+        }
+    }
+}
+
+/**
+ * Algoritmo de Kruskal: árbol de recubrimiento mínimo de un grafo no
+ * dirigido, o bosque si no es conexo. Las aristas se ordenan por peso
+ * con claves 'long' que combinan el peso y el índice, y se añaden las
+ * que unen dos componentes distintas según un union-find.
+ * @param vertices Número de vértices, numerados desde 0.
+ * @param origenes Un extremo de cada arista.
+ * @param destinos El otro extremo de cada arista.
+ * @param pesos Peso de cada arista.
+ * @return Índices de las aristas del árbol, por orden de peso.
+ */
+public static int[] kruskal(int vertices, int[] origenes, int[] destinos,
+                            int[] pesos)
+{
+    comprobarAristas(vertices, origenes, destinos, pesos);
+    long[] claves = new long[origenes.length];
+
+    for(int i = 0; i < claves.length; i++)
+        claves[i] = (long)pesos[i] << 32 | i;
+
+    Arrays.sort(claves);
+    Conjuntos c = new Conjuntos(vertices);
+    int[] arbol = new int[Math.max(0, vertices - 1)];
+    int n = 0;
+
+    for(int k = 0; k < claves.length && n < arbol.length; k++)
+    {
+        int i = (int)claves[k];
+
+        if(c.unir(origenes[i], destinos[i]))
+            arbol[n++] = i;
+    }
+
+    return Arrays.copyOf(arbol, n);
+}
+
+/**
+ * Algoritmo de Prim: árbol de recubrimiento mínimo de un grafo no
+ * dirigido, o bosque si no es conexo. Las listas de adyacencia se
+ * guardan en arrays (representación CSR), y las aristas candidatas en
+ * un montículo de claves 'long' con el peso y el índice de la arista.
+ * Las aristas que llegan a vértices ya alcanzados se descartan al
+ * sacarlas del montículo.
+ * @param vertices Número de vértices, numerados desde 0.
+ * @param origenes Un extremo de cada arista.
+ * @param destinos El otro extremo de cada arista.
+ * @param pesos Peso de cada arista.
+ * @return Índices de las aristas del árbol, por orden de inclusión.
+ */
+public static int[] prim(int vertices, int[] origenes, int[] destinos,
+                         int[] pesos)
+{
+    comprobarAristas(vertices, origenes, destinos, pesos);
+    int m = origenes.length;
+    int[] inicio = new int[vertices + 1],
+          arista = new int[2 * m];
+
+    for(int i = 0; i < m; i++)
+    {
+        inicio[origenes[i] + 1]++;
+        inicio[destinos[i] + 1]++;
+    }
+
+    for(int v = 0; v < vertices; v++)
+        inicio[v+1] += inicio[v];
+
+    int[] p = Arrays.copyOf(inicio, vertices);
+
+    for(int i = 0; i < m; i++)
+    {
+        arista[p[origenes[i]]++] = i;
+        arista[p[destinos[i]]++] = i;
+    }
+
+    boolean[] alcanzado = new boolean[vertices];
+    long[] monton = new long[2 * m];
+    int[] arbol = new int[Math.max(0, vertices - 1)];
+    int n = 0;
+
+    for(int raiz = 0; raiz < vertices; raiz++)
+    {
+        if(alcanzado[raiz])
+            continue; //..........................................CONTINUE
+
+        int size = 0, v = raiz;
+
+        for(;;)
+        {
+            alcanzado[v] = true;
+
+            for(int k = inicio[v]; k < inicio[v+1]; k++)
+            {
+                int i = arista[k];
+
+                if(!alcanzado[origenes[i] ^ destinos[i] ^ v])
+                {
+                    monton[size] = (long)pesos[i] << 32 | i;
+                    subir(monton, size++);
+                }
+            }
+
+            // Siguiente arista hacia un vértice no alcanzado.
+            v = -1;
+
+            while(v < 0 && size > 0)
+            {
+                int i = (int)monton[0];
+                monton[0] = monton[--size];
+                bajar(monton, size, 0);
+
+                if(!alcanzado[origenes[i]] || !alcanzado[destinos[i]])
+                {
+                    arbol[n++] = i;
+                    v = alcanzado[origenes[i]] ? destinos[i] : origenes[i];
+                }
+            }
+
+            if(v < 0)
+                break; //............................................BREAK
+        }
+    }
+
+    return Arrays.copyOf(arbol, n);
+}
+
+/**
+ * Árbol de recubrimiento mínimo de un grafo ponderado con el algoritmo
+ * de Kruskal. Las aristas se consideran no dirigidas.
+ * @param <E> Tipo de los vértices.
+ * @param g Grafo.
+ * @return Grafo con los mismos vértices y las aristas del árbol en los
+ *         dos sentidos.
+ */
+public static <E> Dijkstra<E> kruskal(Dijkstra<E> g)
+{
+    return arbol(g, true);
+}
+
+/**
+ * Árbol de recubrimiento mínimo de un grafo ponderado con el algoritmo
+ * de Prim. Las aristas se consideran no dirigidas.
+ * @param <E> Tipo de los vértices.
+ * @param g Grafo.
+ * @return Grafo con los mismos vértices y las aristas del árbol en los
+ *         dos sentidos.
+ */
+public static <E> Dijkstra<E> prim(Dijkstra<E> g)
+{
+    return arbol(g, false);
+}
+
+private static <E> Dijkstra<E> arbol(Dijkstra<E> g, boolean kruskal)
+{
+    List<E> vertices = new ArrayList<>(g.vertices());
+    Map<E,Integer> indices = new HashMap<>();
+    Dijkstra<E> arbol = new Dijkstra<>();
+    int m = 0;
+
+    for(E v : vertices)
+    {
+        indices.put(v, indices.size());
+        arbol.add(v);
+        m += g.edges(v).size();
+    }
+
+    int[] origenes = new int[m], destinos = new int[m], pesos = new int[m];
+    m = 0;
+
+    for(E v : vertices)
+    {
+        for(Map.Entry<E,Integer> e : g.edges(v).entrySet())
+        {
+            origenes[m] = indices.get(v);
+            destinos[m] = indices.get(e.getKey());
+            pesos[m++]  = e.getValue();
+        }
+    }
+
+    int n = vertices.size();
+    int[] aristas = kruskal ? kruskal(n, origenes, destinos, pesos)
+                            : prim(n, origenes, destinos, pesos);
+
+    for(int i : aristas)
+    {
+        arbol.add2(vertices.get(origenes[i]), vertices.get(destinos[i]),
+                   pesos[i]);
+    }
+
+    return arbol;
+}
+
+private static class Elemento implements Comparable<Elemento>
+{
+    private double valor, peso;
+
+    private Elemento(double valor, double peso)
+    {
+        this.valor = valor;
+        this.peso  = peso;
+    }
+
+    @Override public int compareTo(Elemento e)
+    {
+        double beneficio1 = valor / peso,
+               beneficio2 = e.valor / e.peso;
+
+        // Compara para ordenar de forma descendente.
+        return Double.compare(beneficio2, beneficio1);
+    }
+
+    @Override public String toString()
+    {
+        return "("+ valor +", "+ peso +")";
+    }
+} // Elemento
+
+private static void actividades()
+{
+    int[] inicios = { 1, 3, 0, 5, 3, 5, 6, 8, 8, 2, 12 },
+          finales = { 4, 5, 6, 7, 9, 9, 10, 11, 12, 14, 16 };
+
+    System.out.println("\nSelección de actividades");
+    System.out.println(Arrays.toString(
+            seleccionActividades(inicios, finales)));
+
+    System.out.println("\nPartición de intervalos");
+    System.out.println(Arrays.toString(
+            particionIntervalos(inicios, finales)));
+}
+
+private static void huffman()
+{
+    String simbolos = "abcdef";
+    long[] frecuencias = { 45, 13, 12, 16, 9, 5 };
+    int[] longitudes = longitudesHuffman(frecuencias);
+    long[] codigos = codigosCanonicos(longitudes);
+
+    System.out.println("\nCódigo de Huffman");
+
+    for(int i = 0; i < codigos.length; i++)
+    {
+        String c = Long.toBinaryString(codigos[i] | 1L << longitudes[i]);
+        System.out.println(simbolos.charAt(i) +" : "+ c.substring(1));
+    }
+}
+
+private static void arbolRecubrimiento()
+{
+    Dijkstra<Character> g = new Dijkstra<>();
+
+    for(char v = 'a'; v <= 'i'; v++)
+        g.add(v);
+
+    g.add2('a', 'b', 4);
+    g.add2('a', 'h', 8);
+    g.add2('b', 'c', 8);
+    g.add2('b', 'h', 11);
+    g.add2('c', 'd', 7);
+    g.add2('c', 'f', 4);
+    g.add2('c', 'i', 2);
+    g.add2('d', 'e', 9);
+    g.add2('d', 'f', 14);
+    g.add2('e', 'f', 10);
+    g.add2('f', 'g', 2);
+    g.add2('g', 'h', 1);
+    g.add2('g', 'i', 6);
+    g.add2('h', 'i', 7);
+
+    printArbol(kruskal(g), "Árbol de recubrimiento mínimo (Kruskal)");
+    printArbol(prim(g), "Árbol de recubrimiento mínimo (Prim)");
+}
+
+private static void printArbol(Dijkstra<Character> arbol, String titulo)
+{
+    System.out.println("\n"+ titulo);
+    long peso = 0;
+
+    for(char v : new TreeSet<>(arbol.vertices()))
+    {
+        for(Map.Entry<Character,Integer> e : arbol.edges(v).entrySet())
+        {
+            if(v < e.getKey())
+            {
+                System.out.println(v +" - "+ e.getKey() +" : "+ e.getValue());
+                peso += e.getValue();
+            }
+        }
+    }
+
+    System.out.println("Peso: "+ peso);
+}
+
+public static void main(String[] args)
+{
+    cambioMonedas();
+    cambioMonedasNoCanonico();
+    mochilaFraccionamiento();
+    mochilaSeleccion();
+    mochilaDiscreta();
+    actividades();
+    huffman();
+    arbolRecubrimiento();
+}
+
+} // Voraces
@@ -0,0 +1,378 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.math.BigInteger;
+import java.util.*;
+import eda.ClosestPoints.Point;
+import eda.ClosestPoints.Result;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprobación aleatoria de {@link ClosestPoints} por fuerza bruta.
+ *
+ * Cada caso genera una nube pequeña de puntos con su propia semilla y
+ * compara la distancia del par devuelto por cada versión del algoritmo
+ * con la menor distancia entre todos los pares. Los casos mezclan
+ * distribuciones uniformes, agrupadas y alineadas, rangos pequeños con
+ * muchos puntos repetidos y coordenadas extremas. Los puntos del espacio
+ * llegan hasta los límites de las coordenadas 'long'.
+ *
+ * Si un caso falla se muestran su semilla y sus puntos, y se puede
+ * repetir ejecutando un solo caso con esa semilla:
+ *
+ *     mvn test -Dcasos=1 -Dsemilla=1234
+ */
+public class ClosestPointsVerifierTest
+{
+// Coordenadas con las que las distancias al cuadrado caben en un 'long'.
+private static final int SMALL = 1 << 30;
+
+// Límite de las coordenadas 'long' en el espacio.
+private static final long LIMIT3 = 1L << 61;
+
+// Mayor coordenada que un 'double' representa sin redondeo.
+private static final long EXACT = 1L << 53;
+
+private long seed;
+private int[] xs, ys;
+private long[] xs3, ys3, zs3; // Puntos del espacio.
+
+private void generate()
+{
+    Random r = new Random(seed);
+    int n = 2 + r.nextInt(r.nextInt(200) == 0 ? 10000 : 100);
+    PointGenerator g;
+
+    switch(r.nextInt(6))
+    {
+        case 0:  g = PointGenerator.uniform(n, 0, 0, 7, 7, seed); break;
+        case 1:  g = PointGenerator.uniform(n, -1000, -1000,
+                                            1000, 1000, seed); break;
+        case 2:  g = PointGenerator.uniform(n, Integer.MIN_VALUE,
+                     Integer.MIN_VALUE, Integer.MAX_VALUE,
+                     Integer.MAX_VALUE, seed); break;
+        case 3:  g = PointGenerator.uniform(n, seed); break;
+        case 4:  g = PointGenerator.clustered(n, seed); break;
+        default: g = PointGenerator.collinear(n, seed); break;
+    }
+
+    xs = g.getXs();
+    ys = g.getYs();
+    xs3 = new long[n];
+    ys3 = new long[n];
+    zs3 = new long[n];
+    int mode = r.nextInt(4);
+
+    for(int i = 0; i < n; i++)
+    {
+        switch(mode)
+        {
+            case 0:  // Todos en el plano z = 0.
+                xs3[i] = xs[i];
+                ys3[i] = ys[i];
+                break;
+            case 1:
+                xs3[i] = xs[i];
+                ys3[i] = ys[i];
+                zs3[i] = r.nextInt(8);
+                break;
+            case 2:
+                xs3[i] = xs[i];
+                ys3[i] = ys[i];
+                zs3[i] = r.nextInt();
+                break;
+            default: // Cerca de los límites.
+                xs3[i] = extreme(r);
+                ys3[i] = extreme(r);
+                zs3[i] = extreme(r);
+                break;
+        }
+    }
+}
+
+// Coordenada del espacio cercana a los límites o cualquiera dentro.
+private static long extreme(Random r)
+{
+    switch(r.nextInt(3))
+    {
+        case 0:  return -LIMIT3 + 1 + r.nextInt(4);
+        case 1:  return LIMIT3 - 1 - r.nextInt(4);
+        default: return r.nextLong() % LIMIT3;
+    }
+}
+
+private static BigInteger distance2(long x1, long y1, long x2, long y2)
+{
+    BigInteger x = BigInteger.valueOf(x1 - x2),
+               y = BigInteger.valueOf(y1 - y2);
+
+    return x.multiply(x).add(y.multiply(y));
+}
+
+private BigInteger distance2(int a, int b)
+{
+    return distance2(xs[a], ys[a], xs[b], ys[b]);
+}
+
+// Las distancias al cuadrado ocupan hasta 65 bits: se comparan como
+// un bit alto y 64 bits bajos sin signo.
+private BigInteger bruteForce()
+{
+    long bestHi = Long.MAX_VALUE, bestLo = 0;
+
+    for(int i = 0; i < xs.length; i++)
+    {
+        for(int j = i+1; j < xs.length; j++)
+        {
+            long x  = (long)xs[i] - xs[j],
+                 y  = (long)ys[i] - ys[j],
+                 x2 = x * x,
+                 lo = x2 + y * y,
+                 hi = Long.compareUnsigned(lo, x2) < 0 ? 1 : 0;
+
+            if(hi < bestHi ||
+               hi == bestHi && Long.compareUnsigned(lo, bestLo) < 0)
+            {
+                bestHi = hi;
+                bestLo = lo;
+            }
+        }
+    }
+
+    return BigInteger.valueOf(bestHi).shiftLeft(64)
+           .add(new BigInteger(Long.toUnsignedString(bestLo)));
+}
+
+// Las diferencias son menores que 2^62, y la suma de los tres cuadrados
+// menor que 2^126: se calcula con 128 bits.
+private BigInteger bruteForce3()
+{
+    long bestHi = Long.MAX_VALUE, bestLo = 0;
+    long[] ds = new long[3];
+
+    for(int i = 0; i < xs3.length; i++)
+    {
+        for(int j = i+1; j < xs3.length; j++)
+        {
+            long hi = 0, lo = 0;
+            ds[0] = xs3[i] - xs3[j];
+            ds[1] = ys3[i] - ys3[j];
+            ds[2] = zs3[i] - zs3[j];
+
+            for(long d : ds)
+            {
+                long s = lo + d * d;
+                hi += Math.multiplyHigh(d, d) +
+                      (Long.compareUnsigned(s, lo) < 0 ? 1 : 0);
+                lo = s;
+            }
+
+            if(hi < bestHi ||
+               hi == bestHi && Long.compareUnsigned(lo, bestLo) < 0)
+            {
+                bestHi = hi;
+                bestLo = lo;
+            }
+        }
+    }
+
+    return BigInteger.valueOf(bestHi).shiftLeft(64)
+           .add(new BigInteger(Long.toUnsignedString(bestLo)));
+}
+
+private BigInteger distance3(int a, int b)
+{
+    BigInteger s = BigInteger.ZERO;
+
+    for(long d : new long[] {xs3[a] - xs3[b], ys3[a] - ys3[b],
+                             zs3[a] - zs3[b]})
+    {
+        s = s.add(BigInteger.valueOf(d).pow(2));
+    }
+
+    return s;
+}
+
+private boolean exact()
+{
+    for(long[] c : new long[][] {xs3, ys3, zs3})
+    {
+        for(long v : c)
+        {
+            if(Math.abs(v) > EXACT)
+                return false; //....................................RETURN
+        }
+    }
+
+    return true;
+}
+
+private boolean small()
+{
+    for(int i = 0; i < xs.length; i++)
+    {
+        if(Math.abs((long)xs[i]) >= SMALL || Math.abs((long)ys[i]) >= SMALL)
+            return false; //........................................RETURN
+    }
+
+    return true;
+}
+
+// Comprueba que el par está formado por dos índices distintos, que las
+// coordenadas coinciden con las de los índices y que su distancia es
+// la mínima.
+private void check(String name, Result r, BigInteger best)
+{
+    int a = r.getIndexA(), b = r.getIndexB();
+
+    if(a == b || a < 0 || b < 0 || a >= xs.length || b >= xs.length ||
+       r.getA().getX() != xs[a] || r.getA().getY() != ys[a] ||
+       r.getB().getX() != xs[b] || r.getB().getY() != ys[b])
+    {
+        fail(name +": par no válido "+ r);
+    }
+
+    check(name, a, b, best);
+}
+
+private void check(String name, int a, int b, BigInteger best)
+{
+    if(a == b || !distance2(a, b).equals(best))
+        fail(name +": "+ a +"-"+ b +" en lugar de "+ best);
+}
+
+private void fail(String message)
+{
+    StringBuilder s = new StringBuilder();
+    s.append("Semilla "+ seed +", "+ xs.length +" puntos. "+ message);
+
+    for(int i = 0; i < Math.min(xs.length, 100); i++)
+        s.append(i % 8 == 0 ? "\n" : " ").append(xs[i] +","+ ys[i]);
+
+    throw new AssertionError(s.toString());
+}
+
+private void verify()
+{
+    generate();
+    BigInteger best = bruteForce();
+    int n = xs.length;
+
+    check("compute(int[],int[])", ClosestPoints.compute(xs, ys), best);
+    check("computeParallel", ClosestPoints.computeParallel(xs, ys), best);
+
+    long[] lx = new long[n], ly = new long[n];
+    double[] dx = new double[n], dy = new double[n], dz = new double[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        lx[i] = xs[i];
+        ly[i] = ys[i];
+    }
+
+    ClosestPoints.Pair p = ClosestPoints.compute(lx, ly);
+    check("compute(long[],long[])", p.getIndexA(), p.getIndexB(), best);
+
+    BigInteger best3 = bruteForce3();
+    p = ClosestPoints.compute(xs3, ys3, zs3);
+    int a = p.getIndexA(), b = p.getIndexB();
+
+    if(a == b || !distance3(a, b).equals(best3))
+    {
+        fail("compute(long[],long[],long[]): "+ a +"-"+ b +
+             " en lugar de "+ best3);
+    }
+
+    // Con 'double' sólo se puede exigir la distancia con redondeo, y
+    // sólo si las coordenadas se representan sin redondeo.
+    if(exact())
+    {
+        for(int i = 0; i < n; i++)
+        {
+            dx[i] = xs3[i];
+            dy[i] = ys3[i];
+            dz[i] = zs3[i];
+        }
+
+        double d = Math.sqrt(best3.doubleValue());
+        p = ClosestPoints.compute(dx, dy, dz);
+
+        if(Math.abs(p.getDistance() - d) > 1e-9 * d)
+            fail("compute(double[]...): "+ p +" en lugar de "+ d);
+    }
+
+    check("compute(KdTree)",
+          ClosestPoints.compute(new KdTree(xs, ys)), best);
+
+    check("compute(UniformGrid)",
+          ClosestPoints.compute(new UniformGrid(xs, ys)), best);
+
+    // La versión de los apuntes guarda la distancia al cuadrado en un
+    // 'long', y no admite coordenadas tan grandes como para desbordarla.
+    if(!small())
+        return; //..................................................RETURN
+
+    Set<Point> points = new HashSet<>();
+
+    for(int i = 0; i < n; i++)
+        points.add(new Point(xs[i], ys[i]));
+
+    if(points.size() == n)
+    {
+        Result r = ClosestPoints.compute(points);
+
+        if(!BigInteger.valueOf(r.getDistance2()).equals(best))
+            fail("compute(Set): "+ r +" en lugar de "+ best);
+    }
+}
+
+/**
+ * Ejecuta los casos de prueba. El número de casos y la semilla del
+ * primero se indican con las propiedades 'casos' y 'semilla', y cada
+ * caso usa la semilla siguiente a la del anterior.
+ */
+@Test public void verifyCases()
+{
+    int cases = Integer.getInteger("casos", 10000);
+    long first = Long.getLong("semilla", 1);
+
+    for(int i = 0; i < cases; i++)
+    {
+        seed = first + i;
+        verify();
+    }
+}
+
+/**
+ * Límites de las coordenadas 'long': 2^62 en el plano y 2^61 en el
+ * espacio, donde la suma de tres cuadrados desbordaría 128 bits con
+ * signo. En los tres puntos de cada caso el par 0-1 es el más lejano,
+ * y el más cercano contiene el punto 2.
+ */
+@Test public void longLimits()
+{
+    long m = (1L << 62) - 1, m3 = LIMIT3 - 1;
+
+    ClosestPoints.Pair p = ClosestPoints.compute(new long[] {-m, m, 0},
+                                                 new long[] {-m, m, 1});
+    assertTrue(p.getIndexA() == 2 || p.getIndexB() == 2,
+               "compute(long[],long[]): "+ p);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> ClosestPoints.compute(new long[] {-m, m, 0},
+                                    new long[] {-m, m, 0},
+                                    new long[] {-m, m, 1L << 61}));
+
+    p = ClosestPoints.compute(new long[] {-m3, m3, 0},
+                              new long[] {-m3, m3, 0},
+                              new long[] {-m3, m3, 1L << 60});
+    assertTrue(p.getIndexA() == 2 || p.getIndexB() == 2,
+               "compute(long[],long[],long[]): "+ p);
+}
+
+} // ClosestPointsVerifierTest
@@ -0,0 +1,119 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.time.Duration;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link DynamicClosestPoints}, comparando con la fuerza
+ * bruta tras cada inserción y cada borrado.
+ */
+public class DynamicClosestPointsTest
+{
+/**
+ * Los puntos repetidos no deben reconstruir la rejilla en cada
+ * inserción: con 4000 copias del mismo punto el coste era cúbico.
+ */
+@Test public void repeatedPoints()
+{
+    int n = 4000;
+    DynamicClosestPoints d = new DynamicClosestPoints();
+    int[] ids = new int[n];
+
+    assertTimeoutPreemptively(Duration.ofSeconds(20), () ->
+    {
+        for(int i = 0; i < n; i++)
+            ids[i] = d.insert(5, 5);
+    });
+
+    assertEquals(0, d.closest().getDistance2());
+
+    for(int i = 0; i < n - 1; i++)
+        assertTrue(d.delete(ids[i]));
+
+    assertNull(d.closest());
+    d.insert(8, 9);
+    assertEquals(25, d.closest().getDistance2());
+}
+
+/**
+ * Secuencias aleatorias de inserciones y borrados, con escalas que
+ * cambian para que la rejilla se reconstruya en los dos sentidos.
+ */
+@Test public void insertDelete()
+{
+    Random r = new Random(1);
+
+    for(int t = 0; t < 200; t++)
+    {
+        DynamicClosestPoints d = new DynamicClosestPoints();
+        List<Integer> ids = new ArrayList<>();
+        Map<Integer,int[]> points = new HashMap<>();
+
+        for(int op = 0; op < 300; op++)
+        {
+            if(!ids.isEmpty() && r.nextInt(3) == 0)
+            {
+                int id = ids.remove(r.nextInt(ids.size()));
+                assertTrue(d.delete(id));
+                assertFalse(d.delete(id));
+                points.remove(id);
+            }
+            else
+            {
+                // Escala que cambia cada 100 operaciones.
+                int range = op / 100 % 2 == 0 ? 8 + t : (1 << 29) - 1,
+                    x = r.nextInt(2 * range) - range,
+                    y = r.nextInt(2 * range) - range,
+                    id = d.insert(x, y);
+
+                assertFalse(points.containsKey(id));
+                ids.add(id);
+                points.put(id, new int[] {x, y});
+            }
+
+            check(d, points, "Caso "+ t +", operación "+ op);
+        }
+    }
+}
+
+private static void check(DynamicClosestPoints d, Map<Integer,int[]> p,
+                          String message)
+{
+    assertEquals(p.size(), d.size(), message);
+    long best = Long.MAX_VALUE;
+
+    for(int[] a : p.values())
+    {
+        for(int[] b : p.values())
+        {
+            long x = (long)a[0] - b[0], y = (long)a[1] - b[1];
+
+            if(a != b)
+                best = Math.min(best, x * x + y * y);
+        }
+    }
+
+    ClosestPoints.Result c = d.closest();
+
+    if(best == Long.MAX_VALUE)
+    {
+        assertNull(c, message);
+        return; //..................................................RETURN
+    }
+
+    int[] a = p.get(c.getIndexA()), b = p.get(c.getIndexB());
+    assertTrue(c.getIndexA() != c.getIndexB(), message);
+    assertEquals(a[0], c.getA().getX(), message);
+    assertEquals(a[1], c.getA().getY(), message);
+    assertEquals(b[0], c.getB().getX(), message);
+    assertEquals(b[1], c.getB().getY(), message);
+    assertEquals(best, c.getDistance2(), message);
+}
+
+} // DynamicClosestPointsTest
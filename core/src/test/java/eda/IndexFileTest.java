@@ -0,0 +1,66 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.file.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lectura de ficheros de índice correctos y dañados.
+ */
+public class IndexFileTest
+{
+@TempDir Path dir;
+
+/**
+ * Un índice escrito se lee igual.
+ */
+@Test public void writeRead() throws IOException
+{
+    Path file = dir.resolve("ok.idx");
+    IndexFile.write(file, 7, new int[] {1, 2}, new int[] {3, 4, 5},
+                    new int[0]);
+
+    IndexFile f = IndexFile.read(file);
+    assertEquals(7, f.magic);
+    assertArrayEquals(new int[] {1, 2}, f.header);
+    assertEquals(2, f.arrays.length);
+    assertArrayEquals(new int[] {3, 4, 5}, f.arrays[0]);
+    assertArrayEquals(new int[0], f.arrays[1]);
+}
+
+/**
+ * Las longitudes negativas o mayores que el resto del fichero se
+ * rechazan antes de reservar memoria.
+ */
+@Test public void invalidLengths() throws IOException
+{
+    Path file = dir.resolve("bad.idx");
+    IndexFile.write(file, 7, new int[] {1, 2}, new int[] {3, 4, 5});
+    byte[] ok = Files.readAllBytes(file);
+
+    // Posiciones de: longitud de la cabecera, número de arrays y
+    // longitud del primer array.
+    for(int position : new int[] {8, 12, 24})
+    {
+        for(int value : new int[] {-1, Integer.MIN_VALUE, 1000,
+                                   Integer.MAX_VALUE})
+        {
+            byte[] bad = ok.clone();
+            ByteBuffer.wrap(bad).order(ByteOrder.LITTLE_ENDIAN)
+                      .putInt(position, value);
+            Files.write(file, bad);
+
+            assertThrows(IOException.class, () -> IndexFile.read(file),
+                         "Posición "+ position +", valor "+ value);
+        }
+    }
+}
+
+} // IndexFileTest
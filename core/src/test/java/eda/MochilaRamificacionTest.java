@@ -0,0 +1,68 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los presupuestos de {@link MochilaRamificacion} con varios
+ * hilos, donde cada subárbol expande menos de un bloque de nodos.
+ */
+public class MochilaRamificacionTest
+{
+/**
+ * Con un presupuesto de nodos menor que el necesario, la solución no
+ * puede marcarse como óptima.
+ */
+@Test public void maxNodosWithThreads()
+{
+    Random r = new Random(1);
+
+    for(int t = 0; t < 50; t++)
+    {
+        int n = 20 + r.nextInt(40);
+        int[] pesos = new int[n], valores = new int[n];
+        long suma = 0;
+
+        for(int i = 0; i < n; i++)
+        {
+            pesos[i] = 100 + r.nextInt(100);
+            valores[i] = 1 + r.nextInt(1000);
+            suma += pesos[i];
+        }
+
+        MochilaRamificacion.Solucion uno = resolver(pesos, valores, suma,
+                                                    1, Long.MAX_VALUE),
+                                     todos = resolver(pesos, valores, suma,
+                                                      8, Long.MAX_VALUE);
+
+        assertTrue(uno.optima() && todos.optima(), "Caso "+ t);
+        assertEquals(uno.getValor(), todos.getValor(), "Caso "+ t);
+
+        if(todos.getNodos() < 40)
+            continue; //..........................................CONTINUE
+
+        MochilaRamificacion.Solucion s = resolver(pesos, valores, suma, 8,
+                                                  todos.getNodos() / 4);
+
+        assertFalse(s.optima(), "Caso "+ t +": "+ s);
+    }
+}
+
+private static MochilaRamificacion.Solucion resolver(
+        int[] pesos, int[] valores, long suma, int hilos, long nodos)
+{
+    MochilaRamificacion m = new MochilaRamificacion(pesos, valores, suma/2);
+    m.setHilos(hilos);
+
+    if(nodos != Long.MAX_VALUE)
+        m.setMaxNodos(nodos);
+
+    return m.resolver();
+}
+
+} // MochilaRamificacionTest
@@ -0,0 +1,168 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.math.*;
+import java.util.*;
+import eda.ClosestPoints.Result;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprobación aleatoria de {@link PointCloud} por fuerza bruta, con
+ * rangos pequeños con muchos puntos repetidos y con coordenadas de todo
+ * el rango de 'int'.
+ */
+public class PointCloudTest
+{
+private int[] xs, ys;
+
+private void generate(Random r)
+{
+    int n = 2 + r.nextInt(60);
+    boolean small = r.nextBoolean();
+    xs = new int[n];
+    ys = new int[n];
+
+    for(int i = 0; i < n; i++)
+    {
+        xs[i] = small ? r.nextInt(8) : r.nextInt();
+        ys[i] = small ? r.nextInt(8) : r.nextInt();
+    }
+}
+
+private BigInteger distance2(int a, int b)
+{
+    BigInteger x = BigInteger.valueOf((long)xs[a] - xs[b]),
+               y = BigInteger.valueOf((long)ys[a] - ys[b]);
+
+    return x.multiply(x).add(y.multiply(y));
+}
+
+// Distancias al cuadrado de todos los pares, de menor a mayor.
+private List<BigInteger> allPairs()
+{
+    List<BigInteger> d = new ArrayList<>();
+
+    for(int i = 0; i < xs.length; i++)
+    {
+        for(int j = i+1; j < xs.length; j++)
+            d.add(distance2(i, j));
+    }
+
+    Collections.sort(d);
+    return d;
+}
+
+// Comprueba que los pares son distintos y devuelve sus distancias.
+private List<BigInteger> distances(List<Result> pairs)
+{
+    Set<Long> seen = new HashSet<>();
+    List<BigInteger> d = new ArrayList<>();
+
+    for(Result p : pairs)
+    {
+        int a = Math.min(p.getIndexA(), p.getIndexB()),
+            b = Math.max(p.getIndexA(), p.getIndexB());
+
+        assertTrue(a != b && seen.add((long)a << 32 | b), "Par: "+ p);
+        d.add(distance2(a, b));
+    }
+
+    return d;
+}
+
+/**
+ * Los k pares más cercanos.
+ */
+@Test public void closestPairs()
+{
+    Random r = new Random(1);
+
+    for(int t = 0; t < 500; t++)
+    {
+        generate(r);
+        List<BigInteger> all = allPairs();
+        int k = 1 + r.nextInt(all.size() + 2);
+        PointCloud c = new PointCloud(xs, ys);
+
+        assertEquals(all.subList(0, Math.min(k, all.size())),
+                     distances(c.closestPairs(k)), "Caso "+ t);
+    }
+}
+
+/**
+ * Los pares a una distancia menor o igual que una dada.
+ */
+@Test public void pairsWithin()
+{
+    Random r = new Random(2);
+
+    for(int t = 0; t < 500; t++)
+    {
+        generate(r);
+        double distance = r.nextInt(10) == 0 ? Double.POSITIVE_INFINITY
+                        : r.nextBoolean() ? r.nextInt(12) * 0.75
+                        : r.nextDouble() * 0x1p33;
+
+        List<BigInteger> expected = new ArrayList<>();
+        BigInteger limit = Double.isInfinite(distance) ? null
+                : new BigDecimal(Math.floor(distance * distance))
+                  .toBigInteger();
+
+        for(BigInteger d : allPairs())
+        {
+            if(limit == null || d.compareTo(limit) <= 0)
+                expected.add(d);
+        }
+
+        PointCloud c = new PointCloud(xs, ys);
+
+        assertEquals(expected, distances(c.pairsWithin(distance)),
+                     "Caso "+ t +", distancia "+ distance);
+    }
+}
+
+/**
+ * El vecino más cercano de cada punto.
+ */
+@Test public void nearestNeighbours()
+{
+    Random r = new Random(3);
+
+    for(int t = 0; t < 500; t++)
+    {
+        generate(r);
+        PointCloud c = new PointCloud(xs, ys);
+
+        // El árbol k-d reutiliza los órdenes de la búsqueda de pares,
+        // que deben quedar intactos tras una consulta.
+        if(r.nextBoolean())
+            c.closestPairs(1 + r.nextInt(5));
+
+        int[] nn = c.nearestNeighbours();
+
+        for(int i = 0; i < xs.length; i++)
+        {
+            BigInteger best = null;
+
+            for(int j = 0; j < xs.length; j++)
+            {
+                if(j != i && (best == null ||
+                              distance2(i, j).compareTo(best) < 0))
+                {
+                    best = distance2(i, j);
+                }
+            }
+
+            if(best == null)
+                assertEquals(-1, nn[i]);
+            else
+                assertEquals(best, distance2(i, nn[i]), "Caso "+ t);
+        }
+    }
+}
+
+} // PointCloudTest
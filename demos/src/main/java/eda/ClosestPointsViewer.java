@@ -0,0 +1,166 @@
+/*
+ * Released under the MIT License.
+ * Copyright 2021 Oscar Vega-Gisbert.
+ */
+package eda;
+
+import java.util.*;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.EventQueue;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import eda.ClosestPoints.Point;
+import eda.ClosestPoints.Result;
+
+/**
+ * Visor gráfico de {@link ClosestPoints}: crea puntos al azar en una
+ * ventana y dibuja el par más cercano.
+ *
+ * Está separado de {@link ClosestPoints} para que el algoritmo se pueda
+ * usar sin Swing en servidores sin entorno gráfico.
+ */
+public class ClosestPointsViewer
+{
+private static class Canvas extends JPanel
+{
+    private Set<Point> points;
+    private Result result;
+
+    @Override protected void paintComponent(Graphics g)
+    {
+        ((Graphics2D)g).setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g.setColor(Color.black);
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        if(points == null)
+        {
+            g.setFont(g.getFont().deriveFont(30f));
+            g.setColor(Color.green);
+
+            g.drawString("Haz click en esta ventana para "+
+                         "indicar el número de puntos.", 40, 60);
+        }
+        else
+        {
+            if(result != null)
+            {
+                Point a = result.getA(), b = result.getB();
+                int x = (a.getX() + b.getX()) / 2,
+                    y = (a.getY() + b.getY()) / 2,
+                    d = (int)result.getDistance();
+
+                g.setColor(Color.red);
+                g.drawLine(0, y, getWidth(), y);
+                g.drawLine(x, 0, x, getHeight());
+
+                g.drawOval(x - d/2, y - d/2, d, d);
+            }
+
+            g.setColor(Color.white);
+
+            for(Point p : points)
+                g.fillOval(p.getX() - 2, p.getY() - 2, 4, 4);
+        }
+    }
+}
+
+private static Set<Point> createPoints(int width, int height, int number)
+{
+    // Evitamos añadir puntos repetidos.
+    // Si hay que crear muchos puntos en poco espacio, habrá muchas
+    // repeticiones, y por tanto, habrá riesgo de bucle infinito.
+    // Para evitarlo generamos el triple de puntos como mucho.
+    // Creamos los puntos con un margen de 4 píxeles.
+    PointGenerator g = PointGenerator.uniform(number * 3, 4, 4,
+                       width - 5, height - 5, System.nanoTime());
+
+    int[] xs = g.getXs(), ys = g.getYs();
+    Set<Point> points = new HashSet<>();
+
+    for(int i = 0; i < xs.length && points.size() < number; i++)
+        points.add(new Point(xs[i], ys[i]));
+
+    return points;
+}
+
+private static Integer getNumberOfPoints(Canvas canvas)
+{
+    int number = canvas.points == null ? 100 : canvas.points.size();
+
+    for(;;)
+    {
+        String input = JOptionPane.showInputDialog(canvas,
+                       "Número de puntos", Integer.toString(number));
+
+        if(input == null)
+            return null; //.........................................RETURN
+
+        try
+        {
+            number = Integer.parseInt(input);
+
+            if(number >= 3)
+                return number; //...................................RETURN
+
+            JOptionPane.showMessageDialog(canvas,
+                    "Hay que indicar al menos 3 puntos.",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+        catch(NumberFormatException ex)
+        {
+            JOptionPane.showMessageDialog(canvas,
+                    "Hay que introducir el número de puntos",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
+
+private static void canvasClick(Canvas canvas)
+{
+    Integer number = getNumberOfPoints(canvas);
+
+    if(number == null)
+        return; //..................................................RETURN
+
+    int width  = canvas.getWidth(),
+        height = canvas.getHeight();
+
+    Set<Point> points = createPoints(width, height, number);
+    Result     result = ClosestPoints.compute(points);
+    System.out.println(result);
+
+    canvas.points = points;
+    canvas.result = result;
+    canvas.repaint();
+}
+
+public static void main(String[] args)
+{
+    EventQueue.invokeLater(() ->
+    {
+        Canvas canvas = new Canvas();
+        JFrame frame = new JFrame("Par de puntos más cercanos");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
+        frame.getContentPane().add(canvas);
+        frame.setVisible(true);
+
+        canvas.addMouseListener(new MouseAdapter()
+        {@Override public void mouseClicked(MouseEvent e)
+        {
+            canvasClick(canvas);
+        }});
+    });
+}
+
+
+} // ClosestPointsViewer